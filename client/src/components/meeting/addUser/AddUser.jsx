@@ -12,6 +12,7 @@ const AddUser = ({ meetingCode, setIsShowParticipantsInfo }) => {
   const [userIsAdmin, setUserIsAdmin] = useState(false);
   const [waitingUsers, setWaitingUsers] = useState([]);
   const [inCallUsers, setInCallUsers] = useState([]);
+  const [rosterCursor, setRosterCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const { accessToken } = useSelector((state) => state.authentication);
   const meetingService = new MeetingService(accessToken);
@@ -31,13 +32,13 @@ const AddUser = ({ meetingCode, setIsShowParticipantsInfo }) => {
     }
   };
 
-  const fetchMeetingParticipants = async () => {
+  const fetchMeetingParticipants = async (cursor) => {
     try {
-      const response = await meetingService.getMeetingParticipantsAll(
-        meetingCode
+      const response = await meetingService.getRosterPage(meetingCode, cursor);
+      setInCallUsers((users) =>
+        cursor ? [...users, ...response.content] : response.content
       );
-      console.log("participant", response);
-      setInCallUsers(response);
+      setRosterCursor(response.nextCursor);
     } catch (error) {
       console.error("Failed to fetch participants users");
     }
@@ -80,6 +81,27 @@ const AddUser = ({ meetingCode, setIsShowParticipantsInfo }) => {
     }
   };
 
+  const admitAllWaitingUsers = async () => {
+    try {
+      const admittedIds = await meetingService.admitAllWaitingUsers(meetingCode);
+      const admitted = waitingUsers.filter((u) => admittedIds.includes(u.id));
+      setWaitingUsers((users) =>
+        users.filter((u) => !admittedIds.includes(u.id))
+      );
+      setInCallUsers((users) => [
+        ...users,
+        ...admitted.map((user) => ({
+          id: user.id,
+          user: user,
+          admin: false,
+          muted: false,
+        })),
+      ]);
+    } catch (error) {
+      toast.error("Failed to admit waiting users");
+    }
+  };
+
   useEffect(() => {
     fetchCurrentUser();
     fetchWaitingUsers();
@@ -172,7 +194,12 @@ const AddUser = ({ meetingCode, setIsShowParticipantsInfo }) => {
           <div className="in-call-persons-info">
             {userIsAdmin && waitingUsers.length > 0 && (
               <div className="waiting-persons-container">
-                <span className="info2">Waiting to join</span>
+                <div className="waiting-heading">
+                  <span className="info2">Waiting to join</span>
+                  <span className="admit-all" onClick={admitAllWaitingUsers}>
+                    Admit all
+                  </span>
+                </div>
                 {waitingUsers.map((waitingUser) => (
                   <div className="waiting-user1" key={waitingUser.id}>
                     <div className="waiting-left">
@@ -294,6 +321,14 @@ const AddUser = ({ meetingCode, setIsShowParticipantsInfo }) => {
                   </div>
                 </div>
               ))}
+              {rosterCursor && (
+                <span
+                  className="admit-all"
+                  onClick={() => fetchMeetingParticipants(rosterCursor)}
+                >
+                  Show more
+                </span>
+              )}
             </div>
           </div>
         </div>
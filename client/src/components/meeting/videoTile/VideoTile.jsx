@@ -1,7 +1,7 @@
 import React, { useEffect, useRef } from "react";
 import "../../../pages/meeting/meetingScreen/MeetingScreen.css"
 
-const VideoTile = ({ idx, stream, user, isSoundOn }) => {
+const VideoTile = ({ idx, stream, user, isSoundOn, isSpeaking }) => {
   const videoRef = useRef(null);
 
   useEffect(() => {
@@ -11,7 +11,10 @@ const VideoTile = ({ idx, stream, user, isSoundOn }) => {
   }, [stream]);
 
   return (
-    <div className="participant-video" key={idx}>
+    <div
+      className={`participant-video${isSpeaking ? " speaking" : ""}`}
+      key={idx}
+    >
       <span className="screen-name">{user.fullName}</span>
       <video ref={videoRef} autoPlay playsInline muted={!isSoundOn} />
     </div>
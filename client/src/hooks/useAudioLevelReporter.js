@@ -0,0 +1,63 @@
+import { useEffect, useRef } from "react";
+
+// Samples the microphone of the stream held in streamRef every intervalMs and hands
+// the level (0-100) to onLevel. Nothing is reported while enabled is false.
+export const useAudioLevelReporter = (streamRef, enabled, onLevel, intervalMs = 200) => {
+  const onLevelRef = useRef(onLevel);
+  onLevelRef.current = onLevel;
+
+  useEffect(() => {
+    if (!enabled) return;
+
+    let audioContext = null;
+    let analyser = null;
+    let source = null;
+    let dataArray = null;
+
+    // the camera stream is acquired asynchronously, so attach on the first tick that has it
+    const attach = () => {
+      const stream = streamRef.current;
+      if (!stream || stream.getAudioTracks().length === 0) return false;
+
+      const AudioContextClass = window.AudioContext || window.webkitAudioContext;
+      if (!AudioContextClass) return false;
+
+      audioContext = new AudioContextClass();
+      audioContext.resume().catch(() => {});
+      analyser = audioContext.createAnalyser();
+      analyser.fftSize = 512;
+      source = audioContext.createMediaStreamSource(stream);
+      source.connect(analyser);
+      dataArray = new Uint8Array(analyser.fftSize);
+      return true;
+    };
+
+    const sample = () => {
+      if (!analyser && !attach()) return;
+
+      analyser.getByteTimeDomainData(dataArray);
+      let sumSquares = 0;
+      for (let i = 0; i < dataArray.length; i++) {
+        const value = (dataArray[i] - 128) / 128;
+        sumSquares += value * value;
+      }
+      // speech rarely goes above an RMS of 0.3, scale that to the top of the range
+      const rms = Math.sqrt(sumSquares / dataArray.length);
+      onLevelRef.current(Math.min(100, Math.round((rms / 0.3) * 100)));
+    };
+
+    const intervalId = setInterval(sample, intervalMs);
+
+    return () => {
+      clearInterval(intervalId);
+      try {
+        source?.disconnect();
+      } catch (err) {
+        // Ignore disconnect errors
+      }
+      if (audioContext && audioContext.state !== "closed") {
+        audioContext.close().catch(() => {});
+      }
+    };
+  }, [streamRef, enabled, intervalMs]);
+};
@@ -15,6 +15,7 @@ import Toast from "../../../components/toast/Toast";
 import { toast } from "react-toastify";
 import { useWindowWidth } from "../../../hooks/useWindowWidth";
 import AppConfig from "../../../config/AppConfig";
+import { useAudioLevelReporter } from "../../../hooks/useAudioLevelReporter";
 
 const MeetingScreen = ({ meetingCode }) => {
   const { stompClient, isStompConnected } = useContext(WebSocketContext);
@@ -42,6 +43,7 @@ const MeetingScreen = ({ meetingCode }) => {
   const [isShowParticipantsInfo, setIsShowParticipantsInfo] = useState(false);
   const [currentUser, setCurrentUser] = useState(null);
   const [isUserAdmin, setIsUserAdmin] = useState(false);
+  const [activeSpeakers, setActiveSpeakers] = useState([]); // user ids, loudest first
   const currentUserVideoOptionRef = useRef();
   const currentVideoRef = useRef(null);
   const currentVideoStreamRef = useRef(null);
@@ -94,6 +96,34 @@ const MeetingScreen = ({ meetingCode }) => {
     } catch (error) {}
   };
 
+  const fetchMediaState = async () => {
+    try {
+      const response = await meetingService.getMediaState(meetingCode);
+      applyMediaStates(response.states);
+    } catch (error) {}
+  };
+
+  // bits of MeetingMediaType: 1 mic, 2 camera, 4 hand
+  const applyMediaStates = (states) => {
+    setParticipants((prev) =>
+      prev.map((participant) => {
+        const bits = states[participant.user.id];
+        if (bits === undefined) return participant;
+        return {
+          ...participant,
+          muted: (bits & 1) === 0,
+          handRaised: (bits & 4) !== 0,
+        };
+      })
+    );
+  };
+
+  const updateMedia = async (type, on) => {
+    try {
+      await meetingService.updateMedia(meetingCode, type, on);
+    } catch (error) {}
+  };
+
   const addInMeeting = async () => {
     try {
       await meetingService.addInMeeting(meetingCode);
@@ -107,8 +137,8 @@ const MeetingScreen = ({ meetingCode }) => {
     return stompClient.current.subscribe(
       `/topic/waiting/users/${meetingCode}/${currentUser.email}`,
       (request) => {
-        const newUserAdded = JSON.parse(request.body);
-        if (newUserAdded) {
+        const waitingUpdate = JSON.parse(request.body);
+        if (waitingUpdate.waitingCount > 0) {
           setInCallNewUserAdded(true);
         }
       }
@@ -348,6 +378,13 @@ const MeetingScreen = ({ meetingCode }) => {
         await handleCandidate(data);
         break;
 
+      case "candidates":
+        // coalesced by the server, the original packets in their order
+        for (const packet of data.packets) {
+          await handleIncomingSignals(packet);
+        }
+        break;
+
       default:
         console.error("Unknown signal:", data.type);
         break;
@@ -377,38 +414,51 @@ const MeetingScreen = ({ meetingCode }) => {
     }
   };
 
-  const listeningUserRemoveFromMeeting = () => {
+  const listeningRosterChanges = () => {
     return stompClient.current.subscribe(
-      `/topic/meeting/${meetingCode}/participant/remove`,
+      `/topic/meeting/${meetingCode}/participants`,
       (request) => {
-        const removedParticipant = JSON.parse(request.body);
-
-        if (removedParticipant.user.email === currentUser.email) {
-          return;
+        const delta = JSON.parse(request.body);
+
+        (delta.removed || [])
+          .filter((participant) => participant.user.email !== currentUser.email)
+          .forEach((removedParticipant) => {
+            console.log("Participant remove from the call:", removedParticipant);
+            removeParticipant(removedParticipant);
+          });
+        (delta.added || [])
+          .filter((participant) => participant.user.email !== currentUser.email)
+          .forEach((newParticipant) => {
+            console.log("New Participant add", newParticipant);
+            sendOfferToTargetUser(newParticipant);
+          });
+        if (delta.media) {
+          applyMediaStates(delta.media);
         }
-
-        console.log("Participant remove from the call:", removedParticipant);
-        removeParticipant(removedParticipant);
       }
     );
   };
 
-  const listeningUserAddInMeeting = () => {
+  const listeningActiveSpeakers = () => {
     return stompClient.current.subscribe(
-      `/topic/meeting/${meetingCode}/participant/add`,
+      `/topic/meeting/${meetingCode}/speakers`,
       (request) => {
-        const newParticipant = JSON.parse(request.body);
-
-        if (newParticipant.user.email === currentUser.email) {
-          return;
-        }
-
-        console.log("New Participant add", newParticipant);
-        sendOfferToTargetUser(newParticipant);
+        const response = JSON.parse(request.body);
+        setActiveSpeakers(response.speakers || []);
       }
     );
   };
 
+  const reportAudioLevel = (level) => {
+    if (stompClient.current && stompClient.current.connected) {
+      stompClient.current.send(
+        `/app/meeting/${meetingCode}/audio-level`,
+        {},
+        String(level)
+      );
+    }
+  };
+
   const listeningWebRtc = () => {
     return stompClient.current.subscribe(
       `/topic/webrtc/connection/${currentUser.email}`,
@@ -452,12 +502,12 @@ const MeetingScreen = ({ meetingCode }) => {
     addInMeeting();
     currentUserIsAdmin();
     fetchWaitingUsers();
+    fetchMediaState();
   }, []);
 
   useEffect(() => {
     if (isStompConnected && currentUser) {
-      listeningUserAddInMeeting();
-      listeningUserRemoveFromMeeting();
+      listeningRosterChanges();
     }
   }, [stompClient, currentUser]);
 
@@ -475,6 +525,14 @@ const MeetingScreen = ({ meetingCode }) => {
     toggleTracks("audio", isAudioOn);
   }, [isAudioOn, participantInfo]);
 
+  useEffect(() => {
+    updateMedia("CAMERA", isCameraOn);
+  }, [isCameraOn]);
+
+  useEffect(() => {
+    updateMedia("MIC", isAudioOn);
+  }, [isAudioOn]);
+
   useEffect(() => {
     const handleUnload = () => {
       stopMeeting();
@@ -493,6 +551,19 @@ const MeetingScreen = ({ meetingCode }) => {
     }
   }, [isStompConnected, currentUser]);
 
+  useEffect(() => {
+    if (isStompConnected) {
+      const subscription = listeningActiveSpeakers();
+      return () => subscription.unsubscribe();
+    }
+  }, [isStompConnected]);
+
+  useAudioLevelReporter(
+    currentVideoStreamRef,
+    isStompConnected && isAudioOn,
+    reportAudioLevel
+  );
+
   useEffect(() => {
     console.log("Participant stream and user info: ", participantInfo);
   }, [participantInfo]);
@@ -670,6 +741,7 @@ const MeetingScreen = ({ meetingCode }) => {
               isSoundOn={isSoundOn}
               stream={info.stream}
               user={info.user}
+              isSpeaking={activeSpeakers.includes(info.user.id)}
             />
           ))}
 
@@ -804,7 +876,11 @@ const MeetingScreen = ({ meetingCode }) => {
             </div>
           ) : (
             <div
-              className="current-user-video1"
+              className={`current-user-video1${
+                currentUser && activeSpeakers.includes(currentUser.id)
+                  ? " speaking"
+                  : ""
+              }`}
               style={isOnlyDisplayMain ? { opacity: "0" } : {}}
             >
               <video ref={currentVideoRef} playsInline autoPlay muted />
@@ -93,8 +93,10 @@ const PreJoinScreen = ({ meetingCode, setIsUserReadyToJoin }) => {
 
   const listeningAdminAction = () => {
     adminActionSubscribe = stompClient.current.subscribe(
-      `/topic/allowed/in/meeting/${meetingCode}/${connectedUser.id}`,
-      () => {
+      `/topic/allowed/in/meeting/${meetingCode}`,
+      (message) => {
+        const allowedUserIds = JSON.parse(message.body);
+        if (!allowedUserIds.includes(connectedUser.id)) return;
         toast.success("Admin has allowed you to join the meeting.");
         setIsUserReadyToJoin(true);
       }
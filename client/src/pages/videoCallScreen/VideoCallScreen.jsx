@@ -200,6 +200,12 @@ const VideoCallScreen = () => {
         case "candidate":
           await handleCandidate(data);
           break;
+        case "candidates":
+          // coalesced by the server, the original packets in their order
+          for (const packet of data.packets) {
+            await handleIncomingSignals(packet);
+          }
+          break;
       }
     } catch (error) {}
   };
@@ -244,10 +250,18 @@ const VideoCallScreen = () => {
     return stompClient.current.subscribe(
       `/topic/reaction/${callId}/${currentUser.email}`,
       (request) => {
+        // one frame per window: count and a few senders per emoji
         const data = JSON.parse(request.body);
+        const [emoji, count] = Object.entries(data.counts).sort(
+          (a, b) => b[1] - a[1]
+        )[0];
+        const names = data.senders[emoji].join(", ");
         const value = Math.floor(Math.random() * (80 - 20 + 1)) + 20;
         setRandomValue(value);
-        setCurrentReaction({ emoji: data.emoji, name: data.name });
+        setCurrentReaction({
+          emoji: emoji,
+          name: count > 1 ? `${names} ×${count}` : names,
+        });
       }
     );
   };
@@ -53,6 +53,43 @@ class MeetingService {
     return response.data;
   };
 
+  getRosterPage = async (meetingCode, cursor, size = 25) => {
+    const response = await this.client.get(`/${meetingCode}/participants/page`, {
+      params: { cursor, size },
+    });
+    if (response.status != 200) {
+      throw new Error("Failed to fetch participant of the meeting");
+    }
+    return response.data;
+  };
+
+  getRosterSummary = async (meetingCode) => {
+    const response = await this.client.get(
+      `/${meetingCode}/participants/summary`
+    );
+    if (response.status != 200) {
+      throw new Error("Failed to fetch meeting summary");
+    }
+    return response.data;
+  };
+
+  updateMedia = async (meetingCode, type, on) => {
+    const response = await this.client.patch(`/${meetingCode}/media`, null, {
+      params: { type, on },
+    });
+    if (response.status != 200) {
+      throw new Error("Failed to update media state");
+    }
+  };
+
+  getMediaState = async (meetingCode) => {
+    const response = await this.client.get(`/${meetingCode}/media`);
+    if (response.status != 200) {
+      throw new Error("Failed to fetch media state of the meeting");
+    }
+    return response.data;
+  };
+
   addInMeeting = async (meetingCode) => {
     const response = await this.client.patch(`/${meetingCode}/add`);
     if (response.status != 200) {
@@ -97,6 +134,16 @@ class MeetingService {
     }
   };
 
+  admitAllWaitingUsers = async (meetingCode) => {
+    const response = await this.client.patch(
+      `/${meetingCode}/add/all/in/meeting`
+    );
+    if (response.status != 200) {
+      throw new Error("Failed to admit waiting users!");
+    }
+    return response.data;
+  };
+
   isExist = async (meetingCode) => {
     const response = await this.client.get(`/${meetingCode}/is/exist`);
     if (response.status != 200) {
@@ -1,9 +1,6 @@
 package dev.aniketkadam.server.authentication;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.jackson2.JacksonFactory;
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
 import dev.aniketkadam.server.exception.RefreshTokenException;
 import dev.aniketkadam.server.file.FileUtils;
@@ -40,9 +37,9 @@ public class AuthenticationService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final RoleRepository roleRepository;
     private final UserMapper mapper;
+    private final GoogleTokenVerifier googleTokenVerifier;
+    private final UserSnapshotCache userSnapshotCache;
 
-    @Value("${spring.security.oauth2.client.registration.google.client-id}")
-    private String googleClientId;
     @Value("${application.security.jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
 
@@ -61,6 +58,7 @@ public class AuthenticationService {
         User user = mapper.fromGoogleUser(googleUser);
         user.setRole(role);
         User savedUser = userRepository.save(user);
+        userSnapshotCache.invalidate(savedUser.getId());
 
         // Generate security token
         Map<String, Object> claims = new HashMap<>();
@@ -95,13 +93,7 @@ public class AuthenticationService {
     }
 
     GoogleIdToken verifyGoogleToken(String token) throws GeneralSecurityException, IOException {
-        GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                new NetHttpTransport(),
-                JacksonFactory.getDefaultInstance()
-        )
-                .setAudience(Collections.singletonList(googleClientId))
-                .build();
-        return verifier.verify(token);
+        return googleTokenVerifier.verify(token);
     }
 
     @Transactional
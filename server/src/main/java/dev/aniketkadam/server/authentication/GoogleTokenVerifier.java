@@ -0,0 +1,142 @@
+package dev.aniketkadam.server.authentication;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies Google ID tokens with one shared {@link GoogleIdTokenVerifier}, so the public keys
+ * and the HTTP connection to the key endpoint outlive a single login.
+ * <p>
+ * Keys come from {@code certs-url}: Google's endpoint, a stub server, or a {@code file:} /
+ * {@code classpath:} resource served in-process. They are refreshed in the background
+ * {@code refresh-ahead-ms} before they expire, so a login only fetches keys when the
+ * background refresh failed. The refresh has a thread of its own: a slow or unreachable key
+ * endpoint holds it for the HTTP client's timeouts and must not stall the scheduled jobs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GoogleTokenVerifier {
+
+    // any URL will do, the resource transport ignores it
+    private static final String STATIC_KEYS_URL = "http://localhost/static-certs";
+    private static final String STATIC_KEYS_CACHE_CONTROL = "max-age=86400";
+
+    private final ResourceLoader resourceLoader;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.security.oauth2.client.registration.google.client-id}")
+    private String googleClientId;
+    @Value("${application.security.google.certs-url:https://www.googleapis.com/oauth2/v1/certs}")
+    private String certsUrl;
+    @Value("${application.security.google.refresh-ahead-ms:600000}")
+    private long refreshAheadMillis;
+    @Value("${application.security.google.refresh-check-ms:60000}")
+    private long refreshCheckMillis;
+
+    private GooglePublicKeysManager publicKeys;
+    private GoogleIdTokenVerifier verifier;
+    private Timer keysCached;
+    private Timer keysFetched;
+    private Timer signatureVerification;
+    private Counter refreshed;
+    private Counter refreshFailures;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "google-keys-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        JsonFactory jsonFactory = JacksonFactory.getDefaultInstance();
+        boolean remote = certsUrl.startsWith("http");
+        HttpTransport transport = remote
+                ? new NetHttpTransport()
+                : new ResourceHttpTransport(resourceLoader.getResource(certsUrl), STATIC_KEYS_CACHE_CONTROL);
+        publicKeys = new GooglePublicKeysManager.Builder(transport, jsonFactory)
+                .setPublicCertsEncodedUrl(remote ? certsUrl : STATIC_KEYS_URL)
+                .build();
+        // with google-oauth-client 1.32 the verifier checks signatures against this manager's keys
+        verifier = new GoogleIdTokenVerifier.Builder(publicKeys)
+                .setAudience(Collections.singletonList(googleClientId))
+                .build();
+
+        keysCached = meterRegistry.timer("auth.google.keys", "result", "cached");
+        keysFetched = meterRegistry.timer("auth.google.keys", "result", "fetched");
+        signatureVerification = meterRegistry.timer("auth.google.verify");
+        refreshed = meterRegistry.counter("auth.google.keys.refreshes", "result", "success");
+        refreshFailures = meterRegistry.counter("auth.google.keys.refreshes", "result", "failure");
+        refresher.scheduleWithFixedDelay(this::refreshKeys, refreshCheckMillis, refreshCheckMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * @return the verified token, or null when it is malformed, expired, for another audience
+     * or not signed by one of the current keys
+     */
+    public GoogleIdToken verify(String token) throws GeneralSecurityException, IOException {
+        GoogleIdToken idToken;
+        try {
+            idToken = GoogleIdToken.parse(verifier.getJsonFactory(), token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        long expiresBefore = publicKeys.getExpirationTimeMilliseconds();
+        long start = System.nanoTime();
+        publicKeys.getPublicKeys();
+        (publicKeys.getExpirationTimeMilliseconds() != expiresBefore ? keysFetched : keysCached)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // the keys are cached now, this is only the signature and claim checks
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean valid = verifier.verify(idToken);
+        sample.stop(signatureVerification);
+        return valid ? idToken : null;
+    }
+
+    void refreshKeys() {
+        if (publicKeys.getExpirationTimeMilliseconds() - System.currentTimeMillis() > refreshAheadMillis) {
+            return;
+        }
+        try {
+            publicKeys.refresh();
+            refreshed.increment();
+        } catch (GeneralSecurityException | IOException e) {
+            // the cached keys stay in use, a login past their expiry fetches them itself
+            refreshFailures.increment();
+            log.warn("Failed to refresh Google public keys from {}: {}", certsUrl, e.getMessage());
+        }
+    }
+
+    long getKeysExpirationMillis() {
+        return publicKeys.getExpirationTimeMilliseconds();
+    }
+}
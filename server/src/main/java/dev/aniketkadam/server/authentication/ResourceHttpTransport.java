@@ -0,0 +1,107 @@
+package dev.aniketkadam.server.authentication;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Answers every request with the content of one resource, as a {@code 200} JSON response with the
+ * given {@code Cache-Control}. Lets {@link GoogleTokenVerifier} read its keys from a {@code file:}
+ * or {@code classpath:} resource through the regular client, caching included.
+ */
+class ResourceHttpTransport extends HttpTransport {
+
+    private final Resource resource;
+    private final String cacheControl;
+
+    ResourceHttpTransport(Resource resource, String cacheControl) {
+        this.resource = resource;
+        this.cacheControl = cacheControl;
+    }
+
+    @Override
+    protected LowLevelHttpRequest buildRequest(String method, String url) {
+        return new LowLevelHttpRequest() {
+            @Override
+            public void addHeader(String name, String value) {
+                // nothing to send them to
+            }
+
+            @Override
+            public LowLevelHttpResponse execute() throws IOException {
+                try (InputStream content = resource.getInputStream()) {
+                    return new Response(content.readAllBytes(), cacheControl);
+                }
+            }
+        };
+    }
+
+    private static class Response extends LowLevelHttpResponse {
+
+        private static final String[] HEADER_NAMES = {"Content-Type", "Cache-Control"};
+
+        private final byte[] content;
+        private final String[] headerValues;
+
+        private Response(byte[] content, String cacheControl) {
+            this.content = content;
+            this.headerValues = new String[]{Json.MEDIA_TYPE, cacheControl};
+        }
+
+        @Override
+        public InputStream getContent() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return null;
+        }
+
+        @Override
+        public long getContentLength() {
+            return content.length;
+        }
+
+        @Override
+        public String getContentType() {
+            return Json.MEDIA_TYPE;
+        }
+
+        @Override
+        public String getStatusLine() {
+            return "HTTP/1.1 200 OK";
+        }
+
+        @Override
+        public int getStatusCode() {
+            return 200;
+        }
+
+        @Override
+        public String getReasonPhrase() {
+            return "OK";
+        }
+
+        @Override
+        public int getHeaderCount() {
+            return HEADER_NAMES.length;
+        }
+
+        @Override
+        public String getHeaderName(int index) {
+            return HEADER_NAMES[index];
+        }
+
+        @Override
+        public String getHeaderValue(int index) {
+            return headerValues[index];
+        }
+    }
+}
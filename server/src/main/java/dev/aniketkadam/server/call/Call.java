@@ -17,7 +17,13 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "calls")
+@Table(
+        name = "calls",
+        indexes = {
+                @Index(name = "idx_calls_caller_history", columnList = "caller_id, started_at DESC, id DESC"),
+                @Index(name = "idx_calls_receiver_history", columnList = "receiver_id, started_at DESC, id DESC")
+        }
+)
 public class Call {
 
     @Id
@@ -39,4 +45,7 @@ public class Call {
     private List<Message> messages;
     private LocalDateTime startedAt;
     private LocalDateTime endedAt;
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 }
@@ -1,6 +1,7 @@
 package dev.aniketkadam.server.call;
 
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.pagination.CursorResponse;
 import dev.aniketkadam.server.pagination.PageResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -33,4 +34,13 @@ public class CallController {
         return ResponseEntity.ok(service.getAllCallHistory(page, size, authentication));
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<CursorResponse<CallResponse>> getCallHistory(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "5", required = false) int size,
+            Authentication authentication
+    ) throws OperationNotPermittedException {
+        return ResponseEntity.ok(service.getCallHistory(cursor, size, authentication));
+    }
+
 }
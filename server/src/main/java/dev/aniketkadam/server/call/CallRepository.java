@@ -1,12 +1,17 @@
 package dev.aniketkadam.server.call;
 
+import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,8 +32,73 @@ public interface CallRepository extends JpaRepository<Call, String> {
             WHERE call.caller.id = :userId
             OR call.receiver.id = :userId
             """)
+    @EntityGraph(attributePaths = {"caller.profile", "caller.role", "receiver.profile", "receiver.role"})
     Page<Call> findUserAllCalls(
             Pageable pageable,
             @Param("userId") String userId
     );
+
+    // Each branch walks its own (user, started_at, id) index and stops after :limit rows, so the
+    // cost depends on the page size and not on how long the user's history is. Only ids are
+    // selected so both branches stay index-only; the rows are loaded by findAllByIdIn.
+    @Query(value = """
+            SELECT h.id FROM (
+                (SELECT c.id, c.started_at FROM calls c
+                 WHERE c.caller_id = :userId
+                 ORDER BY c.started_at DESC, c.id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT c.id, c.started_at FROM calls c
+                 WHERE c.receiver_id = :userId AND c.caller_id <> :userId
+                 ORDER BY c.started_at DESC, c.id DESC
+                 LIMIT :limit)
+            ) h
+            ORDER BY h.started_at DESC, h.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findUserCallHistory(
+            @Param("userId") String userId,
+            @Param("limit") int limit
+    );
+
+    @Query(value = """
+            SELECT h.id FROM (
+                (SELECT c.id, c.started_at FROM calls c
+                 WHERE c.caller_id = :userId
+                 AND (c.started_at, c.id) < (:startedAt, :callId)
+                 ORDER BY c.started_at DESC, c.id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT c.id, c.started_at FROM calls c
+                 WHERE c.receiver_id = :userId AND c.caller_id <> :userId
+                 AND (c.started_at, c.id) < (:startedAt, :callId)
+                 ORDER BY c.started_at DESC, c.id DESC
+                 LIMIT :limit)
+            ) h
+            ORDER BY h.started_at DESC, h.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findUserCallHistoryBefore(
+            @Param("userId") String userId,
+            @Param("startedAt") LocalDateTime startedAt,
+            @Param("callId") String callId,
+            @Param("limit") int limit
+    );
+
+    @EntityGraph(attributePaths = {"caller.profile", "caller.role", "receiver.profile", "receiver.role"})
+    List<Call> findAllByIdIn(Collection<String> ids);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Call call
+            SET call.status = :target, call.version = call.version + 1
+            WHERE call.id = :callId
+            AND call.status IN :sources
+            """)
+    int transition(
+            @Param("callId") String callId,
+            @Param("sources") Collection<CallStatus> sources,
+            @Param("target") CallStatus target
+    );
 }
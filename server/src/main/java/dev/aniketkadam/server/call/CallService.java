@@ -1,10 +1,13 @@
 package dev.aniketkadam.server.call;
 
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.pagination.CursorResponse;
+import dev.aniketkadam.server.pagination.KeysetCursor;
 import dev.aniketkadam.server.pagination.PageResponse;
 import dev.aniketkadam.server.user.User;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +16,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +28,9 @@ public class CallService {
     private final CallRepository repository;
     private final CallMapper callMapper;
 
+    @Value("${application.calls.history.max-page-size:100}")
+    private int maxPageSize;
+
     public CallResponse getCallById(String callId, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
         Call call = repository.findById(callId)
@@ -50,4 +60,47 @@ public class CallService {
                 .last(calls.isLast())
                 .build();
     }
+
+    public CursorResponse<CallResponse> getCallHistory(String cursor, int size, Authentication authentication) throws OperationNotPermittedException {
+        if (size < 1) {
+            throw new OperationNotPermittedException("Page size must be at least 1.");
+        }
+        int pageSize = Math.min(size, maxPageSize);
+        User connectedUser = (User) authentication.getPrincipal();
+        // one extra row tells us whether another slice exists without a COUNT(*)
+        int limit = pageSize + 1;
+        List<String> callIds;
+        if (cursor == null || cursor.isBlank()) {
+            callIds = repository.findUserCallHistory(connectedUser.getId(), limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            callIds = repository.findUserCallHistoryBefore(connectedUser.getId(), position.timestamp(), position.id(), limit);
+        }
+        boolean hasMore = callIds.size() > pageSize;
+        List<String> sliceIds = hasMore ? callIds.subList(0, pageSize) : callIds;
+        List<Call> slice = loadInOrder(sliceIds);
+        return CursorResponse.<CallResponse>builder()
+                .content(slice.stream().map(callMapper::toCallResponse).toList())
+                .size(pageSize)
+                .nextCursor(hasMore && !slice.isEmpty() ? toCursor(slice.get(slice.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private String toCursor(Call call) {
+        return new KeysetCursor(call.getStartedAt(), call.getId()).encode();
+    }
+
+    // IN (...) gives no ordering guarantee, put the rows back in the order the keyset query chose
+    private List<Call> loadInOrder(List<String> callIds) {
+        if (callIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Call> callsById = repository.findAllByIdIn(callIds).stream()
+                .collect(Collectors.toMap(Call::getId, Function.identity()));
+        return callIds.stream()
+                .map(callsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 }
@@ -0,0 +1,119 @@
+package dev.aniketkadam.server.call;
+
+import dev.aniketkadam.server.profileImg.ProfileImg;
+import dev.aniketkadam.server.user.User;
+import dev.aniketkadam.server.webrtc.CallMode;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lightweight view of a live call: who is on each side and where the call stands.
+ * Held by {@link CallSessionRegistry} so signaling hot paths don't reload the call graph.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class CallSession {
+
+    private static final long UNSEEDED = -1;
+
+    private final String callId;
+    private final Party caller;
+    private final Party receiver;
+    private final CallMode mode;
+    private final LocalDateTime startedAt;
+    @Setter
+    private volatile CallStatus status;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong messageSequence = new AtomicLong(UNSEEDED);
+
+    public static CallSession from(Call call) {
+        return CallSession.builder()
+                .callId(call.getId())
+                .caller(Party.from(call.getCaller()))
+                .receiver(Party.from(call.getReceiver()))
+                .mode(call.getMode())
+                .startedAt(call.getStartedAt())
+                .status(call.getStatus())
+                .build();
+    }
+
+    public boolean isParticipant(String email) {
+        return caller.getEmail().equals(email) || receiver.getEmail().equals(email);
+    }
+
+    /**
+     * @return the other side of the call as seen by the participant with the given email
+     */
+    public Party counterpart(String email) {
+        return caller.getEmail().equals(email) ? receiver : caller;
+    }
+
+    /**
+     * @return a detached {@link Call} holding only what the session knows, for mapping responses
+     * without going back to the database
+     */
+    public Call toCall() {
+        return Call.builder()
+                .id(callId)
+                .caller(caller.toUser())
+                .receiver(receiver.toUser())
+                .mode(mode)
+                .status(status)
+                .startedAt(startedAt)
+                .build();
+    }
+
+    /**
+     * Hands out the next chat sequence number of this call. The first call seeds the counter
+     * with the last number already stored, so numbering continues after a restart.
+     */
+    public long nextMessageSequence(LongSupplier lastStoredSequence) {
+        if (messageSequence.get() == UNSEEDED) {
+            // racing seeders read the same stored value, whichever CAS wins is fine
+            messageSequence.compareAndSet(UNSEEDED, lastStoredSequence.getAsLong());
+        }
+        return messageSequence.incrementAndGet();
+    }
+
+    public boolean isActive() {
+        return status == CallStatus.RINGING || status == CallStatus.ACCEPTED;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @Builder
+    public static class Party {
+
+        private final String id;
+        private final String email;
+        private final String fullName;
+        // kept so responses built from the session show the same user as one built from the row
+        private final LocalDate birthDate;
+        private final String profileUrl;
+
+        public static Party from(User user) {
+            return new Party(
+                    user.getId(),
+                    user.getEmail(),
+                    user.getFullName(),
+                    user.getBirthDate(),
+                    user.getProfile() != null ? user.getProfile().getProfileUrl() : null
+            );
+        }
+
+        public User toUser() {
+            return User.builder()
+                    .id(id)
+                    .email(email)
+                    .fullName(fullName)
+                    .birthDate(birthDate)
+                    .profile(profileUrl != null ? ProfileImg.builder().profileUrl(profileUrl).build() : null)
+                    .build();
+        }
+    }
+}
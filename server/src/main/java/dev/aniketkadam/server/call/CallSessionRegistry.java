@@ -0,0 +1,107 @@
+package dev.aniketkadam.server.call;
+
+import dev.aniketkadam.server.common.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live calls by id. Registering, status changes and removals made inside a transaction are
+ * applied once it commits, so a rolled back call never shows up here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CallSessionRegistry {
+
+    private final CallRepository callRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.calls.session-max-age-hours:12}")
+    private long sessionMaxAgeHours;
+
+    private final Map<String, CallSession> sessions = new ConcurrentHashMap<>();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = meterRegistry.counter("calls.sessions.lookups", "result", "hit");
+        misses = meterRegistry.counter("calls.sessions.lookups", "result", "miss");
+        meterRegistry.gaugeMapSize("calls.sessions.active", Tags.empty(), sessions);
+    }
+
+    public CallSession register(Call call) {
+        CallSession session = CallSession.from(call);
+        AfterCommit.run(() -> sessions.put(session.getCallId(), session));
+        return session;
+    }
+
+    /**
+     * Resolves a call from memory, falling back to the database on a miss.
+     * Calls that are still ringing or accepted are kept for the next lookup.
+     */
+    public CallSession resolve(String callId) {
+        CallSession session = sessions.get(callId);
+        if (session != null) {
+            hits.increment();
+            return session;
+        }
+        misses.increment();
+        Call call = callRepository.findById(callId)
+                .orElseThrow(() -> new EntityNotFoundException("Call is not found with ID: " + callId));
+        CallSession loaded = CallSession.from(call);
+        if (loaded.isActive()) {
+            session = sessions.putIfAbsent(callId, loaded);
+        }
+        return session != null ? session : loaded;
+    }
+
+    public Optional<CallSession> find(String callId) {
+        return Optional.ofNullable(sessions.get(callId));
+    }
+
+    public void updateStatus(String callId, CallStatus status) {
+        AfterCommit.run(() -> {
+            CallSession session = sessions.get(callId);
+            if (session != null) {
+                session.setStatus(status);
+            }
+        });
+    }
+
+    public void remove(String callId) {
+        AfterCommit.run(() -> sessions.remove(callId));
+    }
+
+    public long getHits() {
+        return (long) hits.count();
+    }
+
+    public long getMisses() {
+        return (long) misses.count();
+    }
+
+    // calls whose end was never signalled (closed tab, lost network) must not stay forever
+    @Scheduled(fixedDelayString = "${application.calls.session-sweep-ms:600000}")
+    void evictStaleSessions() {
+        LocalDateTime threshold = LocalDateTime.now().minusHours(sessionMaxAgeHours);
+        int before = sessions.size();
+        sessions.values().removeIf(s -> s.getStartedAt() != null && s.getStartedAt().isBefore(threshold));
+        if (sessions.size() < before) {
+            log.info("Evicted {} stale call session(s)", before - sessions.size());
+        }
+    }
+}
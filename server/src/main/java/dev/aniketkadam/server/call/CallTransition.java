@@ -0,0 +1,31 @@
+package dev.aniketkadam.server.call;
+
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Legal moves of a call. Each one is applied as a single conditional UPDATE, so a
+ * transition whose source state is already gone (duplicate or racing request) simply
+ * matches no row.
+ */
+@Getter
+public enum CallTransition {
+    ACCEPT(CallStatus.ACCEPTED, EnumSet.of(CallStatus.RINGING)),
+    REJECT(CallStatus.REJECTED, EnumSet.of(CallStatus.RINGING)),
+    END(CallStatus.ENDED, EnumSet.of(CallStatus.RINGING, CallStatus.ACCEPTED)),
+    FINISH(CallStatus.FINISH, EnumSet.of(CallStatus.RINGING, CallStatus.ACCEPTED));
+
+    private final CallStatus target;
+    private final Set<CallStatus> sources;
+
+    CallTransition(CallStatus target, Set<CallStatus> sources) {
+        this.target = target;
+        this.sources = sources;
+    }
+
+    public boolean isTerminal() {
+        return target != CallStatus.ACCEPTED;
+    }
+}
@@ -0,0 +1,40 @@
+package dev.aniketkadam.server.call;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CallTransitionService {
+
+    private final CallRepository callRepository;
+    private final CallSessionRegistry callSessionRegistry;
+
+    /**
+     * Moves the call to the transition's target state in one statement.
+     *
+     * @return true when this request performed the transition, false when the call
+     * was not in one of the source states (already moved on, or unknown id)
+     */
+    public boolean apply(String callId, CallTransition transition) {
+        CallSession session = callSessionRegistry.find(callId).orElse(null);
+        // the cached status lets obviously stale requests skip the database entirely
+        if (session != null && !transition.getSources().contains(session.getStatus())) {
+            log.debug("Rejected {} on call {} in state {}", transition, callId, session.getStatus());
+            return false;
+        }
+        boolean applied = callRepository.transition(callId, transition.getSources(), transition.getTarget()) == 1;
+        if (!applied) {
+            log.debug("Call {} lost the race for {}", callId, transition);
+            return false;
+        }
+        if (transition.isTerminal()) {
+            callSessionRegistry.remove(callId);
+        } else {
+            callSessionRegistry.updateStatus(callId, transition.getTarget());
+        }
+        return true;
+    }
+}
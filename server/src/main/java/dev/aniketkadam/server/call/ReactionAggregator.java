@@ -0,0 +1,138 @@
+package dev.aniketkadam.server.call;
+
+import dev.aniketkadam.server.config.SchedulingConfig;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counts emoji reactions per destination and sends one {@link ReactionResponse} per
+ * {@code window-ms} instead of one frame per click. Clicks only bump striped counters, so
+ * spamming senders don't queue up behind each other. A sender, told apart by user id, gets at
+ * most {@code max-per-user} reactions into a window, the rest are dropped. Only the display
+ * names of the first {@code max-senders} senders of each emoji are sent along.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactionAggregator {
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.calls.reactions.max-per-user:10}")
+    private int maxPerUser;
+    @Value("${application.calls.reactions.max-senders:3}")
+    private int maxSenders;
+
+    private final Map<String, Window> pending = new ConcurrentHashMap<>();
+    private Counter received;
+    private Counter dropped;
+    private Counter frames;
+
+    @PostConstruct
+    void registerMetrics() {
+        received = meterRegistry.counter("calls.reactions.received");
+        dropped = meterRegistry.counter("calls.reactions.dropped");
+        frames = meterRegistry.counter("calls.reactions.frames");
+        meterRegistry.gaugeMapSize("calls.reactions.pending", Tags.empty(), pending);
+    }
+
+    /**
+     * @param senderId   user id the cap is counted against
+     * @param senderName name shown to the receiver
+     * @return false when the sender is over the cap of the current window
+     */
+    public boolean react(String destination, String senderId, String senderName, String emoji) {
+        received.increment();
+        while (true) {
+            Window window = pending.computeIfAbsent(destination, key -> new Window());
+            ReentrantReadWriteLock.ReadLock lock = window.lock.readLock();
+            lock.lock();
+            try {
+                if (window.closed) {
+                    continue; // flushed meanwhile, count into the next window
+                }
+                AtomicInteger sent = window.perSender.computeIfAbsent(senderId, key -> new AtomicInteger());
+                if (sent.incrementAndGet() > maxPerUser) {
+                    dropped.increment();
+                    return false;
+                }
+                Tally tally = window.tallies.computeIfAbsent(emoji, key -> new Tally());
+                tally.count.increment();
+                if (tally.senders.size() < maxSenders) {
+                    tally.senders.putIfAbsent(senderId, senderName);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${application.calls.reactions.window-ms:250}", scheduler = SchedulingConfig.DELIVERY_SCHEDULER)
+    public void flush() {
+        for (String destination : pending.keySet()) {
+            Window window = pending.remove(destination);
+            if (window == null) {
+                continue;
+            }
+            // waits for clicks that already hold the window
+            window.lock.writeLock().lock();
+            try {
+                window.closed = true;
+            } finally {
+                window.lock.writeLock().unlock();
+            }
+            if (window.tallies.isEmpty()) {
+                continue;
+            }
+            Map<String, Long> counts = new LinkedHashMap<>();
+            Map<String, List<String>> senders = new LinkedHashMap<>();
+            window.tallies.forEach((emoji, tally) -> {
+                counts.put(emoji, tally.count.sum());
+                senders.put(emoji, tally.senders.values().stream().limit(maxSenders).toList());
+            });
+            frames.increment();
+            notificationDispatcher.convertAndSend(destination, ReactionResponse.builder()
+                    .counts(counts)
+                    .senders(senders)
+                    .build());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private static class Window {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Tally> tallies = new ConcurrentHashMap<>();
+        // by sender id, names are not unique
+        private final Map<String, AtomicInteger> perSender = new ConcurrentHashMap<>();
+        private volatile boolean closed;
+    }
+
+    private static class Tally {
+
+        private final LongAdder count = new LongAdder();
+        // sender id -> display name
+        private final Map<String, String> senders = new ConcurrentHashMap<>();
+    }
+}
@@ -2,6 +2,12 @@ package dev.aniketkadam.server.call;
 
 import lombok.*;
 
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactions of one window: how often each emoji was sent and a few of the names that sent it.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
@@ -9,6 +15,6 @@ import lombok.*;
 @Builder
 public class ReactionResponse {
 
-    private String emoji;
-    private String name;
+    private Map<String, Long> counts;
+    private Map<String, List<String>> senders;
 }
@@ -0,0 +1,37 @@
+package dev.aniketkadam.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Splits the {@code @Scheduled} jobs over two schedulers. The default {@code taskScheduler}, sized
+ * by {@code spring.task.scheduling.pool.size}, runs the jobs that may block on the database or
+ * the disk. The delivery scheduler runs only the sub-second flushers that push meeting and call
+ * state to clients, named with {@code scheduler = DELIVERY_SCHEDULER}, so a slow write-behind
+ * flush never holds back a roster or speaker frame. The Google key refresh has its own thread.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String DELIVERY_SCHEDULER = "deliveryScheduler";
+
+    @Value("${application.scheduling.delivery-pool-size:2}")
+    private int deliveryPoolSize;
+
+    // declared here because the delivery scheduler below turns off the auto-configured one
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = DELIVERY_SCHEDULER)
+    public ThreadPoolTaskScheduler deliveryScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(deliveryPoolSize);
+        scheduler.setThreadNamePrefix("delivery-");
+        return scheduler;
+    }
+}
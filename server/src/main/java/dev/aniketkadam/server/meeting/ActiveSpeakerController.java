@@ -0,0 +1,29 @@
+package dev.aniketkadam.server.meeting;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+@Controller
+@RequiredArgsConstructor
+public class ActiveSpeakerController {
+
+    private final ActiveSpeakerDetector detector;
+
+    // body is the microphone level as plain digits, 0 to 100
+    @MessageMapping("/meeting/{meeting-code}/audio-level")
+    public void reportAudioLevel(
+            @DestinationVariable("meeting-code") String meetingCode,
+            @Payload byte[] payload,
+            Principal principal
+    ) {
+        if (principal == null) {
+            return;
+        }
+        detector.record(meetingCode, principal.getName(), ActiveSpeakerDetector.parseLevel(payload));
+    }
+}
@@ -0,0 +1,216 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.config.SchedulingConfig;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the active speakers of each meeting from the microphone levels participants report.
+ * <p>
+ * A sample only raises the peak level of the sender for the current tick. On every tick the
+ * peaks are folded into a window of the last {@code window-ticks} ticks per speaker, the
+ * speakers are ranked by their window average, and the top {@code top-n} above
+ * {@code min-level} are sent to {@code /topic/meeting/{code}/speakers} when they changed.
+ * Recording a sample does not allocate once the speaker is known.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActiveSpeakerDetector {
+
+    static final int MAX_LEVEL = 100;
+
+    private final MeetingRoomRegistry roomRegistry;
+    private final NotificationDispatcher notificationDispatcher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.meetings.speakers.window-ticks:5}")
+    private int windowTicks;
+    @Value("${application.meetings.speakers.top-n:3}")
+    private int topN;
+    @Value("${application.meetings.speakers.min-level:10}")
+    private int minLevel;
+    // speakers that stopped reporting are dropped after this many ticks
+    @Value("${application.meetings.speakers.idle-ticks:15}")
+    private int idleTicks;
+
+    private final Map<String, SpeakerRoom> rooms = new ConcurrentHashMap<>();
+    private Counter samples;
+    private Counter rejected;
+    private Counter frames;
+
+    @PostConstruct
+    void registerMetrics() {
+        samples = meterRegistry.counter("meetings.speakers.samples");
+        rejected = meterRegistry.counter("meetings.speakers.samples.rejected");
+        frames = meterRegistry.counter("meetings.speakers.frames");
+        meterRegistry.gaugeMapSize("meetings.speakers.rooms", Tags.empty(), rooms);
+    }
+
+    /**
+     * Records one level sample of the participant with the given email. Samples from people who
+     * are not in the room, or for rooms that are not live on this node, are dropped.
+     */
+    public void record(String meetingCode, String email, int level) {
+        if (level < 0) {
+            rejected.increment();
+            return;
+        }
+        SpeakerRoom room = rooms.get(meetingCode);
+        Speaker speaker = room != null ? room.speakers.get(email) : null;
+        if (speaker == null) {
+            speaker = register(meetingCode, email);
+            if (speaker == null) {
+                rejected.increment();
+                return;
+            }
+        }
+        samples.increment();
+        int capped = Math.min(level, MAX_LEVEL);
+        speaker.peak.accumulateAndGet(capped, Math::max);
+    }
+
+    @Scheduled(fixedRateString = "${application.meetings.speakers.tick-ms:200}", scheduler = SchedulingConfig.DELIVERY_SCHEDULER)
+    public void tick() {
+        for (Iterator<Map.Entry<String, SpeakerRoom>> iterator = rooms.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, SpeakerRoom> entry = iterator.next();
+            SpeakerRoom room = entry.getValue();
+            String[] top = room.rank(topN, minLevel, idleTicks);
+            if (!Arrays.equals(top, room.current)) {
+                room.current = top;
+                frames.increment();
+                notificationDispatcher.convertAndSend(
+                        "/topic/meeting/" + entry.getKey() + "/speakers",
+                        ActiveSpeakersResponse.builder().speakers(List.of(top)).build()
+                );
+            }
+            if (room.speakers.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return user ids of the speakers last broadcast for the meeting, loudest first
+     */
+    public List<String> currentSpeakers(String meetingCode) {
+        SpeakerRoom room = rooms.get(meetingCode);
+        return room != null ? List.of(room.current) : List.of();
+    }
+
+    /**
+     * Parses a level sent as plain ASCII digits, e.g. {@code 42}.
+     *
+     * @return the level, or -1 when the payload is not a non-negative integer
+     */
+    public static int parseLevel(byte[] payload) {
+        if (payload == null || payload.length == 0 || payload.length > 4) {
+            return -1;
+        }
+        int level = 0;
+        for (byte b : payload) {
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            level = level * 10 + (b - '0');
+        }
+        return level;
+    }
+
+    private Speaker register(String meetingCode, String email) {
+        return roomRegistry.find(meetingCode)
+                .flatMap(room -> room.findParticipantByEmail(email))
+                .map(participant -> rooms.computeIfAbsent(meetingCode, code -> new SpeakerRoom())
+                        .speakers
+                        .computeIfAbsent(email, key -> new Speaker(participant.user().getId(), windowTicks)))
+                .orElse(null);
+    }
+
+    private static class SpeakerRoom {
+
+        private static final String[] NONE = new String[0];
+
+        private final Map<String, Speaker> speakers = new ConcurrentHashMap<>();
+        // only written by tick()
+        private volatile String[] current = NONE;
+
+        private String[] rank(int topN, int minLevel, int idleTicks) {
+            String[] ids = new String[topN];
+            int[] scores = new int[topN];
+            int found = 0;
+            for (Iterator<Speaker> iterator = speakers.values().iterator(); iterator.hasNext(); ) {
+                Speaker speaker = iterator.next();
+                int score = speaker.advance();
+                if (speaker.silentTicks >= idleTicks) {
+                    iterator.remove();
+                    continue;
+                }
+                if (score < minLevel) {
+                    continue;
+                }
+                // insertion into the small top list, loudest first
+                int position = found;
+                while (position > 0 && scores[position - 1] < score) {
+                    position--;
+                }
+                if (position >= topN) {
+                    continue;
+                }
+                int last = Math.min(found, topN - 1);
+                System.arraycopy(ids, position, ids, position + 1, last - position);
+                System.arraycopy(scores, position, scores, position + 1, last - position);
+                ids[position] = speaker.userId;
+                scores[position] = score;
+                found = Math.min(found + 1, topN);
+            }
+            return found == 0 ? NONE : Arrays.copyOf(ids, found);
+        }
+    }
+
+    private static class Speaker {
+
+        private static final int NO_SAMPLE = -1;
+
+        private final String userId;
+        // highest level reported since the last tick, NO_SAMPLE when nothing came in
+        private final AtomicInteger peak = new AtomicInteger(NO_SAMPLE);
+        // only touched by tick(): peaks of the last ticks and their sum
+        private final int[] window;
+        private int windowSum;
+        private int position;
+        private int silentTicks;
+
+        private Speaker(String userId, int windowTicks) {
+            this.userId = userId;
+            this.window = new int[windowTicks];
+        }
+
+        /**
+         * Moves the window one tick forward.
+         *
+         * @return the average level over the window
+         */
+        private int advance() {
+            int sample = peak.getAndSet(NO_SAMPLE);
+            silentTicks = sample == NO_SAMPLE ? silentTicks + 1 : 0;
+            int level = Math.max(sample, 0);
+            windowSum += level - window[position];
+            window[position] = level;
+            position = (position + 1) % window.length;
+            return windowSum / window.length;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package dev.aniketkadam.server.meeting;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActiveSpeakersResponse {
+
+    // user ids, loudest first
+    private List<String> speakers;
+}
@@ -0,0 +1,105 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.utils.BloomFilter;
+import dev.aniketkadam.server.utils.RandomCodeGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Bloom filter of every issued meeting code, loaded at startup and fed by {@code createMeeting}.
+ * A code the filter has never seen does not exist, so guessed and mistyped codes are answered
+ * without the database; only possible hits are checked there.
+ * <p>
+ * Meetings are created through this node only (rooms live in its memory too), so the filter
+ * stays complete. Lookups that pass the filter but miss in the database are counted, and
+ * {@code meetings.codes.filter.fpp} reports the observed false-positive rate.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MeetingCodeFilter {
+
+    private static final int MAX_GENERATE_ATTEMPTS = 10;
+
+    private final MeetingRepository repository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.meetings.code-filter.expected-codes:1000000}")
+    private long expectedCodes;
+    @Value("${application.meetings.code-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    @Value("${application.meetings.code-filter.load-page-size:10000}")
+    private int loadPageSize;
+
+    private BloomFilter filter;
+    private Counter negatives;
+    private Counter hits;
+    private Counter falsePositives;
+    private Counter collisions;
+
+    @PostConstruct
+    void load() {
+        filter = new BloomFilter(expectedCodes, falsePositiveRate);
+        long loaded = 0;
+        String after = "";
+        List<String> page;
+        do {
+            page = repository.findMeetingCodesAfter(after, PageRequest.of(0, loadPageSize));
+            page.forEach(filter::put);
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                after = page.getLast();
+            }
+        } while (page.size() == loadPageSize);
+        log.info("Loaded {} meeting code(s) into the code filter", loaded);
+
+        negatives = meterRegistry.counter("meetings.codes.lookups", Tags.of("result", "negative"));
+        hits = meterRegistry.counter("meetings.codes.lookups", Tags.of("result", "hit"));
+        falsePositives = meterRegistry.counter("meetings.codes.lookups", Tags.of("result", "false_positive"));
+        collisions = meterRegistry.counter("meetings.codes.generate.collisions");
+        meterRegistry.gauge("meetings.codes.filter.fpp", this, MeetingCodeFilter::observedFalsePositiveRate);
+        meterRegistry.gauge("meetings.codes.filter.expected.fpp", this, codes -> codes.filter.expectedFalsePositiveRate());
+    }
+
+    public boolean exists(String meetingCode) {
+        if (!filter.mightContain(meetingCode)) {
+            negatives.increment();
+            return false;
+        }
+        boolean exists = repository.existsByMeetingCode(meetingCode);
+        (exists ? hits : falsePositives).increment();
+        return exists;
+    }
+
+    /**
+     * @return a code the filter has not seen, so it is not taken; the unique constraint still
+     * guards the rare case where every attempt hit the filter
+     */
+    public String newCode() {
+        String code = RandomCodeGenerator.generateMeetingCode();
+        for (int attempt = 1; attempt < MAX_GENERATE_ATTEMPTS && filter.mightContain(code); attempt++) {
+            collisions.increment();
+            code = RandomCodeGenerator.generateMeetingCode();
+        }
+        return code;
+    }
+
+    public void add(String meetingCode) {
+        filter.put(meetingCode);
+    }
+
+    // false positives among the lookups of codes that do not exist
+    private double observedFalsePositiveRate() {
+        double absent = negatives.count() + falsePositives.count();
+        return absent == 0 ? 0 : falsePositives.count() / absent;
+    }
+}
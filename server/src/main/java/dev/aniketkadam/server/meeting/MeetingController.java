@@ -1,6 +1,7 @@
 package dev.aniketkadam.server.meeting;
 
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.pagination.CursorResponse;
 import dev.aniketkadam.server.user.UserResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -45,6 +46,51 @@ public class MeetingController {
         return ResponseEntity.ok(service.getMeetingParticipantsAll(meetingCode, authentication));
     }
 
+    @GetMapping("/{meeting-code}/participants/page")
+    public ResponseEntity<CursorResponse<MeetingParticipantResponse>> getRosterPage(
+            @PathVariable("meeting-code") String meetingCode,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "25", required = false) int size,
+            Authentication authentication
+    ) throws OperationNotPermittedException {
+        return ResponseEntity.ok(service.getRosterPage(meetingCode, cursor, size, authentication));
+    }
+
+    @GetMapping("/{meeting-code}/participants/summary")
+    public ResponseEntity<MeetingRosterSummary> getRosterSummary(
+            @PathVariable("meeting-code") String meetingCode,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(service.getRosterSummary(meetingCode, authentication));
+    }
+
+    @PatchMapping("/{meeting-code}/media")
+    public void updateMedia(
+            @PathVariable("meeting-code") String meetingCode,
+            @RequestParam("type") MeetingMediaType type,
+            @RequestParam("on") boolean on,
+            Authentication authentication
+    ) throws OperationNotPermittedException {
+        service.updateMedia(meetingCode, type, on, authentication);
+    }
+
+    @GetMapping("/{meeting-code}/media")
+    public ResponseEntity<MeetingMediaResponse> getMediaState(
+            @PathVariable("meeting-code") String meetingCode
+    ) {
+        return ResponseEntity.ok(service.getMediaState(meetingCode));
+    }
+
+    @GetMapping("/{meeting-code}/events")
+    public ResponseEntity<MeetingSyncResponse> syncMeeting(
+            @PathVariable("meeting-code") String meetingCode,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "epoch", required = false) String epoch,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(service.syncMeeting(meetingCode, after, epoch, authentication));
+    }
+
     @PatchMapping("/{meeting-code}/admin/permission")
     public void getAdminPermissionToJoin(
             @PathVariable("meeting-code") String meetingCode,
@@ -62,6 +108,14 @@ public class MeetingController {
         service.generatePermissionToUsers(meetingCode, authentication, userIds);
     }
 
+    @PatchMapping("/{meeting-code}/add/all/in/meeting")
+    public ResponseEntity<List<String>> admitAllWaiting(
+            @PathVariable("meeting-code") String meetingCode,
+            Authentication authentication
+    ) throws OperationNotPermittedException {
+        return ResponseEntity.ok(service.admitAllWaiting(meetingCode, authentication));
+    }
+
     @PatchMapping("/{meeting-code}/add")
     public void addUserInMeeting(
             @PathVariable("meeting-code") String meetingCode,
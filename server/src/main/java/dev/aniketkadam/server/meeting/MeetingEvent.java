@@ -0,0 +1,14 @@
+package dev.aniketkadam.server.meeting;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to a meeting room, numbered in the order the room saw it.
+ */
+public record MeetingEvent(
+        long sequence,
+        MeetingEventType type,
+        Object payload,
+        LocalDateTime occurredAt
+) {
+}
@@ -0,0 +1,57 @@
+package dev.aniketkadam.server.meeting;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded log of the latest events of a room. Sequence numbers start at 1 for every new
+ * {@code epoch}; once more than {@code capacity} events have been appended the oldest ones are
+ * overwritten and clients behind them have to fall back to a snapshot.
+ * <p>
+ * A change is applied to the room before its event is appended, so a snapshot must read
+ * {@link #lastSequence()} before reading the room. Replaying the events after that sequence may
+ * then repeat a change the snapshot already shows, which clients apply idempotently by id.
+ */
+public class MeetingEventLog {
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final MeetingEvent[] ring;
+    // guarded by this
+    private long lastSequence;
+
+    public MeetingEventLog(int capacity) {
+        this.ring = new MeetingEvent[capacity];
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public synchronized MeetingEvent append(MeetingEventType type, Object payload) {
+        MeetingEvent event = new MeetingEvent(++lastSequence, type, payload, LocalDateTime.now());
+        ring[(int) (event.sequence() % ring.length)] = event;
+        return event;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * @return the events after the given sequence number, oldest first, or empty when some of
+     * them have already been overwritten or the number was never handed out
+     */
+    public synchronized Optional<List<MeetingEvent>> since(long sequence) {
+        if (sequence < 0 || sequence > lastSequence || lastSequence - sequence > ring.length) {
+            return Optional.empty();
+        }
+        List<MeetingEvent> events = new ArrayList<>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            events.add(ring[(int) (next % ring.length)]);
+        }
+        return Optional.of(events);
+    }
+}
@@ -0,0 +1,8 @@
+package dev.aniketkadam.server.meeting;
+
+public enum MeetingEventType {
+    PARTICIPANT_JOINED,
+    PARTICIPANT_LEFT,
+    USERS_ADMITTED,
+    MEDIA_CHANGED
+}
@@ -1,6 +1,7 @@
 package dev.aniketkadam.server.meeting;
 
 import dev.aniketkadam.server.user.UserMapper;
+import dev.aniketkadam.server.user.UserResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +21,41 @@ public class MeetingMapper {
                 .build();
     }
 
+    public MeetingParticipantResponse toMeetingParticipantResponse(MeetingParticipantView view, boolean isAdmin) {
+        return MeetingParticipantResponse.builder()
+                .id(view.id())
+                .user(toUserResponse(view))
+                .muted(view.muted())
+                .joinedAt(view.joinedAt())
+                .leftAt(view.leftAt())
+                .isAdmin(isAdmin)
+                .build();
+    }
+
+    public MeetingParticipantResponse toMeetingParticipantResponse(MeetingRoom.RoomParticipant participant, boolean isAdmin) {
+        return MeetingParticipantResponse.builder()
+                .id(participant.id())
+                .user(participant.user())
+                .muted(participant.muted())
+                .joinedAt(participant.joinedAt())
+                .isAdmin(isAdmin)
+                .build();
+    }
+
+    public MeetingRoom.RoomParticipant toRoomParticipant(MeetingParticipantView view) {
+        return new MeetingRoom.RoomParticipant(view.id(), toUserResponse(view), view.joinedAt(), view.muted());
+    }
+
+    private UserResponse toUserResponse(MeetingParticipantView view) {
+        return UserResponse.builder()
+                .id(view.userId())
+                .fullName(view.fullName())
+                .email(view.email())
+                .birthDate(view.birthDate())
+                .profile(view.profileUrl() != null ? view.profileUrl() : "")
+                .build();
+    }
+
     /*public MeetingResponse toMeetingResponse(Meeting meeting) {
         List<MeetingParticipantResponse> meetingParticipantResponses = new ArrayList<>();
         if (!meeting.getMeetingParticipants().isEmpty()) {
@@ -0,0 +1,18 @@
+package dev.aniketkadam.server.meeting;
+
+import lombok.*;
+
+/**
+ * Payload of a {@link MeetingEventType#MEDIA_CHANGED} event: the new {@link MeetingMediaType}
+ * bits of one participant.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MeetingMediaChangeResponse {
+
+    private String userId;
+    private int bits;
+}
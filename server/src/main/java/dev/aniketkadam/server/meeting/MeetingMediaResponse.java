@@ -0,0 +1,19 @@
+package dev.aniketkadam.server.meeting;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Media state of everyone in a meeting, for late joiners. Values are {@link MeetingMediaType}
+ * bits: 1 mic on, 2 camera on, 4 hand raised.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MeetingMediaResponse {
+
+    private Map<String, Integer> states;
+}
@@ -0,0 +1,94 @@
+package dev.aniketkadam.server.meeting;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mic, camera and raised hand of everyone in a room: one int of {@link MeetingMediaType} bits
+ * per participant slot. Slots of people who left are reused, so the table only grows to the
+ * largest the room has been. Toggles happen at human speed, a lock is plenty.
+ */
+public class MeetingMediaState {
+
+    public static final int ABSENT = -1;
+
+    private final Map<String, Integer> slotByUser = new HashMap<>();
+    private String[] userBySlot = new String[8];
+    private int[] bits = new int[8];
+    // slots below nextSlot that are free again, used as a stack
+    private int[] freeSlots = new int[8];
+    private int freeCount;
+    private int nextSlot;
+
+    synchronized void add(String userId, int initialBits) {
+        if (slotByUser.containsKey(userId)) {
+            return;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (nextSlot == bits.length) {
+                bits = Arrays.copyOf(bits, bits.length * 2);
+                userBySlot = Arrays.copyOf(userBySlot, userBySlot.length * 2);
+            }
+            slot = nextSlot++;
+        }
+        slotByUser.put(userId, slot);
+        userBySlot[slot] = userId;
+        bits[slot] = initialBits;
+    }
+
+    synchronized void remove(String userId) {
+        Integer slot = slotByUser.remove(userId);
+        if (slot == null) {
+            return;
+        }
+        userBySlot[slot] = null;
+        bits[slot] = 0;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * @return the new bits of the user, or {@link #ABSENT} when nothing changed or the user is not in the room
+     */
+    public synchronized int update(String userId, MeetingMediaType type, boolean on) {
+        Integer slot = slotByUser.get(userId);
+        if (slot == null) {
+            return ABSENT;
+        }
+        int current = bits[slot];
+        int updated = on ? current | type.bit() : current & ~type.bit();
+        if (updated == current) {
+            return ABSENT;
+        }
+        bits[slot] = updated;
+        return updated;
+    }
+
+    /**
+     * @return the bits of the user, or {@link #ABSENT} when the user is not in the room
+     */
+    public synchronized int get(String userId) {
+        Integer slot = slotByUser.get(userId);
+        return slot != null ? bits[slot] : ABSENT;
+    }
+
+    /**
+     * @return bits per user id, in slot order
+     */
+    public synchronized Map<String, Integer> snapshot() {
+        Map<String, Integer> states = new LinkedHashMap<>();
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (userBySlot[slot] != null) {
+                states.put(userBySlot[slot], bits[slot]);
+            }
+        }
+        return states;
+    }
+}
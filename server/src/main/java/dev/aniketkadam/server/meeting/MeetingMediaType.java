@@ -0,0 +1,20 @@
+package dev.aniketkadam.server.meeting;
+
+/**
+ * Media flags of a meeting participant and their bit in {@link MeetingMediaState}.
+ */
+public enum MeetingMediaType {
+    MIC(1),
+    CAMERA(2),
+    HAND(4);
+
+    private final int bit;
+
+    MeetingMediaType(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() {
+        return bit;
+    }
+}
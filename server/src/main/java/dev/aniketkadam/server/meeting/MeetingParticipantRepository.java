@@ -1,8 +1,23 @@
 package dev.aniketkadam.server.meeting;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface MeetingParticipantRepository extends JpaRepository<MeetingParticipant, String> {
+
+    @Query("""
+            SELECT new dev.aniketkadam.server.meeting.MeetingParticipantView(
+                mp.id, u.id, u.fullName, u.email, u.birthDate, p.profileUrl, mp.joinedAt, mp.leftAt, mp.muted
+            )
+            FROM meeting_participant mp
+            JOIN mp.user u
+            LEFT JOIN u.profile p
+            WHERE mp.meeting.id = :meetingId
+            """)
+    List<MeetingParticipantView> findViewsByMeetingId(@Param("meetingId") String meetingId);
 }
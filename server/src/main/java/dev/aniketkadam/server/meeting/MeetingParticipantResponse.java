@@ -20,4 +20,6 @@ public class MeetingParticipantResponse {
     private LocalDateTime leftAt;
     private boolean isAdmin;
     private boolean muted;
+    // room event sequence number, set on broadcast changes only
+    private Long sequence;
 }
@@ -0,0 +1,21 @@
+package dev.aniketkadam.server.meeting;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row with just the columns a {@link MeetingParticipantResponse} needs, read in one query
+ * instead of walking participant -> user -> profile per row.
+ */
+public record MeetingParticipantView(
+        String id,
+        String userId,
+        String fullName,
+        String email,
+        LocalDate birthDate,
+        String profileUrl,
+        LocalDateTime joinedAt,
+        LocalDateTime leftAt,
+        boolean muted
+) {
+}
@@ -1,14 +1,30 @@
 package dev.aniketkadam.server.meeting;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import dev.aniketkadam.server.user.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, String> {
 
+    @EntityGraph(attributePaths = {"createdBy.profile", "createdBy.role"})
     Optional<Meeting> findByMeetingCode(String meetingCode);
 
     Boolean existsByMeetingCode(String meetingCode);
+
+    @Query("SELECT m.meetingCode FROM meetings m WHERE m.meetingCode > :after ORDER BY m.meetingCode")
+    List<String> findMeetingCodesAfter(@Param("after") String after, Pageable pageable);
+
+    @Query("SELECT u.id FROM meetings m JOIN m.allowedUsers u WHERE m.id = :meetingId")
+    List<String> findAllowedUserIds(@Param("meetingId") String meetingId);
+
+    @Query("SELECT u FROM meetings m JOIN m.waitingUsers u LEFT JOIN FETCH u.profile WHERE m.id = :meetingId")
+    List<User> findWaitingUsers(@Param("meetingId") String meetingId);
 }
@@ -0,0 +1,195 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.user.UserResponse;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live state of a meeting: who is in it, who may join, who is knocking and whose mic,
+ * camera and hand are up.
+ * Held by {@link MeetingRoomRegistry} so roster reads and permission checks don't reload
+ * the meeting and walk its lazy collections; {@link MeetingRoomWriter} persists the changes.
+ */
+@Getter
+public class MeetingRoom {
+
+    private final String meetingId;
+    private final String meetingCode;
+    private final String adminId;
+    private final String adminEmail;
+    private final MeetingEventLog events;
+    private final MeetingMediaState media = new MeetingMediaState();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, RoomParticipant> participantsByUser = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Set<String> allowedUserIds = ConcurrentHashMap.newKeySet();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, WaitingUser> waitingByUser = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong knockCounter = new AtomicLong();
+    private volatile long lastActivityMillis = System.currentTimeMillis();
+
+    public MeetingRoom(String meetingId, String meetingCode, String adminId, String adminEmail, int eventCapacity) {
+        this.meetingId = meetingId;
+        this.meetingCode = meetingCode;
+        this.adminId = adminId;
+        this.adminEmail = adminEmail;
+        this.events = new MeetingEventLog(eventCapacity);
+    }
+
+    public boolean isAdmin(String userId) {
+        return adminId.equals(userId);
+    }
+
+    public boolean canJoin(String userId) {
+        return isAdmin(userId) || allowedUserIds.contains(userId);
+    }
+
+    public boolean isParticipant(String userId) {
+        return participantsByUser.containsKey(userId);
+    }
+
+    /**
+     * @return false when the user is already in the room
+     */
+    public boolean join(RoomParticipant participant) {
+        touch();
+        if (participantsByUser.putIfAbsent(participant.user().getId(), participant) != null) {
+            return false;
+        }
+        media.add(participant.user().getId(), participant.muted()
+                ? MeetingMediaType.CAMERA.bit()
+                : MeetingMediaType.MIC.bit() | MeetingMediaType.CAMERA.bit());
+        return true;
+    }
+
+    /**
+     * @return the participant that left, or null when the user was not in the room
+     */
+    public RoomParticipant leave(String userId) {
+        touch();
+        RoomParticipant participant = participantsByUser.remove(userId);
+        if (participant != null) {
+            media.remove(userId);
+        }
+        return participant;
+    }
+
+    /**
+     * Turns a media flag of a participant on or off, keeping {@link RoomParticipant#muted()} in line with the mic,
+     * and appends the change to the event log.
+     * <p>
+     * All of it happens under the lock of {@link MeetingMediaState}, so a reader never sees the mic bit and the
+     * muted flag disagree and the logged changes of a user come in the order they were applied.
+     *
+     * @return the {@link MeetingEventType#MEDIA_CHANGED} event, or null when nothing changed or the user is not in the room
+     */
+    public MeetingEvent updateMedia(String userId, MeetingMediaType type, boolean on) {
+        touch();
+        synchronized (media) {
+            int bits = media.update(userId, type, on);
+            if (bits == MeetingMediaState.ABSENT) {
+                return null;
+            }
+            if (type == MeetingMediaType.MIC) {
+                participantsByUser.computeIfPresent(userId, (key, participant) ->
+                        new RoomParticipant(participant.id(), participant.user(), participant.joinedAt(), !on));
+            }
+            return events.append(MeetingEventType.MEDIA_CHANGED,
+                    MeetingMediaChangeResponse.builder().userId(userId).bits(bits).build());
+        }
+    }
+
+    /**
+     * @return participants in the order they joined
+     */
+    public List<RoomParticipant> participants() {
+        touch();
+        return participantsByUser.values()
+                .stream()
+                .sorted(Comparator.comparing(RoomParticipant::joinedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    public Optional<RoomParticipant> findParticipant(String userId) {
+        return Optional.ofNullable(participantsByUser.get(userId));
+    }
+
+    public Optional<RoomParticipant> findParticipantByEmail(String email) {
+        return participantsByUser.values()
+                .stream()
+                .filter(participant -> email.equals(participant.user().getEmail()))
+                .findFirst();
+    }
+
+    public int participantCount() {
+        return participantsByUser.size();
+    }
+
+    public void allow(Collection<String> userIds) {
+        touch();
+        allowedUserIds.addAll(userIds);
+    }
+
+    /**
+     * @return false when the user is already waiting
+     */
+    public boolean knock(UserResponse user) {
+        touch();
+        WaitingUser waiting = new WaitingUser(user, LocalDateTime.now(), knockCounter.incrementAndGet());
+        return waitingByUser.putIfAbsent(user.getId(), waiting) == null;
+    }
+
+    public int waitingCount() {
+        return waitingByUser.size();
+    }
+
+    public void removeWaiting(Collection<String> userIds) {
+        touch();
+        userIds.forEach(waitingByUser::remove);
+    }
+
+    /**
+     * @return waiting users, longest waiting first
+     */
+    public List<UserResponse> waitingUsers() {
+        touch();
+        return waitingByUser.values()
+                .stream()
+                .sorted(Comparator.comparingLong(WaitingUser::order))
+                .map(WaitingUser::user)
+                .toList();
+    }
+
+    public boolean isEmpty() {
+        return participantsByUser.isEmpty() && waitingByUser.isEmpty();
+    }
+
+    private void touch() {
+        lastActivityMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * One person in the room. {@code id} is the {@code meeting_participant} row id.
+     */
+    public record RoomParticipant(
+            String id,
+            UserResponse user,
+            LocalDateTime joinedAt,
+            boolean muted
+    ) {
+    }
+
+    record WaitingUser(UserResponse user, LocalDateTime requestedAt, long order) {
+    }
+}
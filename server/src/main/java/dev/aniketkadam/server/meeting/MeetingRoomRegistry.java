@@ -0,0 +1,122 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.common.AfterCommit;
+import dev.aniketkadam.server.user.UserMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meeting rooms by meeting code. A room is loaded from the database on first use and then
+ * served from memory until it has been empty for a while.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MeetingRoomRegistry {
+
+    private final MeetingRepository meetingRepository;
+    private final MeetingParticipantRepository participantRepository;
+    private final MeetingMapper meetingMapper;
+    private final UserMapper userMapper;
+    private final MeetingRoomWriter writer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.meetings.room-idle-minutes:30}")
+    private long roomIdleMinutes;
+    @Value("${application.meetings.event-buffer-size:256}")
+    private int eventBufferSize;
+
+    private final Map<String, MeetingRoom> rooms = new ConcurrentHashMap<>();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = meterRegistry.counter("meetings.rooms.lookups", "result", "hit");
+        misses = meterRegistry.counter("meetings.rooms.lookups", "result", "miss");
+        meterRegistry.gaugeMapSize("meetings.rooms.active", Tags.empty(), rooms);
+    }
+
+    /**
+     * Adds the room of a new meeting once its row is committed. A room already in memory under
+     * the same code is kept: the insert of a clashing code fails, it must not replace a live room.
+     */
+    public MeetingRoom register(Meeting meeting) {
+        MeetingRoom room = newRoom(meeting);
+        AfterCommit.run(() -> rooms.putIfAbsent(room.getMeetingCode(), room));
+        return room;
+    }
+
+    /**
+     * Resolves a room from memory, loading the meeting, its participants, allowed users
+     * and waiting users on a miss.
+     */
+    public MeetingRoom resolve(String meetingCode) {
+        MeetingRoom room = rooms.get(meetingCode);
+        if (room != null) {
+            hits.increment();
+            return room;
+        }
+        misses.increment();
+        MeetingRoom loaded = load(meetingCode);
+        room = rooms.putIfAbsent(meetingCode, loaded);
+        return room != null ? room : loaded;
+    }
+
+    /**
+     * @return the room when it is already in memory, never touching the database
+     */
+    public Optional<MeetingRoom> find(String meetingCode) {
+        return Optional.ofNullable(rooms.get(meetingCode));
+    }
+
+    // a room that went quiet is dropped once its changes are in the database; the next lookup reloads it
+    @Scheduled(fixedDelayString = "${application.meetings.room-sweep-ms:300000}")
+    void evictIdleRooms() {
+        writer.flush();
+        if (writer.hasPending()) {
+            return;
+        }
+        long threshold = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(roomIdleMinutes);
+        int before = rooms.size();
+        rooms.values().removeIf(room -> room.isEmpty() && room.getLastActivityMillis() < threshold);
+        if (rooms.size() < before) {
+            log.info("Evicted {} idle meeting room(s)", before - rooms.size());
+        }
+    }
+
+    private MeetingRoom load(String meetingCode) {
+        Meeting meeting = meetingRepository.findByMeetingCode(meetingCode)
+                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
+        MeetingRoom room = newRoom(meeting);
+        participantRepository.findViewsByMeetingId(meeting.getId())
+                .forEach(view -> room.join(meetingMapper.toRoomParticipant(view)));
+        room.allow(meetingRepository.findAllowedUserIds(meeting.getId()));
+        meetingRepository.findWaitingUsers(meeting.getId())
+                .forEach(user -> room.knock(userMapper.toUserResponse(user)));
+        return room;
+    }
+
+    private MeetingRoom newRoom(Meeting meeting) {
+        return new MeetingRoom(
+                meeting.getId(),
+                meeting.getMeetingCode(),
+                meeting.getCreatedBy().getId(),
+                meeting.getCreatedBy().getEmail(),
+                eventBufferSize
+        );
+    }
+}
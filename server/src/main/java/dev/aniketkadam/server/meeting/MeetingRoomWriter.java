@@ -0,0 +1,176 @@
+package dev.aniketkadam.server.meeting;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Persists {@link MeetingRoom} changes to {@code meeting_participant}, {@code meeting_allowed_users}
+ * and {@code meeting_waiting_users} off the request path. Changes are queued in order and written
+ * by {@link #flush()}, consecutive changes of the same kind going out as one JDBC batch.
+ * <p>
+ * Every statement is idempotent, so a flush that failed halfway is simply retried. A batch the
+ * database rejects (a meeting deleted in the meantime, a constraint violation) is written row by
+ * row instead and the rows rejected again are dropped, so they cannot hold back later changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MeetingRoomWriter {
+
+    private static final String INSERT_PARTICIPANT_SQL = """
+            INSERT INTO meeting_participant (id, meeting_id, user_id, joined_at, left_at, muted)
+            VALUES (?, ?, ?, ?, NULL, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+    private static final String DELETE_PARTICIPANT_SQL = "DELETE FROM meeting_participant WHERE id = ?";
+    private static final String UPDATE_MUTED_SQL = "UPDATE meeting_participant SET muted = ? WHERE id = ?";
+    // admissions come in sets, one row per user id of the array
+    private static final String INSERT_ALLOWED_SQL = """
+            INSERT INTO meeting_allowed_users (meeting_id, user_id)
+            SELECT ?, unnest(?::varchar[])
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String INSERT_WAITING_SQL = """
+            INSERT INTO meeting_waiting_users (meeting_id, user_id) VALUES (?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String DELETE_WAITING_SQL = "DELETE FROM meeting_waiting_users WHERE meeting_id = ? AND user_id = ANY(?::varchar[])";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Queue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+    // guarded by this: drained writes not yet in the database
+    private final List<PendingWrite> unflushed = new ArrayList<>();
+    private Counter written;
+    private Counter dropped;
+
+    @PostConstruct
+    void registerMetrics() {
+        written = meterRegistry.counter("meetings.rooms.writes");
+        dropped = meterRegistry.counter("meetings.rooms.writes.dropped");
+        meterRegistry.gauge("meetings.rooms.writes.pending", this, MeetingRoomWriter::pendingCount);
+    }
+
+    public void participantJoined(String meetingId, MeetingRoom.RoomParticipant participant) {
+        queue.add(new PendingWrite(INSERT_PARTICIPANT_SQL, new Object[]{
+                participant.id(),
+                meetingId,
+                participant.user().getId(),
+                participant.joinedAt() != null ? Timestamp.valueOf(participant.joinedAt()) : null,
+                participant.muted()
+        }));
+    }
+
+    public void participantLeft(MeetingRoom.RoomParticipant participant) {
+        queue.add(new PendingWrite(DELETE_PARTICIPANT_SQL, new Object[]{participant.id()}));
+    }
+
+    public void participantMuted(String participantId, boolean muted) {
+        queue.add(new PendingWrite(UPDATE_MUTED_SQL, new Object[]{muted, participantId}));
+    }
+
+    public void usersAllowed(String meetingId, Collection<String> userIds) {
+        if (!userIds.isEmpty()) {
+            queue.add(new PendingWrite(INSERT_ALLOWED_SQL, new Object[]{meetingId, userIds.toArray(String[]::new)}));
+        }
+    }
+
+    public void userWaiting(String meetingId, String userId) {
+        queue.add(new PendingWrite(INSERT_WAITING_SQL, new Object[]{meetingId, userId}));
+    }
+
+    public void waitingRemoved(String meetingId, Collection<String> userIds) {
+        if (!userIds.isEmpty()) {
+            queue.add(new PendingWrite(DELETE_WAITING_SQL, new Object[]{meetingId, userIds.toArray(String[]::new)}));
+        }
+    }
+
+    public boolean hasPending() {
+        return pendingCount() > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${application.meetings.write-behind.flush-ms:500}")
+    public synchronized void flush() {
+        PendingWrite write;
+        while ((write = queue.poll()) != null) {
+            unflushed.add(write);
+        }
+        int from = 0;
+        try {
+            while (from < unflushed.size()) {
+                String sql = unflushed.get(from).sql();
+                int to = from;
+                List<Object[]> batch = new ArrayList<>();
+                while (to < unflushed.size() && unflushed.get(to).sql().equals(sql)) {
+                    batch.add(unflushed.get(to++).args());
+                }
+                write(sql, batch);
+                from = to;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to write {} meeting change(s), will retry: {}", unflushed.size() - from, e.getMessage());
+        } finally {
+            unflushed.subList(0, from).clear();
+        }
+    }
+
+    private void write(String sql, List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(sql, batch);
+            written.increment(batch.size());
+            return;
+        } catch (DataAccessException e) {
+            if (!isRejected(e)) {
+                throw e;
+            }
+        }
+        for (Object[] args : batch) {
+            try {
+                jdbcTemplate.batchUpdate(sql, List.<Object[]>of(args));
+                written.increment();
+            } catch (DataAccessException e) {
+                if (!isRejected(e)) {
+                    throw e;
+                }
+                dropped.increment();
+                log.error("Dropped a meeting change the database rejected, {}: {}", Arrays.deepToString(args), e.getMessage());
+            }
+        }
+    }
+
+    // rejected for what the row holds, as opposed to failing to reach the database
+    private static boolean isRejected(DataAccessException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    synchronized int pendingCount() {
+        return queue.size() + unflushed.size();
+    }
+
+    private record PendingWrite(String sql, Object[] args) {
+    }
+}
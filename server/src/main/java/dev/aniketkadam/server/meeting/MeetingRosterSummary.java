@@ -0,0 +1,26 @@
+package dev.aniketkadam.server.meeting;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * What a large-meeting header needs without loading the roster. {@code waitingCount} is
+ * only filled for the admin.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MeetingRosterSummary {
+
+    private int participantCount;
+    private Integer waitingCount;
+    // user ids, loudest first
+    private List<String> activeSpeakers;
+    // sequence of the room event log, see MeetingSyncResponse
+    private long sequence;
+}
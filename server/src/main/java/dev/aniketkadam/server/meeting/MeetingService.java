@@ -1,33 +1,56 @@
 package dev.aniketkadam.server.meeting;
 
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.pagination.CursorResponse;
 import dev.aniketkadam.server.user.User;
 import dev.aniketkadam.server.user.UserMapper;
 import dev.aniketkadam.server.user.UserRepository;
 import dev.aniketkadam.server.user.UserResponse;
-import dev.aniketkadam.server.utils.RandomCodeGenerator;
-import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MeetingService {
 
+    private static final int RANK_SELF = 0;
+    private static final int RANK_ADMIN = 1;
+    private static final int RANK_SPEAKER = 2;
+    private static final int RANK_HAND_RAISED = 500;
+    private static final int RANK_OTHER = 1000;
+    private static final Comparator<RosterCursor> ROSTER_ORDER = Comparator.comparingInt(RosterCursor::rank)
+            .thenComparing(RosterCursor::joinedAt)
+            .thenComparing(RosterCursor::id);
+
     private final MeetingRepository repository;
     private final MeetingMapper mapper;
-    private final MeetingParticipantRepository participantRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final MeetingCodeFilter codeFilter;
+    private final MeetingRoomRegistry roomRegistry;
+    private final MeetingRoomWriter roomWriter;
+    private final ActiveSpeakerDetector speakerDetector;
+    private final NotificationDispatcher notificationDispatcher;
+    private final RosterCoalescer rosterCoalescer;
+    private final WaitingRoomNotifier waitingRoomNotifier;
     private final UserMapper userMapper;
     private final UserRepository userRepository;
 
+    @Value("${application.meetings.roster.max-page-size:100}")
+    private int maxRosterPageSize;
+
     private User authenticationToUser(Authentication authentication) {
         return (User) authentication.getPrincipal();
     }
@@ -36,82 +59,71 @@ public class MeetingService {
     public String createMeeting(Authentication authentication) {
         var connectedUser = authenticationToUser(authentication);
         Meeting meeting = Meeting.builder()
-                .meetingCode(RandomCodeGenerator.generateMeetingCode())
+                .meetingCode(codeFilter.newCode())
                 .createdBy(connectedUser)
                 .createdAt(LocalDateTime.now())
                 .build();
         var savedMeeting = repository.save(meeting);
+        // right away: a rollback only leaves a false positive, a late add would hide a live code
+        codeFilter.add(savedMeeting.getMeetingCode());
+        // after commit, a failed insert must not leave a room behind
+        roomRegistry.register(savedMeeting);
         return savedMeeting.getMeetingCode();
     }
 
     public Boolean isAdmin(String meetingCode, Authentication authentication) {
         var connectedUser = authenticationToUser(authentication);
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
-        return meeting.getCreatedBy().getId().equals(connectedUser.getId());
+        return roomRegistry.resolve(meetingCode).isAdmin(connectedUser.getId());
     }
 
     public List<MeetingParticipantResponse> getMeetingParticipants(String meetingCode, Authentication authentication) {
         var connectedUser = (User) authentication.getPrincipal();
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
-        return meeting.getMeetingParticipants()
+        var room = roomRegistry.resolve(meetingCode);
+        return room.participants()
                 .stream()
-                .filter(mp -> !mp.getUser().getId().equals(connectedUser.getId()))
-                .map(mapper::toMeetingParticipantResponse)
+                .filter(mp -> !mp.user().getId().equals(connectedUser.getId()))
+                .map(mp -> mapper.toMeetingParticipantResponse(mp, false))
                 .toList();
     }
 
     public void addUserInMeeting(String meetingCode, Authentication authentication) throws OperationNotPermittedException {
         var connectedUser = (User) authentication.getPrincipal();
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with ID: " + meetingCode));
+        var room = roomRegistry.resolve(meetingCode);
 
         // you don't have permission to add
-        if (!meeting.getCreatedBy().getId().equals(connectedUser.getId()) && !meeting.getAllowedUsers().stream().anyMatch(au -> au.getId().equals(connectedUser.getId()))) {
+        if (!room.canJoin(connectedUser.getId())) {
             throw new OperationNotPermittedException("You don't have permission to join the meeting");
         }
-
-        var currentMeetingParticipants = meeting.getMeetingParticipants();
-        boolean alreadyPresent = currentMeetingParticipants.stream()
-                .anyMatch(mp -> mp.getUser().getId().equals(connectedUser.getId()));
-
-        if (alreadyPresent) {
+        // fast path, join() below settles a race between two joins of the same user
+        if (room.isParticipant(connectedUser.getId())) {
             throw new OperationNotPermittedException("You are already present in the participants list.");
         }
-        var savedParticipant = participantRepository.save(
-                MeetingParticipant.builder()
-                        .user(connectedUser)
-                        .muted(false)
-                        .meeting(meeting)
-                        .joinedAt(LocalDateTime.now())
-                        .build()
-        );
-
-        var participantResponse = mapper.toMeetingParticipantResponse(savedParticipant);
 
-        messagingTemplate.convertAndSend(
-                "/topic/meeting/" + meetingCode + "/participant/add",
-                participantResponse
+        var participant = new MeetingRoom.RoomParticipant(
+                UUID.randomUUID().toString(),
+                userMapper.toUserResponse(connectedUser),
+                LocalDateTime.now(),
+                false
         );
+        if (!room.join(participant)) {
+            throw new OperationNotPermittedException("You are already present in the participants list.");
+        }
+        roomWriter.participantJoined(room.getMeetingId(), participant);
+
+        rosterCoalescer.added(meetingCode, logged(room, MeetingEventType.PARTICIPANT_JOINED,
+                mapper.toMeetingParticipantResponse(participant, room.isAdmin(connectedUser.getId()))));
     }
 
     public void getAdminPermission(String meetingCode, Authentication authentication) {
         var connectedUser = (User) authentication.getPrincipal();
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with ID: " + meetingCode));
-
-        var waitingUsers = meeting.getWaitingUsers();
-        waitingUsers.add(connectedUser);
-        meeting.setWaitingUsers(waitingUsers);
-        repository.save(meeting);
-
-        var admin = meeting.getCreatedBy();
+        var room = roomRegistry.resolve(meetingCode);
 
-        messagingTemplate.convertAndSend(
-                "/topic/waiting/users/" + meetingCode + "/" + admin.getEmail(),
-                userMapper.toUserResponse(connectedUser)
-        );
+        var waitingUser = userMapper.toUserResponse(connectedUser);
+        // a repeat knock keeps its place in the queue and is not announced again
+        if (room.knock(waitingUser)) {
+            roomWriter.userWaiting(room.getMeetingId(), connectedUser.getId());
+            waitingRoomNotifier.knocked(room, waitingUser);
+        }
     }
 
     public void generatePermissionToUsers(
@@ -120,112 +132,272 @@ public class MeetingService {
             List<String> userIds
     ) throws OperationNotPermittedException {
         var connectedUser = (User) authentication.getPrincipal();
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with ID: " + meetingCode));
+        var room = roomRegistry.resolve(meetingCode);
 
-        if (!meeting.getCreatedBy().getId().equals(connectedUser.getId())) {
+        if (!room.isAdmin(connectedUser.getId())) {
             throw new OperationNotPermittedException("Only admin of the meeting can generate permission");
         }
-        var allowedUsers = meeting.getAllowedUsers();
-        var waitingUser = meeting.getWaitingUsers();
-        userIds.stream().forEach((userId) -> {
-            var user = userRepository.findById(userId);
-            if (user.isPresent()) {
-                allowedUsers.add(user.get());
-            }
-        });
-        var newWaitingUsers = waitingUser.stream()
-                .filter(wu -> !userIds.contains(wu.getId()))
+        var requestedIds = new LinkedHashSet<>(userIds);
+        // users in the waiting room are known to exist, only the others need a lookup
+        var waitingIds = room.waitingUsers()
+                .stream()
+                .map(UserResponse::getId)
                 .collect(Collectors.toSet());
+        var unknownIds = requestedIds.stream()
+                .filter(userId -> !waitingIds.contains(userId))
+                .toList();
+        var existingIds = unknownIds.isEmpty()
+                ? Set.<String>of()
+                : new HashSet<>(userRepository.findIdsByIdIn(unknownIds));
+        var allowedUserIds = requestedIds.stream()
+                .filter(userId -> waitingIds.contains(userId) || existingIds.contains(userId))
+                .toList();
 
-        meeting.setAllowedUsers(allowedUsers);
-        meeting.setWaitingUsers(newWaitingUsers);
-        repository.save(meeting);
+        admit(room, allowedUserIds, List.copyOf(requestedIds));
+    }
 
-        userIds.stream()
-                .forEach((userId) ->
-                        messagingTemplate.convertAndSend(
-                                "/topic/allowed/in/meeting/" + meetingCode + "/" + userId,
-                                userId
-                        ));
+    /**
+     * Admits everyone currently in the waiting room.
+     *
+     * @return ids of the admitted users
+     */
+    public List<String> admitAllWaiting(String meetingCode, Authentication authentication) throws OperationNotPermittedException {
+        var connectedUser = (User) authentication.getPrincipal();
+        var room = roomRegistry.resolve(meetingCode);
+
+        if (!room.isAdmin(connectedUser.getId())) {
+            throw new OperationNotPermittedException("Only admin of the meeting can generate permission");
+        }
+        var waitingIds = room.waitingUsers()
+                .stream()
+                .map(UserResponse::getId)
+                .toList();
+
+        admit(room, waitingIds, waitingIds);
+        return waitingIds;
+    }
+
+    private void admit(MeetingRoom room, List<String> allowedUserIds, List<String> removedFromWaiting) {
+        if (allowedUserIds.isEmpty() && removedFromWaiting.isEmpty()) {
+            return;
+        }
+        room.allow(allowedUserIds);
+        room.removeWaiting(removedFromWaiting);
+        roomWriter.usersAllowed(room.getMeetingId(), allowedUserIds);
+        roomWriter.waitingRemoved(room.getMeetingId(), removedFromWaiting);
+        room.getEvents().append(MeetingEventType.USERS_ADMITTED, allowedUserIds);
+
+        // one frame for the whole waiting room, each client looks for its own id
+        if (!allowedUserIds.isEmpty()) {
+            notificationDispatcher.convertAndSend(
+                    "/topic/allowed/in/meeting/" + room.getMeetingCode(),
+                    allowedUserIds
+            );
+        }
     }
 
     public Boolean hasPermissionToJoin(String meetingCode, Authentication authentication) {
         var connectedUser = (User) authentication.getPrincipal();
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with ID: " + meetingCode));
-
-        return connectedUser.getId().equals(meeting.getCreatedBy().getId())
-                ||
-                meeting.getAllowedUsers().stream().anyMatch(au -> au.getId().equals(connectedUser.getId()));
+        return roomRegistry.resolve(meetingCode).canJoin(connectedUser.getId());
     }
 
     public List<UserResponse> getWaitingUsers(String meetingCode, Authentication authentication) throws OperationNotPermittedException {
         var connectedUser = (User) authentication.getPrincipal();
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with ID: " + meetingCode));
+        var room = roomRegistry.resolve(meetingCode);
 
-        if (!meeting.getCreatedBy().getId().equals(connectedUser.getId())) {
+        if (!room.isAdmin(connectedUser.getId())) {
             throw new OperationNotPermittedException("Only admin of the meeting can see waiting users.");
         }
 
-        return meeting.getWaitingUsers()
-                .stream()
-                .map(userMapper::toUserResponse)
-                .toList();
+        return room.waitingUsers();
     }
 
     public List<MeetingParticipantResponse> getMeetingParticipantsAll(String meetingCode, Authentication authentication) {
         var connectedUser = (User) authentication.getPrincipal();
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
-        return meeting.getMeetingParticipants()
+        return roster(roomRegistry.resolve(meetingCode), connectedUser);
+    }
+
+    /**
+     * Reads the roster one page at a time, in roster order. Speakers move while a client pages,
+     * so a participant can show up twice or be skipped; tile grids refetch the first page when
+     * the speakers change.
+     */
+    public CursorResponse<MeetingParticipantResponse> getRosterPage(
+            String meetingCode,
+            String cursor,
+            int size,
+            Authentication authentication
+    ) throws OperationNotPermittedException {
+        if (size < 1) {
+            throw new OperationNotPermittedException("Page size must be at least 1.");
+        }
+        int pageSize = Math.min(size, maxRosterPageSize);
+        var after = cursor != null ? RosterCursor.decode(cursor) : null;
+        var connectedUser = (User) authentication.getPrincipal();
+        var room = roomRegistry.resolve(meetingCode);
+
+        // one extra entry tells us whether another page exists
+        var entries = ranked(room, connectedUser)
                 .stream()
-                .sorted((user1, user2) -> {
-                    if (user1.getUser().getId().equals(connectedUser.getId())) return -1;
-                    if (user2.getUser().getId().equals(connectedUser.getId())) return 1;
-                    return 0;
-                })
-                .map(mp -> MeetingParticipantResponse.builder()
-                        .id(mp.getId())
-                        .muted(mp.isMuted())
-                        .user(userMapper.toUserResponse(mp.getUser()))
-                        .leftAt(mp.getLeftAt())
-                        .joinedAt(mp.getJoinedAt())
-                        .isAdmin(meeting.getCreatedBy().getId().equals(mp.getUser().getId()))
-                        .build()
-                )
+                .filter(entry -> after == null || ROSTER_ORDER.compare(entry.key(), after) > 0)
+                .limit(pageSize + 1L)
                 .toList();
+        boolean hasMore = entries.size() > pageSize;
+        var page = hasMore ? entries.subList(0, pageSize) : entries;
+        return CursorResponse.<MeetingParticipantResponse>builder()
+                .content(page.stream()
+                        .map(entry -> mapper.toMeetingParticipantResponse(entry.participant(), room.isAdmin(entry.participant().user().getId())))
+                        .toList())
+                .size(pageSize)
+                .nextCursor(hasMore ? page.getLast().key().encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    public MeetingRosterSummary getRosterSummary(String meetingCode, Authentication authentication) {
+        var connectedUser = (User) authentication.getPrincipal();
+        var room = roomRegistry.resolve(meetingCode);
+        return MeetingRosterSummary.builder()
+                .participantCount(room.participantCount())
+                .waitingCount(room.isAdmin(connectedUser.getId()) ? room.waitingCount() : null)
+                .activeSpeakers(speakerDetector.currentSpeakers(meetingCode))
+                .sequence(room.getEvents().lastSequence())
+                .build();
+    }
+
+    /**
+     * Returns the room events after {@code after} when they are still buffered for the given
+     * epoch, and the full roster otherwise.
+     */
+    public MeetingSyncResponse syncMeeting(String meetingCode, Long after, String epoch, Authentication authentication) {
+        var connectedUser = (User) authentication.getPrincipal();
+        var room = roomRegistry.resolve(meetingCode);
+        var events = room.getEvents();
+
+        if (after != null && events.getEpoch().equals(epoch)) {
+            var missed = events.since(after);
+            if (missed.isPresent()) {
+                return MeetingSyncResponse.builder()
+                        .epoch(events.getEpoch())
+                        .sequence(missed.get().isEmpty() ? after : missed.get().getLast().sequence())
+                        .events(missed.get())
+                        .build();
+            }
+        }
+        // read before the roster, see MeetingEventLog
+        long sequence = events.lastSequence();
+        return MeetingSyncResponse.builder()
+                .epoch(events.getEpoch())
+                .sequence(sequence)
+                .participants(roster(room, connectedUser))
+                .media(room.getMedia().snapshot())
+                .build();
     }
 
     public Boolean isExist(String meetingCode) {
-        return repository.existsByMeetingCode(meetingCode);
+        return codeFilter.exists(meetingCode);
     }
 
-    @Transactional
     public void removeFromMeeting(String meetingCode, Authentication authentication) {
         var connectedUser = (User) authentication.getPrincipal();
-        var meeting = repository.findByMeetingCode(meetingCode)
-                .orElseThrow(() -> new EntityNotFoundException("Meeting is not found with code"));
-
-        var participants = meeting.getMeetingParticipants();
-        var currentParticipant = participants.stream()
-                .filter(p -> p.getUser().getId().equals(connectedUser.getId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("User is not a participant of this meeting"));
+        var room = roomRegistry.resolve(meetingCode);
 
         // remove participant
-        meeting.getMeetingParticipants().remove(currentParticipant);
+        var currentParticipant = room.leave(connectedUser.getId());
+        if (currentParticipant == null) {
+            throw new IllegalStateException("User is not a participant of this meeting");
+        }
+        roomWriter.participantLeft(currentParticipant);
 
         // TODO: update user status
 
-        repository.save(meeting);
-
         // notify others
-        messagingTemplate.convertAndSend(
-                "/topic/meeting/" + meetingCode + "/participant/remove",
-                mapper.toMeetingParticipantResponse(currentParticipant)
-        );
+        rosterCoalescer.removed(meetingCode, logged(room, MeetingEventType.PARTICIPANT_LEFT,
+                mapper.toMeetingParticipantResponse(currentParticipant, room.isAdmin(connectedUser.getId()))));
+    }
+
+    /**
+     * Turns the caller's mic, camera or raised hand on or off and announces the change to the
+     * room. Repeating the current state is a no-op.
+     */
+    public void updateMedia(String meetingCode, MeetingMediaType type, boolean on, Authentication authentication) throws OperationNotPermittedException {
+        var connectedUser = (User) authentication.getPrincipal();
+        var room = roomRegistry.resolve(meetingCode);
+        var participant = room.findParticipant(connectedUser.getId())
+                .orElseThrow(() -> new OperationNotPermittedException("Only participants of the meeting can change their media."));
+
+        var event = room.updateMedia(connectedUser.getId(), type, on);
+        if (event == null) {
+            return;
+        }
+        if (type == MeetingMediaType.MIC) {
+            roomWriter.participantMuted(participant.id(), !on);
+        }
+        var change = (MeetingMediaChangeResponse) event.payload();
+        rosterCoalescer.mediaChanged(meetingCode, change.getUserId(), change.getBits(), event.sequence());
+    }
+
+    public MeetingMediaResponse getMediaState(String meetingCode) {
+        return MeetingMediaResponse.builder()
+                .states(roomRegistry.resolve(meetingCode).getMedia().snapshot())
+                .build();
+    }
+
+    /**
+     * Removes participants whose connection is gone. Rooms that are not in memory have nobody
+     * in them, so they are left alone.
+     */
+    public void removeDisconnected(String meetingCode, Collection<String> emails) {
+        roomRegistry.find(meetingCode).ifPresent(room -> emails.forEach(email -> room.findParticipantByEmail(email)
+                .map(participant -> room.leave(participant.user().getId()))
+                .ifPresent(participant -> {
+                    roomWriter.participantLeft(participant);
+                    rosterCoalescer.removed(meetingCode, logged(room, MeetingEventType.PARTICIPANT_LEFT,
+                            mapper.toMeetingParticipantResponse(participant, room.isAdmin(participant.user().getId()))));
+                })));
+    }
+
+    private List<MeetingParticipantResponse> roster(MeetingRoom room, User connectedUser) {
+        return ranked(room, connectedUser)
+                .stream()
+                .map(entry -> mapper.toMeetingParticipantResponse(entry.participant(), room.isAdmin(entry.participant().user().getId())))
+                .toList();
+    }
+
+    // roster order: the caller, the admin, active speakers loudest first, raised hands, everyone else by join time
+    private List<RankedParticipant> ranked(MeetingRoom room, User connectedUser) {
+        var speakers = speakerDetector.currentSpeakers(room.getMeetingCode());
+        return room.participants()
+                .stream()
+                .map(participant -> {
+                    var userId = participant.user().getId();
+                    int speakerIndex = speakers.indexOf(userId);
+                    int rank = userId.equals(connectedUser.getId()) ? RANK_SELF
+                            : room.isAdmin(userId) ? RANK_ADMIN
+                            : speakerIndex >= 0 ? RANK_SPEAKER + speakerIndex
+                            : handRaised(room, userId) ? RANK_HAND_RAISED
+                            : RANK_OTHER;
+                    return new RankedParticipant(new RosterCursor(
+                            rank,
+                            participant.joinedAt() != null ? participant.joinedAt() : LocalDateTime.MIN,
+                            participant.id()
+                    ), participant);
+                })
+                .sorted(Comparator.comparing(RankedParticipant::key, ROSTER_ORDER))
+                .toList();
+    }
+
+    private static boolean handRaised(MeetingRoom room, String userId) {
+        int bits = room.getMedia().get(userId);
+        return bits != MeetingMediaState.ABSENT && (bits & MeetingMediaType.HAND.bit()) != 0;
+    }
+
+    private record RankedParticipant(RosterCursor key, MeetingRoom.RoomParticipant participant) {
+    }
+
+    private MeetingParticipantResponse logged(MeetingRoom room, MeetingEventType type, MeetingParticipantResponse response) {
+        response.setSequence(room.getEvents().append(type, response).sequence());
+        return response;
     }
 
 }
@@ -0,0 +1,28 @@
+package dev.aniketkadam.server.meeting;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Either the events a client missed since its last sequence number, or a full roster with the
+ * media state of everyone when those events are no longer available. {@code epoch} changes
+ * whenever the room is reloaded, sequence numbers from another epoch are meaningless.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MeetingSyncResponse {
+
+    private String epoch;
+    private long sequence;
+    private List<MeetingEvent> events;
+    private List<MeetingParticipantResponse> participants;
+    // MeetingMediaType bits per user id, sent along with the roster
+    private Map<String, Integer> media;
+}
@@ -0,0 +1,122 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.config.SchedulingConfig;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges the roster and media changes of a room into one {@link RosterDeltaResponse} on
+ * {@code /topic/meeting/{code}/participants} per {@code coalesce-ms}, so a join storm costs every
+ * client one frame per window instead of one per person. The flush runs on the delivery scheduler,
+ * away from the blocking jobs, so a change waits at most one window unless a notification lane is
+ * full and pushes back for up to its {@code offer-timeout-ms}.
+ */
+@Service
+@RequiredArgsConstructor
+public class RosterCoalescer {
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RoomDelta> pending = new ConcurrentHashMap<>();
+    private Counter changes;
+    private Counter frames;
+
+    @PostConstruct
+    void registerMetrics() {
+        changes = meterRegistry.counter("meetings.roster.changes");
+        frames = meterRegistry.counter("meetings.roster.frames");
+        meterRegistry.gaugeMapSize("meetings.roster.pending.rooms", Tags.empty(), pending);
+    }
+
+    public void added(String meetingCode, MeetingParticipantResponse participant) {
+        change(meetingCode, participant, true);
+    }
+
+    public void removed(String meetingCode, MeetingParticipantResponse participant) {
+        change(meetingCode, participant, false);
+    }
+
+    /**
+     * Queues the new {@link MeetingMediaState} bits of a user, a later change in the same window replaces it.
+     *
+     * @param sequence room event sequence number of the change
+     */
+    public void mediaChanged(String meetingCode, String userId, int bits, long sequence) {
+        changes.increment();
+        pending.compute(meetingCode, (code, delta) -> {
+            RoomDelta updated = delta != null ? delta : new RoomDelta();
+            updated.media.put(userId, bits);
+            updated.sequence = Math.max(updated.sequence, sequence);
+            return updated;
+        });
+    }
+
+    @Scheduled(fixedRateString = "${application.meetings.roster.coalesce-ms:100}", scheduler = SchedulingConfig.DELIVERY_SCHEDULER)
+    public void flush() {
+        for (String code : pending.keySet()) {
+            RoomDelta delta = pending.remove(code);
+            if (delta == null || delta.isEmpty()) {
+                continue;
+            }
+            frames.increment();
+            notificationDispatcher.convertAndSend(
+                    "/topic/meeting/" + code + "/participants",
+                    RosterDeltaResponse.builder()
+                            .added(List.copyOf(delta.added.values()))
+                            .removed(List.copyOf(delta.removed))
+                            .media(Map.copyOf(delta.media))
+                            .sequence(delta.sequence)
+                            .build()
+            );
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void change(String meetingCode, MeetingParticipantResponse participant, boolean joined) {
+        changes.increment();
+        pending.compute(meetingCode, (code, delta) -> {
+            RoomDelta updated = delta != null ? delta : new RoomDelta();
+            if (joined) {
+                updated.added.put(participant.getId(), participant);
+            } else if (updated.added.remove(participant.getId()) == null) {
+                // only announce leaving when the join went out in an earlier window
+                updated.removed.add(participant);
+            }
+            if (participant.getSequence() != null) {
+                updated.sequence = Math.max(updated.sequence, participant.getSequence());
+            }
+            return updated;
+        });
+    }
+
+    // only touched inside compute() until the entry is removed
+    private static class RoomDelta {
+
+        private final Map<String, MeetingParticipantResponse> added = new LinkedHashMap<>();
+        private final List<MeetingParticipantResponse> removed = new ArrayList<>();
+        private final Map<String, Integer> media = new LinkedHashMap<>();
+        private long sequence;
+
+        private boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && media.isEmpty();
+        }
+    }
+}
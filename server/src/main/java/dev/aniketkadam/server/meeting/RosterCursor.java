@@ -0,0 +1,35 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.exception.OperationNotPermittedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a roster page: the ordering key of the last participant the client has seen.
+ * Opaque to clients, like {@link dev.aniketkadam.server.pagination.KeysetCursor}.
+ */
+record RosterCursor(int rank, LocalDateTime joinedAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = rank + SEPARATOR + joinedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RosterCursor decode(String cursor) throws OperationNotPermittedException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || parts[2].isEmpty()) {
+                throw new OperationNotPermittedException("Invalid cursor.");
+            }
+            return new RosterCursor(Integer.parseInt(parts[0]), LocalDateTime.parse(parts[1]), parts[2]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new OperationNotPermittedException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dev.aniketkadam.server.meeting;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roster and media changes of one coalescing window. A participant who joined and left within
+ * the window appears in neither list. Empty parts are left out.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class RosterDeltaResponse {
+
+    private List<MeetingParticipantResponse> added;
+    private List<MeetingParticipantResponse> removed;
+    // new MeetingMediaType bits per user id
+    private Map<String, Integer> media;
+    // highest room event sequence covered by this delta
+    private long sequence;
+}
@@ -0,0 +1,83 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.config.SchedulingConfig;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.user.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells meeting admins who is knocking. Knocks are collected per room and sent as one
+ * {@link WaitingUsersResponse} per room and {@code notify-ms}, so a crowd opening the link at
+ * start time costs the admin one frame per interval instead of one per person.
+ */
+@Service
+@RequiredArgsConstructor
+public class WaitingRoomNotifier {
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.meetings.waiting.max-batch:50}")
+    private int maxBatch;
+
+    private final Map<String, PendingKnocks> pending = new ConcurrentHashMap<>();
+    private Counter frames;
+
+    @PostConstruct
+    void registerMetrics() {
+        frames = meterRegistry.counter("meetings.waiting.frames");
+        meterRegistry.gaugeMapSize("meetings.waiting.pending.rooms", Tags.empty(), pending);
+    }
+
+    public void knocked(MeetingRoom room, UserResponse user) {
+        pending.compute(room.getMeetingCode(), (code, knocks) -> {
+            PendingKnocks updated = knocks != null ? knocks : new PendingKnocks(room);
+            updated.added.add(user);
+            return updated;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${application.meetings.waiting.notify-ms:1000}", scheduler = SchedulingConfig.DELIVERY_SCHEDULER)
+    public void flush() {
+        for (String code : pending.keySet()) {
+            PendingKnocks knocks = pending.remove(code);
+            if (knocks == null) {
+                continue;
+            }
+            List<UserResponse> added = knocks.added;
+            MeetingRoom room = knocks.room;
+            frames.increment();
+            notificationDispatcher.convertAndSend(
+                    "/topic/waiting/users/" + code + "/" + room.getAdminEmail(),
+                    WaitingUsersResponse.builder()
+                            .added(List.copyOf(added.subList(0, Math.min(added.size(), maxBatch))))
+                            .truncated(added.size() > maxBatch)
+                            .waitingCount(room.waitingCount())
+                            .build()
+            );
+        }
+    }
+
+    private static class PendingKnocks {
+
+        private final MeetingRoom room;
+        // only touched inside compute() until the entry is removed
+        private final List<UserResponse> added = new ArrayList<>();
+
+        private PendingKnocks(MeetingRoom room) {
+            this.room = room;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.user.UserResponse;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitingUsersResponse {
+
+    // users who knocked since the last update, longest waiting first
+    private List<UserResponse> added;
+    // set when more users knocked than fit in one update, the full list is at GET /{code}/waiting/users
+    private boolean truncated;
+    private int waitingCount;
+}
@@ -0,0 +1,23 @@
+package dev.aniketkadam.server.message;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Chat message as pushed to call participants when the compact wire format is on. It only
+ * references the sender by id; both participant profiles are already part of the call details
+ * the client loads once per call.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompactMessage {
+
+    private long seq;
+    private String senderId;
+    private String content;
+    private LocalDateTime createdAt;
+}
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "messages")
+@Table(
+        name = "messages",
+        indexes = @Index(name = "idx_messages_call_timeline", columnList = "call_id, created_at, id")
+)
 public class Message {
 
     @Id
@@ -38,4 +41,8 @@ public class Message {
 
     @Column(nullable = false)
     private LocalDateTime createdAt;
+
+    // position of the message within its call, starting at 1
+    @Column(name = "seq")
+    private Long sequence;
 }
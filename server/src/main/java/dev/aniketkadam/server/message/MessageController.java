@@ -1,6 +1,7 @@
 package dev.aniketkadam.server.message;
 
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.pagination.CursorResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -24,6 +25,15 @@ public class MessageController {
         return ResponseEntity.ok(service.sendMessage(callId, request.getContent(), authentication));
     }
 
+    @PostMapping("/send/message/call/{call-id}/compact")
+    public ResponseEntity<CompactMessage> sendCompactMessage(
+            @PathVariable("call-id") String callId,
+            @RequestBody MessageRequest request,
+            Authentication authentication
+    ) throws OperationNotPermittedException {
+        return ResponseEntity.ok(service.sendCompactMessage(callId, request.getContent(), authentication));
+    }
+
     @GetMapping("/call/{call-id}")
     public ResponseEntity<List<MessageResponse>> getMessagesByCall(
             @PathVariable("call-id") String callId,
@@ -31,4 +41,15 @@ public class MessageController {
     ) throws OperationNotPermittedException {
         return ResponseEntity.ok(service.getMessagesByCallId(callId, authentication));
     }
+
+    @GetMapping("/call/{call-id}/page")
+    public ResponseEntity<CursorResponse<MessageResponse>> getMessagePage(
+            @PathVariable("call-id") String callId,
+            @RequestParam(name = "before", required = false) String before,
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "size", defaultValue = "50", required = false) int size,
+            Authentication authentication
+    ) throws OperationNotPermittedException {
+        return ResponseEntity.ok(service.getMessagePage(callId, before, since, size, authentication));
+    }
 }
@@ -0,0 +1,29 @@
+package dev.aniketkadam.server.message;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the write-behind journal: a chat message as it will be inserted into {@code messages}.
+ */
+public record MessageJournalEntry(
+        String id,
+        String callId,
+        String senderId,
+        String receiverId,
+        String content,
+        LocalDateTime createdAt,
+        long sequence
+) {
+
+    public static MessageJournalEntry from(Message message) {
+        return new MessageJournalEntry(
+                message.getId(),
+                message.getCall().getId(),
+                message.getSender().getId(),
+                message.getReceiver().getId(),
+                message.getContent(),
+                message.getCreatedAt(),
+                message.getSequence()
+        );
+    }
+}
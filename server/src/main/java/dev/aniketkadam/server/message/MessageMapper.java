@@ -20,6 +20,16 @@ public class MessageMapper {
                 .receiver(userMapper.toUserResponse(message.getReceiver()))
                 .call(callMapper.toCallResponse(message.getCall()))
                 .createdAt(message.getCreatedAt())
+                .sequence(message.getSequence())
+                .build();
+    }
+
+    public CompactMessage toCompactMessage(Message message) {
+        return CompactMessage.builder()
+                .seq(message.getSequence())
+                .senderId(message.getSender().getId())
+                .content(message.getContent())
+                .createdAt(message.getCreatedAt())
                 .build();
     }
 }
@@ -1,8 +1,68 @@
 package dev.aniketkadam.server.message;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface MessageRepository extends JpaRepository<Message, String> {
+
+    // the call itself is already in the persistence context when this runs, only the users need joining
+    @EntityGraph(attributePaths = {"sender.profile", "sender.role", "receiver.profile", "receiver.role"})
+    List<Message> findAllByCallIdOrderByCreatedAtAsc(String callId);
+
+    @Query("""
+            SELECT COALESCE(MAX(message.sequence), 0)
+            FROM Message message
+            WHERE message.call.id = :callId
+            """)
+    long findLastSequence(@Param("callId") String callId);
+
+    @EntityGraph(attributePaths = {"sender.profile", "sender.role", "receiver.profile", "receiver.role"})
+    @Query("""
+            SELECT message
+            FROM Message message
+            WHERE message.call.id = :callId
+            ORDER BY message.createdAt DESC, message.id DESC
+            """)
+    List<Message> findLatestByCallId(@Param("callId") String callId, Limit limit);
+
+    // the redundant createdAt bound keeps the scan on a range of the (call_id, created_at, id) index
+    @EntityGraph(attributePaths = {"sender.profile", "sender.role", "receiver.profile", "receiver.role"})
+    @Query("""
+            SELECT message
+            FROM Message message
+            WHERE message.call.id = :callId
+            AND message.createdAt <= :createdAt
+            AND (message.createdAt < :createdAt OR message.id < :messageId)
+            ORDER BY message.createdAt DESC, message.id DESC
+            """)
+    List<Message> findByCallIdBefore(
+            @Param("callId") String callId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("messageId") String messageId,
+            Limit limit
+    );
+
+    @EntityGraph(attributePaths = {"sender.profile", "sender.role", "receiver.profile", "receiver.role"})
+    @Query("""
+            SELECT message
+            FROM Message message
+            WHERE message.call.id = :callId
+            AND message.createdAt >= :createdAt
+            AND (message.createdAt > :createdAt OR message.id > :messageId)
+            ORDER BY message.createdAt ASC, message.id ASC
+            """)
+    List<Message> findByCallIdSince(
+            @Param("callId") String callId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("messageId") String messageId,
+            Limit limit
+    );
 }
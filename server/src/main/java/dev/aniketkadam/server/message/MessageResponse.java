@@ -19,4 +19,5 @@ public class MessageResponse {
     private UserResponse receiver;
     private CallResponse call;
     private LocalDateTime createdAt;
+    private Long sequence;
 }
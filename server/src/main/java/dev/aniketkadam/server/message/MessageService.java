@@ -2,18 +2,25 @@ package dev.aniketkadam.server.message;
 
 import dev.aniketkadam.server.call.Call;
 import dev.aniketkadam.server.call.CallRepository;
+import dev.aniketkadam.server.call.CallSession;
+import dev.aniketkadam.server.call.CallSessionRegistry;
 import dev.aniketkadam.server.call.CallStatus;
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.pagination.CursorResponse;
+import dev.aniketkadam.server.pagination.KeysetCursor;
 import dev.aniketkadam.server.user.User;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -22,10 +29,36 @@ public class MessageService {
     private final CallRepository repository;
     private final MessageRepository messageRepository;
     private final MessageMapper mapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher notificationDispatcher;
+    private final CallSessionRegistry callSessionRegistry;
+    private final MessageWriteBehind writeBehind;
+
+    @Value("${application.messages.max-page-size:100}")
+    private int maxPageSize;
+    // clients have to read CompactMessage before this can be switched on
+    @Value("${application.messages.compact-wire-format:false}")
+    private boolean compactWireFormat;
 
     @Transactional
     public MessageResponse sendMessage(String callId, String content, Authentication authentication) throws OperationNotPermittedException {
+        Message savedMessage = send(callId, content, authentication);
+        MessageResponse messageResponse = mapper.toMessageResponse(savedMessage);
+        notifyReceiver(savedMessage, compactWireFormat ? mapper.toCompactMessage(savedMessage) : messageResponse);
+        return messageResponse;
+    }
+
+    @Transactional
+    public CompactMessage sendCompactMessage(String callId, String content, Authentication authentication) throws OperationNotPermittedException {
+        Message savedMessage = send(callId, content, authentication);
+        CompactMessage compactMessage = mapper.toCompactMessage(savedMessage);
+        notifyReceiver(savedMessage, compactWireFormat ? compactMessage : mapper.toMessageResponse(savedMessage));
+        return compactMessage;
+    }
+
+    private Message send(String callId, String content, Authentication authentication) throws OperationNotPermittedException {
+        if (writeBehind.isEnabled()) {
+            return sendWriteBehind(callId, content, authentication);
+        }
         User connectedUser = (User) authentication.getPrincipal();
         Call call = repository.findById(callId)
                 .orElseThrow(() -> new EntityNotFoundException("Call is not found with ID: " + callId));
@@ -42,6 +75,8 @@ public class MessageService {
         }
 
         User targetUser = isCaller ? call.getReceiver() : call.getCaller();
+        long sequence = callSessionRegistry.resolve(callId)
+                .nextMessageSequence(() -> messageRepository.findLastSequence(callId));
 
         Message message = Message.builder()
                 .content(content)
@@ -49,16 +84,103 @@ public class MessageService {
                 .sender(connectedUser)
                 .receiver(targetUser)
                 .createdAt(LocalDateTime.now())
+                .sequence(sequence)
                 .build();
-        Message savedMessage = messageRepository.save(message);
-        MessageResponse messageResponse = mapper.toMessageResponse(savedMessage);
+        return messageRepository.save(message);
+    }
 
-        messagingTemplate.convertAndSend(
-                "/topic/call/" + call.getId() + "/messages/user/" + targetUser.getEmail(),
-                messageResponse
+    // checks run against the live call session and the row is written later by MessageWriteBehind
+    private Message sendWriteBehind(String callId, String content, Authentication authentication) throws OperationNotPermittedException {
+        User connectedUser = (User) authentication.getPrincipal();
+        CallSession session = callSessionRegistry.resolve(callId);
+
+        if (!session.isParticipant(connectedUser.getEmail())) {
+            throw new OperationNotPermittedException("Only caller and receiver can send messages.");
+        }
+
+        if (session.getStatus() != CallStatus.ACCEPTED) {
+            throw new OperationNotPermittedException("Call is ended or not accepted yet.");
+        }
+
+        long sequence = session.nextMessageSequence(() -> messageRepository.findLastSequence(callId));
+        Message message = Message.builder()
+                .id(UUID.randomUUID().toString())
+                .content(content)
+                .call(session.toCall())
+                .sender(connectedUser)
+                .receiver(session.counterpart(connectedUser.getEmail()).toUser())
+                .createdAt(LocalDateTime.now())
+                .sequence(sequence)
+                .build();
+        writeBehind.append(MessageJournalEntry.from(message));
+        return message;
+    }
+
+    private void notifyReceiver(Message message, Object payload) {
+        notificationDispatcher.convertAndSend(
+                "/topic/call/" + message.getCall().getId() + "/messages/user/" + message.getReceiver().getEmail(),
+                payload
         );
+    }
 
-        return messageResponse;
+    /**
+     * Reads the chat of a call one slice at a time. Without a cursor the newest messages come
+     * first and {@code before} pages further back; {@code since} returns, oldest first, what was
+     * posted after the given message so a reconnecting client can catch up. A {@code since} slice
+     * always carries a cursor, the newest message it returned or the given one when nothing was
+     * missed, to be kept as {@code since} for the next reconnect.
+     */
+    public CursorResponse<MessageResponse> getMessagePage(
+            String callId,
+            String before,
+            String since,
+            int size,
+            Authentication authentication
+    ) throws OperationNotPermittedException {
+        if (before != null && since != null) {
+            throw new OperationNotPermittedException("Use either before or since, not both.");
+        }
+        if (size < 1) {
+            throw new OperationNotPermittedException("Page size must be at least 1.");
+        }
+        int pageSize = Math.min(size, maxPageSize);
+        User connectedUser = (User) authentication.getPrincipal();
+        Call call = repository.findById(callId)
+                .orElseThrow(() -> new EntityNotFoundException("Call is not found with Id: " + callId));
+        boolean isCaller = call.getCaller().getEmail().equals(connectedUser.getEmail());
+        boolean isReceiver = call.getReceiver().getEmail().equals(connectedUser.getEmail());
+
+        if (!isCaller && !isReceiver) {
+            throw new OperationNotPermittedException("Only caller and receiver can read messages.");
+        }
+
+        // one extra row tells us whether another slice exists
+        Limit limit = Limit.of(pageSize + 1);
+        List<Message> messages;
+        if (since != null) {
+            KeysetCursor position = KeysetCursor.decode(since);
+            messages = messageRepository.findByCallIdSince(call.getId(), position.timestamp(), position.id(), limit);
+        } else if (before != null) {
+            KeysetCursor position = KeysetCursor.decode(before);
+            messages = messageRepository.findByCallIdBefore(call.getId(), position.timestamp(), position.id(), limit);
+        } else {
+            messages = messageRepository.findLatestByCallId(call.getId(), limit);
+        }
+        boolean hasMore = messages.size() > pageSize;
+        List<Message> slice = hasMore ? messages.subList(0, pageSize) : messages;
+        String nextCursor = null;
+        if (!slice.isEmpty() && (hasMore || since != null)) {
+            Message last = slice.get(slice.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        } else if (since != null) {
+            nextCursor = since;
+        }
+        return CursorResponse.<MessageResponse>builder()
+                .content(slice.stream().map(mapper::toMessageResponse).toList())
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     public List<MessageResponse> getMessagesByCallId(String callId, Authentication authentication) throws OperationNotPermittedException {
@@ -71,7 +193,7 @@ public class MessageService {
         if (!isCaller && !isReceiver) {
             throw new OperationNotPermittedException("Only caller and receiver can read messages.");
         }
-        return call.getMessages().stream()
+        return messageRepository.findAllByCallIdOrderByCreatedAtAsc(call.getId()).stream()
                 .map(mapper::toMessageResponse)
                 .toList();
     }
@@ -0,0 +1,308 @@
+package dev.aniketkadam.server.message;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Optional write-behind store for chat messages. A message is appended to a local journal
+ * segment (and fsynced) before it is acknowledged; a scheduled writer then inserts the
+ * pending messages into {@code messages} with JDBC batches and deletes the segments it has
+ * covered. Segments left behind by a crash are replayed at startup.
+ * <p>
+ * Inserts ignore ids that already exist, so replaying a segment that was partly written
+ * before the crash is harmless.
+ * <p>
+ * When the database is unreachable the whole batch is retried on the next flush. When it
+ * rejects the batch (a constraint violation, a call that no longer exists) the rows are
+ * inserted one by one and those rejected again go to the {@code dead-letter.log} file in the
+ * journal directory, so one bad row cannot hold back the chat behind it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+// replay inserts rows, so the schema has to be in place first
+@DependsOn("entityManagerFactory")
+public class MessageWriteBehind {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO messages (id, content, sender_id, receiver_id, call_id, created_at, seq)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+    private static final String SEGMENT_PREFIX = "messages-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.messages.write-behind.enabled:false}")
+    private boolean enabled;
+    @Value("${application.messages.write-behind.journal-dir:journal}")
+    private String journalDir;
+    @Value("${application.messages.write-behind.fsync:true}")
+    private boolean fsync;
+    @Value("${application.messages.write-behind.batch-size:500}")
+    private int batchSize;
+
+    private final Object appendLock = new Object();
+    // guarded by appendLock
+    private final List<MessageJournalEntry> pending = new ArrayList<>();
+    private FileChannel segment;
+    private Path segmentPath;
+    private long segmentCounter;
+
+    // only touched by flush(): drained entries not yet in the database and the segments holding them
+    private final List<MessageJournalEntry> unflushed = new ArrayList<>();
+    private final List<Path> sealedSegments = new ArrayList<>();
+
+    private Path directory;
+    private Counter inserted;
+    private Counter deadLettered;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Path.of(journalDir);
+        Files.createDirectories(directory);
+        inserted = meterRegistry.counter("messages.writebehind.inserted");
+        deadLettered = meterRegistry.counter("messages.writebehind.dead-lettered");
+        flushTimer = meterRegistry.timer("messages.writebehind.flush");
+        meterRegistry.gauge("messages.writebehind.pending", this, MessageWriteBehind::pendingCount);
+        replay();
+        synchronized (appendLock) {
+            openSegment();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Makes the message durable in the journal and queues it for insertion.
+     */
+    public void append(MessageJournalEntry entry) {
+        byte[] line = toLine(entry);
+        synchronized (appendLock) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    segment.write(buffer);
+                }
+                if (fsync) {
+                    segment.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to journal message " + entry.id(), e);
+            }
+            pending.add(entry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.messages.write-behind.flush-ms:200}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        // rotating while holding the lock puts every drained entry in a sealed segment, and nothing else
+        synchronized (appendLock) {
+            if (!pending.isEmpty()) {
+                unflushed.addAll(pending);
+                pending.clear();
+                try {
+                    segment.close();
+                    sealedSegments.add(segmentPath);
+                    openSegment();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to rotate message journal", e);
+                }
+            }
+        }
+        writeUnflushed();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        synchronized (appendLock) {
+            segment.close();
+        }
+    }
+
+    int pendingCount() {
+        synchronized (appendLock) {
+            return pending.size();
+        }
+    }
+
+    private void replay() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        List<MessageJournalEntry> entries = new ArrayList<>();
+        for (Path path : segments) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(objectMapper.readValue(line, MessageJournalEntry.class));
+                } catch (JsonProcessingException e) {
+                    // only the tail of a segment can be torn by a crash mid-write
+                    log.warn("Skipping unreadable journal line in {}", path.getFileName());
+                }
+            }
+        }
+        if (!entries.isEmpty()) {
+            log.info("Replaying {} journaled message(s) from {} segment(s)", entries.size(), segments.size());
+        }
+        // an unreachable database must not block startup, the scheduled flush keeps retrying
+        unflushed.addAll(entries);
+        sealedSegments.addAll(segments);
+        writeUnflushed();
+    }
+
+    private void writeUnflushed() {
+        if (unflushed.isEmpty()) {
+            deleteSegments(sealedSegments);
+            sealedSegments.clear();
+            return;
+        }
+        try {
+            flushTimer.record(() -> write(unflushed));
+            unflushed.clear();
+            deleteSegments(sealedSegments);
+            sealedSegments.clear();
+        } catch (DataAccessException e) {
+            log.warn("Failed to write {} journaled message(s), will retry: {}", unflushed.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Inserts the entries, falling back to one insert per entry when the database rejects the
+     * batch. Throws when the database could not be reached, all entries are then retried.
+     */
+    private void write(List<MessageJournalEntry> entries) {
+        try {
+            insert(entries);
+            return;
+        } catch (DataAccessException e) {
+            if (!isRejected(e)) {
+                throw e;
+            }
+            log.warn("Batch of {} journaled message(s) was rejected, writing them one by one: {}", entries.size(), e.getMessage());
+        }
+        for (MessageJournalEntry entry : entries) {
+            try {
+                insert(List.of(entry));
+            } catch (DataAccessException e) {
+                if (!isRejected(e)) {
+                    throw e;
+                }
+                deadLetter(entry, e);
+            }
+        }
+    }
+
+    // rejected for what the row holds, as opposed to failing to reach the database
+    private static boolean isRejected(DataAccessException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    private void deadLetter(MessageJournalEntry entry, DataAccessException cause) {
+        deadLettered.increment();
+        byte[] line = toLine(entry);
+        try {
+            Files.write(directory.resolve(DEAD_LETTER_FILE), line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            log.error("Moved message {} of call {} to {}: {}", entry.id(), entry.callId(), DEAD_LETTER_FILE, cause.getMessage());
+        } catch (IOException e) {
+            log.error("Dropped message {}, rejected by the database and not written to {}: {}",
+                    entry.id(), DEAD_LETTER_FILE, new String(line, StandardCharsets.UTF_8).trim(), e);
+        }
+    }
+
+    private void insert(List<MessageJournalEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, batchSize, (statement, entry) -> {
+            statement.setString(1, entry.id());
+            statement.setString(2, entry.content());
+            statement.setString(3, entry.senderId());
+            statement.setString(4, entry.receiverId());
+            statement.setString(5, entry.callId());
+            statement.setTimestamp(6, Timestamp.valueOf(entry.createdAt()));
+            statement.setLong(7, entry.sequence());
+        });
+        if (inserted != null) {
+            inserted.increment(entries.size());
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segmentPath = directory.resolve(String.format("%s%d-%06d%s",
+                SEGMENT_PREFIX, System.currentTimeMillis(), segmentCounter++, SEGMENT_SUFFIX));
+        segment = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void deleteSegments(List<Path> segments) {
+        for (Path path : segments) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // the rows are in the database, a leftover segment is only replayed as no-ops
+                log.warn("Failed to delete journal segment {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private byte[] toLine(MessageJournalEntry entry) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(entry);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize message " + entry.id(), e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package dev.aniketkadam.server.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Sends STOMP notifications off the request thread and, inside a transaction, only
+ * once it has committed. Jackson serialization and broker dispatch therefore no
+ * longer run while a JDBC connection is held, and a rolled back change is never
+ * announced to clients.
+ * <p>
+ * Events are handed to a fixed set of single-threaded lanes chosen by destination,
+ * so messages for one destination keep the order in which they were sent. A sender
+ * facing a full lane waits up to {@code offer-timeout-ms} for room and then drops the
+ * event, it never sends ahead of the events still queued.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.notifications.lanes:4}")
+    private int laneCount;
+    @Value("${application.notifications.lane-capacity:10000}")
+    private int laneCapacity;
+    @Value("${application.notifications.offer-timeout-ms:1000}")
+    private long offerTimeoutMillis;
+
+    private ExecutorService[] lanes;
+    private Counter deferred;
+    private Counter discarded;
+    private Counter dropped;
+    private Timer dispatchTimer;
+
+    @PostConstruct
+    void start() {
+        lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "notification-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(
+                    1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(laneCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    this::waitForLane
+            );
+        }
+        deferred = Counter.builder("notifications.deferred")
+                .description("Notifications held back until their transaction committed")
+                .register(meterRegistry);
+        discarded = Counter.builder("notifications.discarded")
+                .description("Notifications dropped because their transaction rolled back")
+                .register(meterRegistry);
+        dropped = Counter.builder("notifications.dropped")
+                .description("Notifications dropped because their lane stayed full")
+                .register(meterRegistry);
+        dispatchTimer = Timer.builder("notifications.dispatch")
+                .description("Serialization and broker time, spent outside of any transaction")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public void convertAndSend(String destination, Object payload) {
+        Notification notification = new Notification(destination, payload);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(notification);
+            return;
+        }
+        PendingNotifications pending = (PendingNotifications) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingNotifications();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.notifications.add(notification);
+        deferred.increment();
+    }
+
+    private void dispatch(Notification notification) {
+        int lane = Math.floorMod(notification.destination().hashCode(), lanes.length);
+        lanes[lane].execute(() -> dispatchTimer.record(() -> send(notification)));
+    }
+
+    private void waitForLane(Runnable task, ThreadPoolExecutor lane) {
+        // a full queue means the lane thread is running, so queueing directly is safe
+        try {
+            if (!lane.isShutdown() && lane.getQueue().offer(task, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        log.warn("Dropped a notification, its lane stayed full for {} ms", offerTimeoutMillis);
+    }
+
+    private void send(Notification notification) {
+        try {
+            messagingTemplate.convertAndSend(notification.destination(), notification.payload());
+        } catch (RuntimeException e) {
+            log.warn("Failed to send notification to {}: {}", notification.destination(), e.getMessage());
+        }
+    }
+
+    private record Notification(String destination, Object payload) {
+    }
+
+    private class PendingNotifications implements TransactionSynchronization {
+
+        private final List<Notification> notifications = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            notifications.forEach(NotificationDispatcher.this::dispatch);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(NotificationDispatcher.this);
+            if (status != STATUS_COMMITTED) {
+                discarded.increment(notifications.size());
+                log.debug("Discarded {} notification(s) of a rolled back transaction", notifications.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.aniketkadam.server.pagination;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorResponse<T> {
+
+    private List<T> content;
+    private int size;
+    // opaque, pass it back as-is to fetch the next slice; null when hasMore is false,
+    // except for catch-up slices where it marks how far the client has read
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,38 @@
+package dev.aniketkadam.server.pagination;
+
+import dev.aniketkadam.server.exception.OperationNotPermittedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a timestamp ordered list: the (timestamp, id) of the last row the client has seen.
+ * Encoded as an opaque url-safe string so clients don't start depending on its layout.
+ */
+public record KeysetCursor(LocalDateTime timestamp, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) throws OperationNotPermittedException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new OperationNotPermittedException("Invalid cursor.");
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1)
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new OperationNotPermittedException("Invalid cursor.");
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package dev.aniketkadam.server.security;
 
+import dev.aniketkadam.server.user.UserSnapshotCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -23,6 +26,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserSnapshotCache userSnapshotCache;
+
+    @Value("${application.security.principal.mode:CLAIMS}")
+    private PrincipalMode principalMode;
 
     @Override
     protected void doFilterInternal(
@@ -32,18 +39,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         final String jwt;
+        final Claims claims;
         final String email;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         jwt = authHeader.substring(7);
-        email = jwtService.extractEmail(jwt);
+        // parsed and verified once, the claims serve both checks below
+        claims = jwtService.verifiedClaims(jwt);
+        email = claims.getSubject();
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            if (jwtService.isValidToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            String userId = claims.get(JwtService.USER_ID_CLAIM, String.class);
+            // tokens issued before the user id was a claim still go to the database
+            boolean fromClaims = principalMode == PrincipalMode.CLAIMS && userId != null;
+            UserDetails userDetails = fromClaims
+                    ? userSnapshotCache.get(userId)
+                    : userDetailsService.loadUserByUsername(email);
+            if (jwtService.isValidToken(claims, userDetails)) {
+                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        fromClaims ? jwtService.authorities(claims) : userDetails.getAuthorities()
+                );
                 authenticationToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
                 );
@@ -1,31 +1,70 @@
 package dev.aniketkadam.server.security;
 
+import dev.aniketkadam.server.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 public class JwtService {
 
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String AUTHORITIES_CLAIM = "authorities";
+
     @Value("${application.security.jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
     @Value("${application.security.jwt.access-token-expiration}")
     private Long accessTokenExpiration;
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
+    @Value("${application.security.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Claims> claimsCache = new ConcurrentHashMap<>();
+    // decoded once, the parser is immutable and shared by all requests
+    private Key signKey;
+    private JwtParser parser;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(secretKey));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+        cacheHits = meterRegistry.counter("auth.jwt.claims.cache", "result", "hit");
+        cacheMisses = meterRegistry.counter("auth.jwt.claims.cache", "result", "miss");
+        meterRegistry.gaugeMapSize("auth.jwt.claims.cache.size", Tags.empty(), claimsCache);
+    }
 
     public String generateAccessToken(Map<String, Object> claims, UserDetails userDetails) {
         return buildToken(claims, userDetails, accessTokenExpiration);
@@ -44,44 +83,82 @@ public class JwtService {
                 .setSubject(claims.get("email").toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .claim("authorities", authorities)
+                .claim(AUTHORITIES_CLAIM, authorities)
+                .claim(USER_ID_CLAIM, userDetails instanceof User user ? user.getId() : null)
                 .setIssuer("Namaskar.com")
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public boolean isValidToken(String jwtToken, UserDetails userDetails) {
+        return isValidToken(verifiedClaims(jwtToken), userDetails);
     }
 
-    public boolean isValidToken(String jwtToken, UserDetails userDetails) {
-        final String email = extractEmail(jwtToken);
-        return (email.equals(userDetails.getUsername())) && !isTokenExpired(jwtToken);
+    public boolean isValidToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
+    }
+
+    /**
+     * @return the authorities the token was issued with
+     */
+    public List<SimpleGrantedAuthority> authorities(Claims claims) {
+        List<?> authorities = claims.get(AUTHORITIES_CLAIM, List.class);
+        if (authorities == null) {
+            return List.of();
+        }
+        return authorities.stream()
+                .map(authority -> new SimpleGrantedAuthority(authority.toString()))
+                .toList();
     }
 
     public String extractEmail(String jwtToken) {
-        return extractClaims(jwtToken, Claims::getSubject);
+        return verifiedClaims(jwtToken).getSubject();
     }
 
-    private boolean isTokenExpired(String jwtToken) {
-        return extractExpired(jwtToken).before(new Date(System.currentTimeMillis()));
+    /**
+     * Checks the signature and expiry of a token once and returns its claims. Tokens seen before
+     * are answered from a cache keyed by the SHA-256 of the token, until they expire.
+     *
+     * @throws JwtException when the token is malformed, badly signed or expired
+     */
+    public Claims verifiedClaims(String jwtToken) {
+        String key = hash(jwtToken);
+        Claims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                claimsCache.remove(key);
+                throw new ExpiredJwtException(null, cached, "JWT expired at " + cached.getExpiration());
+            }
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+        Claims claims = parser.parseClaimsJws(jwtToken).getBody();
+        if (claimsCache.size() >= claimsCacheSize) {
+            evictExpiredClaims();
+        }
+        // still full: this token is simply parsed again next time
+        if (claimsCache.size() < claimsCacheSize) {
+            claimsCache.put(key, claims);
+        }
+        return claims;
     }
 
-    private Date extractExpired(String jwtToken) {
-        return extractClaims(jwtToken, Claims::getExpiration);
+    @Scheduled(fixedDelayString = "${application.security.jwt.claims-cache-sweep-ms:60000}")
+    void evictExpiredClaims() {
+        claimsCache.values().removeIf(JwtService::isExpired);
     }
 
-    private <T> T extractClaims(String jwtToken, Function<Claims, T> claimResolver) {
-        final Claims claims = extractAllClaims(jwtToken);
-        return claimResolver.apply(claims);
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date(System.currentTimeMillis()));
     }
 
-    private Claims extractAllClaims(String jwtToken) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(jwtToken)
-                .getBody();
+    private static String hash(String jwtToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwtToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -0,0 +1,16 @@
+package dev.aniketkadam.server.security;
+
+/**
+ * Where {@link JwtAuthenticationFilter} gets the principal of a request from.
+ */
+public enum PrincipalMode {
+    /**
+     * Loads the user by the token's email on every request.
+     */
+    DATABASE,
+    /**
+     * Takes identity and authorities from the token claims and the user from
+     * {@link dev.aniketkadam.server.user.UserSnapshotCache}.
+     */
+    CLAIMS
+}
@@ -0,0 +1,156 @@
+package dev.aniketkadam.server.user;
+
+import dev.aniketkadam.server.common.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Source of truth for "is this user on a call". A user is busy while they hold a
+ * claim for a call id; claiming is a single compare-and-set, so two callers racing
+ * for the same receiver cannot both win. Releases take effect once the surrounding
+ * transaction has committed, so a rolled back call keeps its users busy.
+ * <p>
+ * {@code users.is_user_in_call} is only a recovery copy: changed users are marked
+ * dirty and written in bulk by {@link #flush()}, outside the call transitions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceService {
+
+    // claim restored from the database at startup, the call id is not known any more
+    private static final String RECOVERED = "";
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, String> callsByUser = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void recover() {
+        List<String> busyUsers = userRepository.findIdsOfUsersInCall();
+        busyUsers.forEach(userId -> callsByUser.put(userId, RECOVERED));
+        if (!busyUsers.isEmpty()) {
+            log.info("Restored {} busy user(s)", busyUsers.size());
+        }
+        meterRegistry.gaugeMapSize("presence.users.busy", Tags.empty(), callsByUser);
+    }
+
+    public boolean isBusy(String userId) {
+        return callsByUser.containsKey(userId);
+    }
+
+    /**
+     * @return the call the user is held by, empty when they are free or the call id was lost in a restart
+     */
+    public Optional<String> callOf(String userId) {
+        return Optional.ofNullable(callsByUser.get(userId)).filter(callId -> !callId.equals(RECOVERED));
+    }
+
+    /**
+     * Claims the user for the call. The claim is taken right away so racing calls see it, and
+     * a claim taken inside a transaction is given back if that transaction rolls back.
+     *
+     * @return true when the user is now held by the given call, false when another call got there first
+     */
+    public boolean tryClaim(String userId, String callId) {
+        String current = callsByUser.putIfAbsent(userId, callId);
+        if (current == null) {
+            dirty.add(userId);
+            releaseOnRollback(userId, callId);
+            return true;
+        }
+        return current.equals(callId);
+    }
+
+    /**
+     * Frees the user unless they have moved on to another call in the meantime.
+     */
+    public void release(String userId, String callId) {
+        AfterCommit.run(() -> releaseNow(userId, callId));
+    }
+
+    /**
+     * Frees the users whatever call they hold, for users that are gone without ending their call.
+     */
+    public void releaseAll(Collection<String> userIds) {
+        AfterCommit.run(() -> {
+            for (String userId : userIds) {
+                if (callsByUser.remove(userId) != null) {
+                    dirty.add(userId);
+                }
+            }
+        });
+    }
+
+    private void releaseNow(String userId, String callId) {
+        if (callsByUser.remove(userId, callId) || callsByUser.remove(userId, RECOVERED)) {
+            dirty.add(userId);
+        }
+    }
+
+    private void releaseOnRollback(String userId, String callId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // still inside the finished transaction here, so not through release()
+                if (status == STATUS_ROLLED_BACK) {
+                    releaseNow(userId, callId);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${application.presence.flush-ms:2000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> busy = new ArrayList<>();
+        List<String> free = new ArrayList<>();
+        // state is read after the id leaves the dirty set, a change racing with us marks it again
+        for (Iterator<String> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            String userId = iterator.next();
+            iterator.remove();
+            (callsByUser.containsKey(userId) ? busy : free).add(userId);
+        }
+        try {
+            if (!busy.isEmpty()) {
+                userRepository.updateUserInCall(busy, true);
+            }
+            if (!free.isEmpty()) {
+                userRepository.updateUserInCall(free, false);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist presence of {} user(s), will retry: {}", busy.size() + free.size(), e.getMessage());
+            dirty.addAll(busy);
+            dirty.addAll(free);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
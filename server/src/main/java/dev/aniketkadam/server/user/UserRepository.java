@@ -1,10 +1,13 @@
 package dev.aniketkadam.server.user;
 
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +23,20 @@ public interface UserRepository extends JpaRepository<User, String> {
     """, nativeQuery = true)
     List<User> findRandomUser(@Param("size") int limit);
 
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<String> findIdsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.email IN :emails")
+    List<String> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id FROM User u WHERE u.isUserInCall = true")
+    List<String> findIdsOfUsersInCall();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.isUserInCall = :inCall WHERE u.id IN :ids")
+    int updateUserInCall(@Param("ids") Collection<String> ids, @Param("inCall") boolean inCall);
+
         @Query(value = """
                 SELECT * FROM users
                 WHERE full_name ILIKE CONCAT('%', :keyword, '%')
@@ -29,6 +29,7 @@ public class UserService {
     private final ProfileImgRepository profileImgRepository;
     private final UserMapper mapper;
     private final CallRepository callRepository;
+    private final UserSnapshotCache userSnapshotCache;
 
     @Transactional
     public Boolean completeAccount(
@@ -38,8 +39,11 @@ public class UserService {
             Authentication authentication
     ) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
+        // the principal is a detached snapshot, change the managed row instead
+        User user = userRepository.findById(connectedUser.getId())
+                .orElseThrow(() -> new EntityNotFoundException("User is not found with ID: " + connectedUser.getId()));
 
-        if (!connectedUser.isAccountCompleted()) {
+        if (!user.isAccountCompleted()) {
             // stored the profile image
             ProfileImg profileImg = null;
             if (profile != null && !profile.isEmpty()) {
@@ -49,12 +53,13 @@ public class UserService {
                                 .publicId((String) response.get("public_id"))
                         .build());
             }
-            connectedUser.setFullName(fullName);
-            connectedUser.setBirthDate(birthDate);
-            connectedUser.setProfile(profileImg);
+            user.setFullName(fullName);
+            user.setBirthDate(birthDate);
+            user.setProfile(profileImg);
         }
-        connectedUser.setAccountCompleted(true);
-        User savedUser = userRepository.save(connectedUser);
+        user.setAccountCompleted(true);
+        User savedUser = userRepository.save(user);
+        userSnapshotCache.invalidate(savedUser.getId());
         return savedUser.isAccountCompleted();
     }
 
@@ -0,0 +1,98 @@
+package dev.aniketkadam.server.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recently loaded users by id, so authenticated requests get their full {@link User} principal
+ * without a user table lookup each time. Entries live for {@code snapshot-ttl-ms} and the cache
+ * holds at most {@code snapshot-max-size} users. Code that changes a user calls
+ * {@link #invalidate(String)}.
+ * <p>
+ * Every caller gets its own copy of the user, so setting a field on a principal can neither leak
+ * into other requests nor into the snapshot. The copy is shallow: role and profile are shared
+ * and must be treated as read-only.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserSnapshotCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.security.principal.snapshot-ttl-ms:30000}")
+    private long ttlMillis;
+    @Value("${application.security.principal.snapshot-max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = meterRegistry.counter("auth.principal.snapshots", "result", "hit");
+        misses = meterRegistry.counter("auth.principal.snapshots", "result", "miss");
+        meterRegistry.gaugeMapSize("auth.principal.snapshots.size", Tags.empty(), snapshots);
+    }
+
+    public User get(String userId) {
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot != null && snapshot.loadedAt + ttlMillis > now) {
+            hits.increment();
+            return copy(snapshot.user);
+        }
+        misses.increment();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User is not found with ID: " + userId));
+        if (snapshots.size() >= maxSize) {
+            evictExpired();
+        }
+        if (snapshot != null || snapshots.size() < maxSize) {
+            snapshots.put(userId, new Snapshot(copy(user), now));
+        }
+        return user;
+    }
+
+    private static User copy(User user) {
+        return user.toBuilder().build();
+    }
+
+    /**
+     * Drops the snapshot of a user now and, inside a transaction, once more after commit so a
+     * request that reloaded the user in between doesn't keep the old row.
+     */
+    public void invalidate(String userId) {
+        snapshots.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshots.remove(userId);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.principal.snapshot-sweep-ms:60000}")
+    void evictExpired() {
+        long threshold = System.currentTimeMillis() - ttlMillis;
+        snapshots.values().removeIf(snapshot -> snapshot.loadedAt <= threshold);
+    }
+
+    private record Snapshot(User user, long loadedAt) {
+    }
+}
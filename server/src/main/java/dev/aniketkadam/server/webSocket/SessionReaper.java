@@ -0,0 +1,222 @@
+package dev.aniketkadam.server.webSocket;
+
+import dev.aniketkadam.server.meeting.MeetingService;
+import dev.aniketkadam.server.user.PresenceService;
+import dev.aniketkadam.server.user.UserRepository;
+import dev.aniketkadam.server.webrtc.SignalingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cleans up after users whose last STOMP session closed without them leaving: a dead tab never
+ * calls {@code removeFromMeeting} or ends its call.
+ * <p>
+ * Sessions are indexed by user (the principal name, an email) together with the meetings and
+ * calls they subscribed to. When the last session of a user closes, the user is reaped after a
+ * grace period unless a new session connects first. Reaping is batched: one id lookup per cycle,
+ * busy flags go through {@link PresenceService} and room removals through the meeting
+ * write-behind, and at most {@code batch-size} users are reaped per cycle so a node restart is
+ * spread out.
+ * <p>
+ * Calls of a reaped user, those subscribed to and the one their presence claim names, are ended
+ * through {@link SignalingService#dropCall} so the other side is released and told. A call that
+ * could not be ended is retried on the next cycle.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionReaper {
+
+    private static final String MEETING_TOPIC = "/topic/meeting/";
+    // topics carrying a call id right after the prefix, subscribed to while ringing or on the call
+    private static final List<String> CALL_TOPICS = List.of(
+            "/topic/call/accept/", "/topic/call/reject/", "/topic/call/finish/", "/topic/media/");
+
+    private final MeetingService meetingService;
+    private final PresenceService presenceService;
+    private final UserRepository userRepository;
+    private final SignalingService signalingService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.presence.disconnect-grace-ms:10000}")
+    private long graceMillis;
+    @Value("${application.presence.reap-batch-size:200}")
+    private int batchSize;
+
+    private final Map<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, PendingReap> pending = new ConcurrentHashMap<>();
+    // call id -> emails of the reaped users that were on it, until the call is ended
+    private final Map<String, Set<String>> callsToDrop = new ConcurrentHashMap<>();
+    private Counter reaped;
+    private Counter droppedCalls;
+
+    @PostConstruct
+    void registerMetrics() {
+        reaped = meterRegistry.counter("presence.sessions.reaped");
+        droppedCalls = meterRegistry.counter("presence.calls.dropped");
+        meterRegistry.gaugeMapSize("presence.sessions.active", Tags.empty(), sessions);
+        meterRegistry.gaugeMapSize("presence.sessions.pending.reaps", Tags.empty(), pending);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = sessionId(event);
+        if (event.getUser() == null || sessionId == null) {
+            return;
+        }
+        String user = event.getUser().getName();
+        sessions.put(sessionId, new TrackedSession(user));
+        sessionsByUser.compute(user, (key, ids) -> {
+            Set<String> updated = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            updated.add(sessionId);
+            // back within the grace period
+            pending.remove(user);
+            return updated;
+        });
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        TrackedSession session = sessions.get(Objects.requireNonNullElse(sessionId(event), ""));
+        String destination = SimpMessageHeaderAccessor.getDestination(event.getMessage().getHeaders());
+        if (session == null || destination == null) {
+            return;
+        }
+        if (destination.startsWith(MEETING_TOPIC)) {
+            session.meetingCodes.add(segmentAfter(destination, MEETING_TOPIC));
+            return;
+        }
+        for (String prefix : CALL_TOPICS) {
+            if (destination.startsWith(prefix)) {
+                session.callIds.add(segmentAfter(destination, prefix));
+                return;
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        TrackedSession session = sessions.remove(event.getSessionId());
+        if (session == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(session.user, (key, ids) -> {
+            ids.remove(event.getSessionId());
+            if (!ids.isEmpty()) {
+                return ids;
+            }
+            pending.merge(session.user,
+                    new PendingReap(System.currentTimeMillis() + graceMillis,
+                            new HashSet<>(session.meetingCodes), new HashSet<>(session.callIds)),
+                    (previous, next) -> {
+                        next.meetingCodes.addAll(previous.meetingCodes);
+                        next.callIds.addAll(previous.callIds);
+                        return next;
+                    });
+            return null;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${application.presence.reap-ms:1000}")
+    public void reap() {
+        long now = System.currentTimeMillis();
+        Map<String, PendingReap> due = new HashMap<>();
+        for (Iterator<Map.Entry<String, PendingReap>> iterator = pending.entrySet().iterator();
+             iterator.hasNext() && due.size() < batchSize; ) {
+            Map.Entry<String, PendingReap> entry = iterator.next();
+            if (entry.getValue().deadline <= now && pending.remove(entry.getKey(), entry.getValue())) {
+                due.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!due.isEmpty()) {
+            reapUsers(due, now);
+        }
+        dropCalls();
+    }
+
+    private void reapUsers(Map<String, PendingReap> due, long now) {
+        Map<String, List<String>> usersByMeeting = new HashMap<>();
+        due.forEach((user, reap) -> {
+            reap.meetingCodes.forEach(code -> usersByMeeting.computeIfAbsent(code, key -> new ArrayList<>()).add(user));
+            reap.callIds.forEach(callId -> callsToDrop.computeIfAbsent(callId, key -> new HashSet<>()).add(user));
+        });
+        usersByMeeting.forEach(meetingService::removeDisconnected);
+        try {
+            List<String> userIds = userRepository.findIdsByEmailIn(due.keySet());
+            // the claim names the call even when the user never reached a call screen
+            userIds.forEach(userId -> presenceService.callOf(userId).ifPresent(callId ->
+                    callsToDrop.computeIfAbsent(callId, key -> new HashSet<>()).addAll(due.keySet())));
+            presenceService.releaseAll(userIds);
+        } catch (RuntimeException e) {
+            // the rooms are already cleaned, retry only the busy flags
+            log.warn("Failed to free busy state of {} disconnected user(s), will retry: {}", due.size(), e.getMessage());
+            due.keySet().forEach(user -> pending.putIfAbsent(user, new PendingReap(now, new HashSet<>(), new HashSet<>())));
+        }
+        reaped.increment(due.size());
+        log.debug("Reaped {} disconnected user(s) from {} meeting(s)", due.size(), usersByMeeting.size());
+    }
+
+    private void dropCalls() {
+        for (Iterator<Map.Entry<String, Set<String>>> iterator = callsToDrop.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Set<String>> entry = iterator.next();
+            try {
+                if (signalingService.dropCall(entry.getKey(), entry.getValue())) {
+                    droppedCalls.increment();
+                }
+                iterator.remove();
+            } catch (EntityNotFoundException e) {
+                iterator.remove();
+            } catch (RuntimeException e) {
+                log.warn("Failed to end call {} of disconnected user(s), will retry: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private static String segmentAfter(String destination, String prefix) {
+        int end = destination.indexOf('/', prefix.length());
+        return end < 0 ? destination.substring(prefix.length()) : destination.substring(prefix.length(), end);
+    }
+
+    private static String sessionId(AbstractSubProtocolEvent event) {
+        return SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    }
+
+    private static class TrackedSession {
+
+        private final String user;
+        private final Set<String> meetingCodes = ConcurrentHashMap.newKeySet();
+        private final Set<String> callIds = ConcurrentHashMap.newKeySet();
+
+        private TrackedSession(String user) {
+            this.user = user;
+        }
+    }
+
+    private record PendingReap(long deadline, Set<String> meetingCodes, Set<String> callIds) {
+    }
+}
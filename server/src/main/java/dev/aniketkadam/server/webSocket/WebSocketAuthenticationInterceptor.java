@@ -1,10 +1,8 @@
 package dev.aniketkadam.server.webSocket;
 
+import dev.aniketkadam.server.security.JwtService;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.messaging.Message;
@@ -14,13 +12,11 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.security.Key;
-
 @Component
+@RequiredArgsConstructor
 public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    private final JwtService jwtService;
 
     @Override
     public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
@@ -34,11 +30,7 @@ public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
                 token = token.substring(7);
 
                 try {
-                    Claims claims = Jwts.parserBuilder()
-                            .setSigningKey(getSignKey())
-                            .build()
-                            .parseClaimsJws(token)
-                            .getBody();
+                    Claims claims = jwtService.verifiedClaims(token);
 
                     String username = claims.getSubject();
                     accessor.setUser(() -> username);
@@ -52,9 +44,4 @@ public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
         }
         return message;
     }
-
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
@@ -0,0 +1,193 @@
+package dev.aniketkadam.server.webrtc;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Gathers trickle ICE candidates per (callId, recipient) and delivers them as one
+ * frame once the window elapses or the batch is full. Offers and answers are never
+ * delayed: they first flush whatever candidates are pending for the same pair so
+ * the recipient still sees the packets in order.
+ * <p>
+ * A batch is sent while its monitor is held and leaves {@code pending} only once it is out, so
+ * an offer or answer racing the window flush waits for that send instead of overtaking it.
+ * <p>
+ * A batch of two or more candidates is sent as
+ * {@code {"type":"candidates","callId":..,"to":..,"packets":[<original packets>]}}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SignalCoalescer {
+
+    private static final String CANDIDATE = "candidate";
+    private static final byte[] BATCH_TYPE = "{\"type\":\"candidates\",\"callId\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_TO = "\",\"to\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_PACKETS = "\",\"packets\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BATCH_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Getter
+    @Value("${application.signaling.coalescing.enabled:false}")
+    private boolean enabled;
+    @Value("${application.signaling.coalescing.window-ms:15}")
+    private long windowMillis;
+    @Value("${application.signaling.coalescing.max-candidates:16}")
+    private int maxCandidates;
+
+    private final Map<String, PendingCandidates> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "signal-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Counter candidatesReceived;
+    private Counter framesSent;
+
+    @PostConstruct
+    void registerMetrics() {
+        candidatesReceived = meterRegistry.counter("signaling.candidates.received");
+        framesSent = meterRegistry.counter("signaling.candidates.frames");
+        FunctionCounter.builder("signaling.candidates.frames.saved", this, SignalCoalescer::getFramesSaved)
+                .description("Candidate frames avoided by coalescing")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public double getFramesSaved() {
+        return candidatesReceived.count() - framesSent.count();
+    }
+
+    /**
+     * @return true when the packet was taken into a batch, false when the caller
+     * has to send it right away (coalescing disabled, offer or answer)
+     */
+    public boolean offer(SignalRoute route, byte[] payload) {
+        if (!enabled || route.getCallId() == null) {
+            return false;
+        }
+        String key = route.getCallId() + "|" + route.getTo();
+        if (!CANDIDATE.equals(route.getType())) {
+            flush(key);
+            return false;
+        }
+        candidatesReceived.increment();
+        while (true) {
+            PendingCandidates batch = pending.computeIfAbsent(key, k -> new PendingCandidates(route));
+            synchronized (batch) {
+                if (batch.closed) {
+                    continue; // flushed concurrently, start a new batch
+                }
+                batch.packets.add(payload);
+                if (batch.packets.size() >= maxCandidates) {
+                    closeAndSend(key, batch);
+                } else if (batch.packets.size() == 1) {
+                    batch.flushTask = scheduler.schedule(() -> flush(key, batch), windowMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+            return true;
+        }
+    }
+
+    private void flush(String key) {
+        PendingCandidates batch = pending.get(key);
+        if (batch != null) {
+            flush(key, batch);
+        }
+    }
+
+    private void flush(String key, PendingCandidates batch) {
+        synchronized (batch) {
+            // closed means another thread already sent it, the monitor made us wait for that
+            if (!batch.closed) {
+                closeAndSend(key, batch);
+            }
+        }
+    }
+
+    // called with the batch monitor held
+    private void closeAndSend(String key, PendingCandidates batch) {
+        batch.closed = true;
+        if (batch.flushTask != null) {
+            batch.flushTask.cancel(false);
+        }
+        try {
+            send(batch, batch.packets);
+        } finally {
+            pending.remove(key, batch);
+        }
+    }
+
+    private void send(PendingCandidates batch, List<byte[]> packets) {
+        if (packets.isEmpty()) {
+            return;
+        }
+        byte[] frame = packets.size() == 1 ? packets.get(0) : batchFrame(batch, packets);
+        framesSent.increment();
+        messagingTemplate.send(SignalRelay.CONNECTION_DESTINATION + batch.to, SignalRelay.jsonMessage(frame));
+        log.debug("Delivered {} candidate(s) for call {} in one frame", packets.size(), batch.callId);
+    }
+
+    private static byte[] batchFrame(PendingCandidates batch, List<byte[]> packets) {
+        int size = BATCH_TYPE.length + BATCH_TO.length + BATCH_PACKETS.length + BATCH_END.length
+                + batch.quotedCallId.length + batch.quotedTo.length + packets.size();
+        for (byte[] packet : packets) {
+            size += packet.length;
+        }
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(size);
+        frame.writeBytes(BATCH_TYPE);
+        frame.writeBytes(batch.quotedCallId);
+        frame.writeBytes(BATCH_TO);
+        frame.writeBytes(batch.quotedTo);
+        frame.writeBytes(BATCH_PACKETS);
+        for (int i = 0; i < packets.size(); i++) {
+            if (i > 0) {
+                frame.write(',');
+            }
+            frame.writeBytes(packets.get(i));
+        }
+        frame.writeBytes(BATCH_END);
+        return frame.toByteArray();
+    }
+
+    private static class PendingCandidates {
+
+        private final String callId;
+        private final String to;
+        private final byte[] quotedCallId;
+        private final byte[] quotedTo;
+        private final List<byte[]> packets = new ArrayList<>();
+        private ScheduledFuture<?> flushTask;
+        private boolean closed;
+
+        private PendingCandidates(SignalRoute route) {
+            this.callId = route.getCallId();
+            this.to = route.getTo();
+            this.quotedCallId = JsonStringEncoder.getInstance().quoteAsUTF8(route.getCallId());
+            this.quotedTo = JsonStringEncoder.getInstance().quoteAsUTF8(route.getTo());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dev.aniketkadam.server.webrtc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SignalRelay {
+
+    static final String CONNECTION_DESTINATION = "/topic/webrtc/connection/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final SignalCoalescer signalCoalescer;
+
+    @Value("${application.signaling.relay.pass-through:true}")
+    private boolean passThrough;
+
+    public void relay(byte[] payload) {
+        try {
+            if (passThrough) {
+                relayRaw(payload);
+            } else {
+                relayPacket(payload);
+            }
+        } catch (IOException e) {
+            log.warn("Dropping malformed signal packet: {}", e.getMessage());
+        }
+    }
+
+    // forwards the original bytes, only the routing header is parsed
+    private void relayRaw(byte[] payload) throws IOException {
+        SignalRoute route = SignalRoute.read(objectMapper.getFactory(), payload);
+        if (route == null || route.getTo() == null) {
+            log.warn("Dropping signal packet without a recipient");
+            return;
+        }
+        if (signalCoalescer.offer(route, payload)) {
+            return;
+        }
+        messagingTemplate.send(CONNECTION_DESTINATION + route.getTo(), jsonMessage(payload));
+    }
+
+    // previous behaviour: full deserialization and re-serialization of the packet
+    private void relayPacket(byte[] payload) throws IOException {
+        SignalPacket packet = objectMapper.readValue(payload, SignalPacket.class);
+        if (packet.getTo() == null) {
+            log.warn("Dropping signal packet without a recipient");
+            return;
+        }
+        messagingTemplate.convertAndSend(CONNECTION_DESTINATION + packet.getTo(), packet);
+    }
+
+    static Message<byte[]> jsonMessage(byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,48 @@
+package dev.aniketkadam.server.webrtc;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.*;
+
+import java.io.IOException;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SignalRoute {
+
+    private String to;
+    private String callId;
+    private String type; // "offer", "answer", "candidate"
+
+    /**
+     * Reads only the routing fields of a raw {@link SignalPacket} JSON payload.
+     * Every other value (sdp, candidate) is skipped by the streaming parser
+     * without being decoded, and parsing stops as soon as the header is complete.
+     */
+    public static SignalRoute read(JsonFactory jsonFactory, byte[] payload) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            SignalRoute route = new SignalRoute();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "to" -> route.setTo(parser.getValueAsString());
+                    case "callId" -> route.setCallId(parser.getValueAsString());
+                    case "type" -> route.setType(parser.getValueAsString());
+                    default -> parser.skipChildren();
+                }
+                if (route.getTo() != null && route.getCallId() != null && route.getType() != null) {
+                    break;
+                }
+            }
+            return route;
+        }
+    }
+}
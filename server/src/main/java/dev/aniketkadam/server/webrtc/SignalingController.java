@@ -52,7 +52,7 @@ public class SignalingController {
     public void acceptCall(
             @PathVariable("call-id") String callId,
             Authentication authentication
-    ) {
+    ) throws OperationNotPermittedException {
         service.callAccept(callId, authentication);
     }
 
@@ -2,38 +2,46 @@ package dev.aniketkadam.server.webrtc;
 
 import dev.aniketkadam.server.call.*;
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.user.PresenceService;
 import dev.aniketkadam.server.user.User;
 import dev.aniketkadam.server.user.UserMapper;
 import dev.aniketkadam.server.user.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Collection;
 
 @Service
 @RequiredArgsConstructor
 public class SignalingService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher notificationDispatcher;
     private final UserRepository userRepository;
     private final CallRepository callRepository;
     private final UserMapper userMapper;
+    private final CallSessionRegistry callSessionRegistry;
+    private final CallTransitionService callTransitionService;
+    private final PresenceService presenceService;
+    private final ReactionAggregator reactionAggregator;
 
-    @Transactional
+    @Transactional(rollbackOn = OperationNotPermittedException.class)
     public CallResponse initiateCall(CallInitiationRequest request, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
         // check only connected user send the call request
         if (!connectedUser.getEmail().equals(request.getFrom())) {
             throw new OperationNotPermittedException("You are not authorized to perform this action on behalf of another user.");
         }
+        if (presenceService.isBusy(connectedUser.getId())) {
+            throw new OperationNotPermittedException("You are already on another call.");
+        }
         User receiver = userRepository.findByEmail(request.getTo())
                 .orElseThrow(() -> new EntityNotFoundException("User not found with email: " + request.getTo()));
-        if (receiver.isUserInCall()) {
+        if (presenceService.isBusy(receiver.getId())) {
             throw new OperationNotPermittedException("User is currently busy on another call.");
         }
         // create call
@@ -45,8 +53,18 @@ public class SignalingService {
                 .startedAt(LocalDateTime.now())
                 .build();
         Call savedCall = callRepository.save(call);
+        // the checks above are only a fast path, two calls can get here for the same user;
+        // a failed claim rolls back and that gives back any claim already taken
+        if (!presenceService.tryClaim(receiver.getId(), savedCall.getId())) {
+            throw new OperationNotPermittedException("User is currently busy on another call.");
+        }
+        // caller make busy
+        if (!presenceService.tryClaim(connectedUser.getId(), savedCall.getId())) {
+            throw new OperationNotPermittedException("You are already on another call.");
+        }
+        callSessionRegistry.register(savedCall);
         // send notification to receiver using websocket
-        messagingTemplate.convertAndSend("/topic/incoming/call/" + receiver.getEmail(), CallResponse.builder()
+        notificationDispatcher.convertAndSend("/topic/incoming/call/" + receiver.getEmail(), CallResponse.builder()
                         .id(savedCall.getId())
                         .callerId(savedCall.getCaller().getId())
                         .receiverId(savedCall.getReceiver().getId())
@@ -55,9 +73,6 @@ public class SignalingService {
                         .mode(savedCall.getMode())
                         .startedAt(savedCall.getStartedAt())
                 .build());
-        // caller make busy
-        connectedUser.setUserInCall(true);
-        userRepository.save(connectedUser);
         return CallResponse.builder()
                 .id(savedCall.getId())
                 .callerId(savedCall.getCaller().getId())
@@ -69,7 +84,7 @@ public class SignalingService {
                 .build();
     }
 
-    @Transactional
+    @Transactional(rollbackOn = OperationNotPermittedException.class)
     public void callRinging(CallRingingRequest request, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
         Call call = callRepository.findById(request.getCallId())
@@ -80,34 +95,30 @@ public class SignalingService {
         }
         User caller = userRepository.findById(request.getCallerId())
                 .orElseThrow(() -> new EntityNotFoundException("Caller is not found with caller Id: " + request.getCallerId()));
-        connectedUser.setUserInCall(true);
-        userRepository.save(connectedUser);
+        if (!presenceService.tryClaim(connectedUser.getId(), call.getId())) {
+            throw new OperationNotPermittedException("You are already on another call.");
+        }
         // send ringing notification to caller using websocket
         request.setMode(call.getMode());
-        messagingTemplate.convertAndSend("/topic/call/ringing/" + caller.getEmail(), request);
+        notificationDispatcher.convertAndSend("/topic/call/ringing/" + caller.getEmail(), request);
     }
 
     @Transactional
     public void callReject(String callId, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
 
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call is not found with Id: " + callId));
-        if (!call.getReceiver().getId().equals(connectedUser.getId())) {
+        CallSession session = callSessionRegistry.resolve(callId);
+        if (!session.getReceiver().getId().equals(connectedUser.getId())) {
             throw new OperationNotPermittedException("Only receiver can reject the call.");
         }
+        if (!callTransitionService.apply(callId, CallTransition.REJECT)) {
+            throw new OperationNotPermittedException("This call can no longer be rejected.");
+        }
+        presenceService.release(session.getCaller().getId(), callId);
+        presenceService.release(connectedUser.getId(), callId);
 
-        User caller = call.getCaller();
-        caller.setUserInCall(false);
-        connectedUser.setUserInCall(false);
-        call.setStatus(CallStatus.REJECTED);
-
-        callRepository.save(call);
-        userRepository.save(caller);
-        userRepository.save(connectedUser);
-
-        messagingTemplate.convertAndSend(
-                "/topic/call/reject/" + call.getId() + "/" + call.getCaller().getEmail(),
+        notificationDispatcher.convertAndSend(
+                "/topic/call/reject/" + session.getCallId() + "/" + session.getCaller().getEmail(),
                 "Call has been rejected by the " + connectedUser.getFullName() + "."
         );
     }
@@ -115,65 +126,50 @@ public class SignalingService {
     @Transactional
     public void callEnd(String callId, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call is not found with Id: " + callId));
+        CallSession session = callSessionRegistry.resolve(callId);
         // only caller can end the call
-        if (!connectedUser.getId().equals(call.getCaller().getId())) {
+        if (!connectedUser.getId().equals(session.getCaller().getId())) {
             throw new OperationNotPermittedException("Only caller can end the call.");
         }
-        if (call.getStatus().equals(CallStatus.ENDED)) {
+        if (!callTransitionService.apply(callId, CallTransition.END)) {
             throw new OperationNotPermittedException("This call has already ended.");
         }
-        call.setStatus(CallStatus.ENDED);
-        Call savedCall = callRepository.save(call);
-
-        User caller = call.getCaller();
-        User receiver = call.getReceiver();
-
-        caller.setUserInCall(false);
-        receiver.setUserInCall(false);
-        userRepository.save(caller);
-        userRepository.save(receiver);
+        presenceService.release(session.getCaller().getId(), callId);
+        presenceService.release(session.getReceiver().getId(), callId);
 
-        messagingTemplate.convertAndSend(
-                "/topic/call/end/" + call.getReceiver().getEmail(),
-                CallResponse.builder()
-                        .id(savedCall.getId())
-                        .callerId(savedCall.getCaller().getId())
-                        .receiverId(savedCall.getReceiver().getId())
-                        .status(savedCall.getStatus())
-                        .mode(savedCall.getMode())
-                        .build()
-        );
+        notificationDispatcher.convertAndSend("/topic/call/end/" + session.getReceiver().getEmail(), endedResponse(session));
     }
 
-    @Transactional
-    public void callAccept(String callId, Authentication authentication) {
+    @Transactional(rollbackOn = OperationNotPermittedException.class)
+    public void callAccept(String callId, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call is not found with Id: " + callId));
-        if (!connectedUser.getEmail().equals(call.getReceiver().getEmail())) {
+        CallSession session = callSessionRegistry.resolve(callId);
+        if (!connectedUser.getEmail().equals(session.getReceiver().getEmail())) {
             throw new EntityNotFoundException("Only call receiver can accept the call.");
         }
-        call.setStatus(CallStatus.ACCEPTED);
-        callRepository.save(call);
+        // already held since the ringing signal, unless that never arrived
+        if (!presenceService.tryClaim(connectedUser.getId(), callId)) {
+            throw new OperationNotPermittedException("You are already on another call.");
+        }
+        if (!callTransitionService.apply(callId, CallTransition.ACCEPT)) {
+            throw new OperationNotPermittedException("This call can no longer be accepted.");
+        }
 
-        messagingTemplate.convertAndSend(
-                "/topic/call/accept/" + call.getId() + "/" + call.getCaller().getEmail(),
+        notificationDispatcher.convertAndSend(
+                "/topic/call/accept/" + session.getCallId() + "/" + session.getCaller().getEmail(),
                 "Call has been accepted by the " + connectedUser.getFullName() + "."
         );
     }
 
     public void receiverReady(String callId, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call is not found with Id: " + callId));
-        if (!call.getReceiver().getEmail().equals(connectedUser.getEmail())) {
+        CallSession session = callSessionRegistry.resolve(callId);
+        if (!session.getReceiver().getEmail().equals(connectedUser.getEmail())) {
             throw new OperationNotPermittedException("Only receiver can send ready state.");
         }
-        messagingTemplate.convertAndSend(
-                "/topic/call/" + call.getId() + "/ready/" + call.getCaller().getEmail(),
-                call.getReceiver().getEmail()
+        notificationDispatcher.convertAndSend(
+                "/topic/call/" + session.getCallId() + "/ready/" + session.getCaller().getEmail(),
+                session.getReceiver().getEmail()
         );
     }
 
@@ -181,60 +177,91 @@ public class SignalingService {
     public void finishCall(String callId, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
 
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call not found with ID: " + callId));
+        CallSession session = callSessionRegistry.resolve(callId);
 
-        String userEmail = connectedUser.getEmail();
-        boolean isCaller = call.getCaller().getEmail().equals(userEmail);
-        boolean isReceiver = call.getReceiver().getEmail().equals(userEmail);
-
-        if (!isCaller && !isReceiver) {
+        if (!session.isParticipant(connectedUser.getEmail())) {
             throw new OperationNotPermittedException("Only the caller or receiver can finish the call.");
         }
 
         // Update call status
-        call.setStatus(CallStatus.FINISH);
-        callRepository.save(call);
+        if (!callTransitionService.apply(callId, CallTransition.FINISH)) {
+            throw new OperationNotPermittedException("This call has already been finished.");
+        }
 
         // Update both users
-        User caller = call.getCaller();
-        User receiver = call.getReceiver();
-        caller.setUserInCall(false);
-        receiver.setUserInCall(false);
-
-        userRepository.saveAll(List.of(caller, receiver));
+        presenceService.release(session.getCaller().getId(), callId);
+        presenceService.release(session.getReceiver().getId(), callId);
 
         // Target user (other side)
-        User targetUser = isCaller ? receiver : caller;
+        CallSession.Party targetUser = session.counterpart(connectedUser.getEmail());
 
         // Notify only the other user
-        messagingTemplate.convertAndSend(
-                "/topic/call/finish/" + call.getId() + "/" + targetUser.getEmail(),
+        notificationDispatcher.convertAndSend(
+                "/topic/call/finish/" + session.getCallId() + "/" + targetUser.getEmail(),
                 "Call has been finished by " + connectedUser.getFullName() + "."
         );
     }
 
-    public void toggleCamera(String callId, String action, Authentication authentication) throws OperationNotPermittedException {
-        User connectedUser = (User) authentication.getPrincipal();
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call is not found with ID: " + callId));
+    /**
+     * Ends a call one of whose participants is gone without ending it, as found by the session
+     * reaper. A call still ringing ends, an accepted one finishes, both sides are released and the
+     * one left behind is told on the topic its current screen listens to.
+     *
+     * @param goneEmails emails of the users whose connections are gone
+     * @return true when the call was ended here, false when it had already moved on
+     */
+    @Transactional
+    public boolean dropCall(String callId, Collection<String> goneEmails) {
+        CallSession session = callSessionRegistry.resolve(callId);
+        CallSession.Party gone = goneEmails.contains(session.getCaller().getEmail()) ? session.getCaller()
+                : goneEmails.contains(session.getReceiver().getEmail()) ? session.getReceiver()
+                : null;
+        if (gone == null) {
+            return false;
+        }
+        boolean ringing = session.getStatus() == CallStatus.RINGING;
+        if (!callTransitionService.apply(callId, ringing ? CallTransition.END : CallTransition.FINISH)) {
+            return false;
+        }
+        presenceService.release(session.getCaller().getId(), callId);
+        presenceService.release(session.getReceiver().getId(), callId);
+
+        CallSession.Party peer = session.counterpart(gone.getEmail());
+        if (!ringing) {
+            notificationDispatcher.convertAndSend(
+                    "/topic/call/finish/" + callId + "/" + peer.getEmail(),
+                    "Call has been finished by " + gone.getFullName() + "."
+            );
+        } else if (peer == session.getReceiver()) {
+            notificationDispatcher.convertAndSend("/topic/call/end/" + peer.getEmail(), endedResponse(session));
+        } else {
+            notificationDispatcher.convertAndSend(
+                    "/topic/call/reject/" + callId + "/" + peer.getEmail(),
+                    "Call could not reach " + gone.getFullName() + "."
+            );
+        }
+        return true;
+    }
 
-        String userEmail = connectedUser.getEmail();
-        boolean isCaller = call.getCaller().getEmail().equals(userEmail);
-        boolean isReceiver = call.getReceiver().getEmail().equals(userEmail);
+    private static CallResponse endedResponse(CallSession session) {
+        return CallResponse.builder()
+                .id(session.getCallId())
+                .callerId(session.getCaller().getId())
+                .receiverId(session.getReceiver().getId())
+                .status(CallStatus.ENDED)
+                .mode(session.getMode())
+                .build();
+    }
 
-        if (!isCaller && !isReceiver) {
-            throw new OperationNotPermittedException("Only the caller or receiver send notification.");
-        }
+    public void toggleCamera(String callId, String action, Authentication authentication) throws OperationNotPermittedException {
+        User connectedUser = (User) authentication.getPrincipal();
+        CallSession session = callSessionRegistry.resolve(callId);
+        CallSession.Party targetUser = counterpart(session, connectedUser, "Only the caller or receiver send notification.");
 
         boolean isCameraOn = action.equalsIgnoreCase("on");
 
-        User targetUser = call.getCaller().getEmail().equals(connectedUser.getEmail())
-                ? call.getReceiver()
-                : call.getCaller();
-
-        messagingTemplate.convertAndSend(
-                "/topic/media/" + call.getId() + "/" + targetUser.getEmail(),
+        notificationDispatcher.convertAndSend(
+                "/topic/media/" + session.getCallId() + "/" + targetUser.getEmail(),
                 MediaToggle.builder()
                         .mediaType("CAMERA")
                         .isOn(isCameraOn)
@@ -244,25 +271,13 @@ public class SignalingService {
 
     public void toggleMic(String callId, String action, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call is not found with ID: " + callId));
-
-        String userEmail = connectedUser.getEmail();
-        boolean isCaller = call.getCaller().getEmail().equals(userEmail);
-        boolean isReceiver = call.getReceiver().getEmail().equals(userEmail);
-
-        if (!isCaller && !isReceiver) {
-            throw new OperationNotPermittedException("Only the caller or receiver send notification.");
-        }
+        CallSession session = callSessionRegistry.resolve(callId);
+        CallSession.Party targetUser = counterpart(session, connectedUser, "Only the caller or receiver send notification.");
 
         boolean isMicOn = action.equalsIgnoreCase("on");
 
-        User targetUser = call.getCaller().getEmail().equals(connectedUser.getEmail())
-                ? call.getReceiver()
-                : call.getCaller();
-
-        messagingTemplate.convertAndSend(
-                "/topic/media/" + call.getId() + "/" + targetUser.getEmail(),
+        notificationDispatcher.convertAndSend(
+                "/topic/media/" + session.getCallId() + "/" + targetUser.getEmail(),
                 MediaToggle.builder()
                         .mediaType("MIC")
                         .isOn(isMicOn)
@@ -272,54 +287,36 @@ public class SignalingService {
 
     public void sendReaction(String callId, String emoji, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call is not found with ID: " + callId));
-
-        String userEmail = connectedUser.getEmail();
-        boolean isCaller = call.getCaller().getEmail().equals(userEmail);
-        boolean isReceiver = call.getReceiver().getEmail().equals(userEmail);
-
-        if (!isCaller && !isReceiver) {
-            throw new OperationNotPermittedException("Only the caller or receiver send reaction.");
-        }
-
-        User targetUser = call.getCaller().getEmail().equals(connectedUser.getEmail())
-                ? call.getReceiver()
-                : call.getCaller();
-        String name = targetUser.getFullName().split(" ")[0];
-
-        messagingTemplate.convertAndSend(
-                "/topic/reaction/" + call.getId() + "/" + targetUser.getEmail(),
-                ReactionResponse.builder()
-                        .emoji(emoji)
-                        .name(name)
-                        .build()
+        CallSession session = callSessionRegistry.resolve(callId);
+        CallSession.Party targetUser = counterpart(session, connectedUser, "Only the caller or receiver send reaction.");
+        String name = connectedUser.getFullName().split(" ")[0];
+
+        reactionAggregator.react(
+                "/topic/reaction/" + session.getCallId() + "/" + targetUser.getEmail(),
+                connectedUser.getId(),
+                name,
+                emoji
         );
     }
 
     public void sendHandRaisedOrDown(String callId, HandAction action, Authentication authentication) throws OperationNotPermittedException {
         User connectedUser = (User) authentication.getPrincipal();
-        Call call = callRepository.findById(callId)
-                .orElseThrow(() -> new EntityNotFoundException("Call is not found with ID: " + callId));
+        CallSession session = callSessionRegistry.resolve(callId);
+        CallSession.Party targetUser = counterpart(session, connectedUser, "Only the caller or receiver send reaction.");
 
-        String userEmail = connectedUser.getEmail();
-        boolean isCaller = call.getCaller().getEmail().equals(userEmail);
-        boolean isReceiver = call.getReceiver().getEmail().equals(userEmail);
-
-        if (!isCaller && !isReceiver) {
-            throw new OperationNotPermittedException("Only the caller or receiver send reaction.");
-        }
-
-        User targetUser = call.getCaller().getEmail().equals(connectedUser.getEmail())
-                ? call.getReceiver()
-                : call.getCaller();
-
-        messagingTemplate.convertAndSend(
-                "/topic/hand/action/" + call.getId() + "/" + targetUser.getEmail(),
+        notificationDispatcher.convertAndSend(
+                "/topic/hand/action/" + session.getCallId() + "/" + targetUser.getEmail(),
                 HandActionResponse.builder()
                         .action(action)
                         .sender(userMapper.toUserResponse(connectedUser))
                         .build()
         );
     }
+
+    private CallSession.Party counterpart(CallSession session, User connectedUser, String errorMessage) throws OperationNotPermittedException {
+        if (!session.isParticipant(connectedUser.getEmail())) {
+            throw new OperationNotPermittedException(errorMessage);
+        }
+        return session.counterpart(connectedUser.getEmail());
+    }
 }
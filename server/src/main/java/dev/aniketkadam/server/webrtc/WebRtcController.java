@@ -2,17 +2,17 @@ package dev.aniketkadam.server.webrtc;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Controller;
 
 @Controller
 @RequiredArgsConstructor
 public class WebRtcController {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final SignalRelay signalRelay;
 
     @MessageMapping("/webrtc")
-    public void handleSignal(SignalPacket packet) {
-        messagingTemplate.convertAndSend("/topic/webrtc/connection/" + packet.getTo(), packet);
+    public void handleSignal(@Payload byte[] payload) {
+        signalRelay.relay(payload);
     }
 }
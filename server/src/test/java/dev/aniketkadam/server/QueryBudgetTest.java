@@ -0,0 +1,234 @@
+package dev.aniketkadam.server;
+
+import dev.aniketkadam.server.call.*;
+import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.meeting.*;
+import dev.aniketkadam.server.message.*;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.profileImg.ProfileImg;
+import dev.aniketkadam.server.profileImg.ProfileImgRepository;
+import dev.aniketkadam.server.user.*;
+import dev.aniketkadam.server.webrtc.CallMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the read endpoints to a fixed number of SQL statements, however many rows they return.
+ */
+@Testcontainers
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CallService.class, CallMapper.class, MessageService.class, MessageMapper.class,
+        MeetingService.class, MeetingMapper.class, MeetingRoomRegistry.class, MeetingCodeFilter.class, ActiveSpeakerDetector.class, RosterCoalescer.class, WaitingRoomNotifier.class, UserMapper.class,
+        QueryBudgetTest.MetricsConfig.class})
+@DisplayName("Query Budget Tests")
+class QueryBudgetTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:11-alpine");
+
+    @MockitoBean
+    private NotificationDispatcher notificationDispatcher;
+    @MockitoBean
+    private CallSessionRegistry callSessionRegistry;
+    @MockitoBean
+    private MessageWriteBehind messageWriteBehind;
+    @MockitoBean
+    private MeetingRoomWriter meetingRoomWriter;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProfileImgRepository profileImgRepository;
+    @Autowired
+    private CallRepository callRepository;
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private MeetingRepository meetingRepository;
+    @Autowired
+    private MeetingParticipantRepository participantRepository;
+
+    @Autowired
+    private CallService callService;
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private MeetingService meetingService;
+
+    private User owner;
+    private Call firstCall;
+    private String meetingCode;
+
+    @BeforeEach
+    void setup() {
+        Role role = roleRepository.save(Role.builder().name(RoleName.USER).build());
+        owner = saveUser(role, "owner@test.com");
+        List<User> others = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            others.add(saveUser(role, "user" + i + "@test.com"));
+        }
+
+        for (int i = 0; i < others.size(); i++) {
+            boolean outgoing = i % 2 == 0;
+            Call call = callRepository.save(Call.builder()
+                    .caller(outgoing ? owner : others.get(i))
+                    .receiver(outgoing ? others.get(i) : owner)
+                    .status(CallStatus.FINISH)
+                    .mode(CallMode.VIDEO)
+                    .startedAt(LocalDateTime.now().minusHours(i + 1))
+                    .endedAt(LocalDateTime.now().minusHours(i))
+                    .build());
+            if (firstCall == null) {
+                firstCall = call;
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            messageRepository.save(Message.builder()
+                    .content("message " + i)
+                    .call(firstCall)
+                    .sender(i % 2 == 0 ? owner : others.getFirst())
+                    .receiver(i % 2 == 0 ? others.getFirst() : owner)
+                    .createdAt(LocalDateTime.now().minusMinutes(10 - i))
+                    .build());
+        }
+
+        Meeting meeting = meetingRepository.save(Meeting.builder()
+                .meetingCode("abc-defg-hij")
+                .createdBy(owner)
+                .createdAt(LocalDateTime.now())
+                .build());
+        meetingCode = meeting.getMeetingCode();
+        participantRepository.save(participant(meeting, owner));
+        others.forEach(user -> participantRepository.save(participant(meeting, user)));
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    @DisplayName("Offset call history should use at most a content and a count statement")
+    void offsetCallHistoryShouldStayWithinBudget() {
+        var response = callService.getAllCallHistory(0, 3, authentication());
+
+        assertEquals(3, response.getContent().size());
+        assertTrue(statementCount() <= 2, "statements: " + statementCount());
+    }
+
+    @Test
+    @DisplayName("Keyset call history should use an id statement and a fetch statement")
+    void keysetCallHistoryShouldStayWithinBudget() throws OperationNotPermittedException {
+        var response = callService.getCallHistory(null, 4, authentication());
+
+        assertEquals(4, response.getContent().size());
+        assertTrue(response.isHasMore());
+        assertTrue(statementCount() <= 2, "statements: " + statementCount());
+    }
+
+    @Test
+    @DisplayName("Call messages should use a call statement and a message statement")
+    void callMessagesShouldStayWithinBudget() throws OperationNotPermittedException {
+        var messages = messageService.getMessagesByCallId(firstCall.getId(), authentication());
+
+        assertEquals(4, messages.size());
+        assertTrue(statementCount() <= 2, "statements: " + statementCount());
+    }
+
+    @Test
+    @DisplayName("Meeting roster should load the room with one statement per collection, then read from memory")
+    void meetingParticipantsShouldStayWithinBudget() {
+        var participants = meetingService.getMeetingParticipantsAll(meetingCode, authentication());
+
+        assertEquals(6, participants.size());
+        assertTrue(participants.getFirst().isAdmin());
+        // meeting, participants, allowed users, waiting users
+        assertTrue(statementCount() <= 4, "statements: " + statementCount());
+
+        statistics().clear();
+        meetingService.getMeetingParticipantsAll(meetingCode, authentication());
+        meetingService.hasPermissionToJoin(meetingCode, authentication());
+
+        assertEquals(0, statementCount());
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private User saveUser(Role role, String email) {
+        ProfileImg profile = profileImgRepository.save(ProfileImg.builder()
+                .publicId(UUID.randomUUID().toString())
+                .profileUrl("https://img.test/" + email)
+                .build());
+        return userRepository.save(User.builder()
+                .fullName(email)
+                .email(email)
+                .role(role)
+                .profile(profile)
+                .birthDate(LocalDate.of(2000, 1, 1))
+                .googleId(UUID.randomUUID().toString())
+                .enabled(true)
+                .isAccountCompleted(true)
+                .build());
+    }
+
+    private MeetingParticipant participant(Meeting meeting, User user) {
+        return MeetingParticipant.builder()
+                .meeting(meeting)
+                .user(user)
+                .joinedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Authentication authentication() {
+        return new UsernamePasswordAuthenticationToken(owner, null, List.of());
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statementCount() {
+        return statistics().getPrepareStatementCount();
+    }
+}
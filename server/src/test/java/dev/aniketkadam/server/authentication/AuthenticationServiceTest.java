@@ -40,6 +40,10 @@ class AuthenticationServiceTest {
     @Mock
     private UserMapper mapper;
     @Mock
+    private GoogleTokenVerifier googleTokenVerifier;
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+    @Mock
     private HttpServletRequest servletRequest;
     @Mock
     private HttpServletResponse servletResponse;
@@ -0,0 +1,139 @@
+package dev.aniketkadam.server.authentication;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Google Token Verifier Tests")
+@ActiveProfiles("test")
+class GoogleTokenVerifierTest {
+
+    private static final String CLIENT_ID = "test-client-id";
+
+    private SimpleMeterRegistry meterRegistry;
+    private GoogleTokenVerifier verifier;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifier = new GoogleTokenVerifier(new DefaultResourceLoader(), meterRegistry);
+        ReflectionTestUtils.setField(verifier, "googleClientId", CLIENT_ID);
+        ReflectionTestUtils.setField(verifier, "certsUrl", "classpath:google-certs-test.json");
+        ReflectionTestUtils.setField(verifier, "refreshAheadMillis", 600000L);
+        ReflectionTestUtils.setField(verifier, "refreshCheckMillis", 60000L);
+        verifier.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifier.shutdown();
+    }
+
+    private static String token(String audience, long expiresAtSeconds) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"test-key\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"iss\":\"https://accounts.google.com\",\"aud\":\"" + audience
+                + "\",\"sub\":\"google-1\",\"email\":\"user@test.com\",\"iat\":" + (expiresAtSeconds - 3600)
+                + ",\"exp\":" + expiresAtSeconds + "}").getBytes(StandardCharsets.UTF_8));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(privateKey());
+        signature.update((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+        return header + "." + payload + "." + encoder.encodeToString(signature.sign());
+    }
+
+    private static PrivateKey privateKey() throws Exception {
+        try (InputStream in = GoogleTokenVerifierTest.class.getResourceAsStream("/google-certs-test-key.pem")) {
+            String pem = new String(in.readAllBytes(), StandardCharsets.US_ASCII)
+                    .replaceAll("-----[A-Z ]+-----", "")
+                    .replaceAll("\\s", "");
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(pem)));
+        }
+    }
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() / 1000 + 3600;
+    }
+
+    @Test
+    @DisplayName("Should accept a token signed by a published key")
+    void shouldVerifySignedToken() throws Exception {
+        GoogleIdToken idToken = verifier.verify(token(CLIENT_ID, inOneHour()));
+
+        assertNotNull(idToken);
+        assertEquals("user@test.com", idToken.getPayload().getEmail());
+    }
+
+    @Test
+    @DisplayName("Should fetch the keys once and serve later logins from the cache")
+    void shouldReuseKeysAcrossLogins() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(verifier.verify(token(CLIENT_ID, inOneHour())));
+        }
+
+        assertEquals(1, meterRegistry.get("auth.google.keys").tag("result", "fetched").timer().count());
+        assertEquals(4, meterRegistry.get("auth.google.keys").tag("result", "cached").timer().count());
+        assertEquals(5, meterRegistry.get("auth.google.verify").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should reject tokens for another audience, expired or malformed")
+    void shouldRejectInvalidTokens() throws Exception {
+        assertNull(verifier.verify(token("other-client-id", inOneHour())));
+        assertNull(verifier.verify(token(CLIENT_ID, System.currentTimeMillis() / 1000 - 3600)));
+        assertNull(verifier.verify("not-a-token"));
+
+        String signed = token(CLIENT_ID, inOneHour());
+        String tampered = signed.substring(0, signed.lastIndexOf('.') + 1) + "AAAA";
+        assertNull(verifier.verify(tampered));
+    }
+
+    @Test
+    @DisplayName("Should load keys in the background before a login needs them")
+    void shouldRefreshKeysAhead() throws Exception {
+        verifier.refreshKeys();
+        long expiration = verifier.getKeysExpirationMillis();
+        assertTrue(expiration > System.currentTimeMillis());
+
+        verifier.verify(token(CLIENT_ID, inOneHour()));
+
+        assertEquals(0, meterRegistry.get("auth.google.keys").tag("result", "fetched").timer().count());
+        assertEquals(1, meterRegistry.get("auth.google.keys.refreshes").tag("result", "success").counter().count());
+
+        // far from expiry, nothing to do
+        verifier.refreshKeys();
+        assertEquals(expiration, verifier.getKeysExpirationMillis());
+    }
+
+    @Test
+    @DisplayName("Should refresh keys on its own thread without the application scheduler")
+    void shouldRefreshKeysOnOwnThread() throws InterruptedException {
+        verifier.shutdown();
+        verifier = new GoogleTokenVerifier(new DefaultResourceLoader(), meterRegistry);
+        ReflectionTestUtils.setField(verifier, "googleClientId", CLIENT_ID);
+        ReflectionTestUtils.setField(verifier, "certsUrl", "classpath:google-certs-test.json");
+        ReflectionTestUtils.setField(verifier, "refreshAheadMillis", 600000L);
+        ReflectionTestUtils.setField(verifier, "refreshCheckMillis", 10L);
+        verifier.init();
+
+        long deadline = System.currentTimeMillis() + 1000;
+        while (verifier.getKeysExpirationMillis() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(verifier.getKeysExpirationMillis() > System.currentTimeMillis());
+        assertEquals(1, meterRegistry.get("auth.google.keys.refreshes").tag("result", "success").counter().count());
+    }
+}
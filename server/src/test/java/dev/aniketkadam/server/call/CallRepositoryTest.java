@@ -196,4 +196,35 @@ public class CallRepositoryTest {
 
     }
 
+    @Nested
+    @DisplayName("Find User Call History Tests")
+    class FindUserCallHistoryTests {
+
+        @Test
+        @DisplayName("Should walk both caller and receiver side newest first by cursor")
+        void shouldWalkCallHistoryByCursor() {
+            String userId = testReceiver2.getId();
+
+            List<String> firstSlice = callRepository.findUserCallHistory(userId, 1);
+            assertEquals(1, firstSlice.size());
+            Call newest = callRepository.findById(firstSlice.get(0)).orElseThrow();
+
+            List<String> secondSlice = callRepository.findUserCallHistoryBefore(
+                    userId, newest.getStartedAt(), newest.getId(), 5
+            );
+
+            assertEquals(1, secondSlice.size());
+            List<Call> older = callRepository.findAllByIdIn(secondSlice);
+            assertEquals(1, older.size());
+            assertTrue(newest.getStartedAt().isAfter(older.get(0).getStartedAt()));
+            assertEquals(userId, older.get(0).getReceiver().getId());
+        }
+
+        @Test
+        @DisplayName("Should return empty history successfully when user don't have calls")
+        void shouldReturnEmptyHistory_whenUserNotHaveAnyCalls() {
+            assertTrue(callRepository.findUserCallHistory("user-123", 5).isEmpty());
+        }
+    }
+
 }
@@ -1,6 +1,8 @@
 package dev.aniketkadam.server.call;
 
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.pagination.CursorResponse;
+import dev.aniketkadam.server.pagination.KeysetCursor;
 import dev.aniketkadam.server.pagination.PageResponse;
 import dev.aniketkadam.server.user.User;
 import dev.aniketkadam.server.user.UserResponse;
@@ -15,6 +17,7 @@ import org.springframework.data.domain.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -23,6 +26,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -184,6 +188,88 @@ class CallServiceTest {
             verify(callMapper, times(1)).toCallResponse(testCall);
         }
     }
+
+    @Nested
+    @DisplayName("Get Call History By Cursor Tests")
+    class GetCallHistoryTests {
+
+        @BeforeEach
+        void setup() {
+            ReflectionTestUtils.setField(callService, "maxPageSize", 100);
+        }
+
+        @Test
+        @DisplayName("Should return first slice with next cursor when more calls exist")
+        void shouldReturnFirstSliceWithCursor() throws OperationNotPermittedException {
+            Call olderCall = Call.builder()
+                    .id("call-122")
+                    .caller(testUser)
+                    .receiver(testCall.getReceiver())
+                    .status(CallStatus.ENDED)
+                    .mode(CallMode.AUDIO)
+                    .startedAt(LocalDateTime.of(2023, 12, 31, 10, 0))
+                    .build();
+
+            when(callRepository.findUserCallHistory(testUser.getId(), 2))
+                    .thenReturn(List.of(testCall.getId(), olderCall.getId()));
+            when(callRepository.findAllByIdIn(List.of(testCall.getId())))
+                    .thenReturn(List.of(testCall));
+            when(callMapper.toCallResponse(testCall))
+                    .thenReturn(testCallResponse);
+
+            CursorResponse<CallResponse> response = callService.getCallHistory(null, 1, testAuthentication);
+
+            assertEquals(1, response.getContent().size());
+            assertTrue(response.isHasMore());
+            KeysetCursor cursor = KeysetCursor.decode(response.getNextCursor());
+            assertEquals(testCall.getStartedAt(), cursor.timestamp());
+            assertEquals(testCall.getId(), cursor.id());
+            verify(callMapper, never()).toCallResponse(olderCall);
+            verify(callRepository, never()).findAllByIdIn(List.of(testCall.getId(), olderCall.getId()));
+        }
+
+        @Test
+        @DisplayName("Should continue after the cursor and report the end of history")
+        void shouldContinueAfterCursor() throws OperationNotPermittedException {
+            String cursor = new KeysetCursor(testCall.getStartedAt(), testCall.getId()).encode();
+
+            when(callRepository.findUserCallHistoryBefore(testUser.getId(), testCall.getStartedAt(), testCall.getId(), 3))
+                    .thenReturn(List.of());
+
+            CursorResponse<CallResponse> response = callService.getCallHistory(cursor, 2, testAuthentication);
+
+            assertTrue(response.getContent().isEmpty());
+            assertFalse(response.isHasMore());
+            assertNull(response.getNextCursor());
+            verify(callRepository, never()).findUserCallHistory(any(), anyInt());
+            verify(callRepository, never()).findAllByIdIn(any());
+        }
+
+        @Test
+        @DisplayName("Should cap the page size of call history")
+        void shouldCapPageSize() throws OperationNotPermittedException {
+            when(callRepository.findUserCallHistory(testUser.getId(), 101))
+                    .thenReturn(List.of());
+
+            CursorResponse<CallResponse> response = callService.getCallHistory(null, 1_000_000, testAuthentication);
+
+            assertEquals(100, response.getSize());
+            assertFalse(response.isHasMore());
+            verify(callRepository).findUserCallHistory(testUser.getId(), 101);
+        }
+
+        @Test
+        @DisplayName("Should throw error when cursor is malformed")
+        void shouldThrowException_whenCursorIsMalformed() {
+            final OperationNotPermittedException exception = assertThrows(
+                    OperationNotPermittedException.class,
+                    () -> callService.getCallHistory("not-a-cursor", 2, testAuthentication)
+            );
+
+            assertEquals("Invalid cursor.", exception.getMessage());
+            verifyNoInteractions(callRepository);
+        }
+    }
 }
 
 //  verify().save(argThat(s -> )) // check args before run
@@ -0,0 +1,148 @@
+package dev.aniketkadam.server.call;
+
+import dev.aniketkadam.server.user.User;
+import dev.aniketkadam.server.webrtc.CallMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Call Session Registry Tests")
+@ActiveProfiles("test")
+class CallSessionRegistryTest {
+
+    @Mock
+    private CallRepository callRepository;
+
+    private CallSessionRegistry callSessionRegistry;
+
+    @BeforeEach
+    void setup() {
+        callSessionRegistry = new CallSessionRegistry(callRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(callSessionRegistry, "sessionMaxAgeHours", 12L);
+        callSessionRegistry.registerMetrics();
+    }
+
+    private static Call call(CallStatus status, LocalDateTime startedAt) {
+        return Call.builder()
+                .id("call-123")
+                .caller(User.builder().id("user-1").email("caller@test.com").fullName("Caller User").build())
+                .receiver(User.builder().id("user-2").email("receiver@test.com").fullName("Receiver User").build())
+                .status(status)
+                .mode(CallMode.VIDEO)
+                .startedAt(startedAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should serve registered call from memory without touching the database")
+    void shouldResolveFromMemory_whenRegistered() {
+        callSessionRegistry.register(call(CallStatus.RINGING, LocalDateTime.now()));
+
+        CallSession session = callSessionRegistry.resolve("call-123");
+
+        assertEquals("receiver@test.com", session.counterpart("caller@test.com").getEmail());
+        assertEquals(1, callSessionRegistry.getHits());
+        assertEquals(0, callSessionRegistry.getMisses());
+        verifyNoInteractions(callRepository);
+    }
+
+    @Test
+    @DisplayName("Should load active call from database once and keep it")
+    void shouldLoadFromDatabaseOnce_whenMissing() {
+        when(callRepository.findById("call-123")).thenReturn(Optional.of(call(CallStatus.ACCEPTED, LocalDateTime.now())));
+
+        callSessionRegistry.resolve("call-123");
+        callSessionRegistry.resolve("call-123");
+
+        verify(callRepository, times(1)).findById("call-123");
+        assertEquals(1, callSessionRegistry.getHits());
+        assertEquals(1, callSessionRegistry.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should not keep finished call loaded from database")
+    void shouldNotCache_whenCallEnded() {
+        when(callRepository.findById("call-123")).thenReturn(Optional.of(call(CallStatus.ENDED, LocalDateTime.now())));
+
+        callSessionRegistry.resolve("call-123");
+
+        assertTrue(callSessionRegistry.find("call-123").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should throw EntityNotFoundException when call does not exist")
+    void shouldThrow_whenCallNotFound() {
+        when(callRepository.findById("call-123")).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(
+                EntityNotFoundException.class,
+                () -> callSessionRegistry.resolve("call-123")
+        );
+        assertEquals("Call is not found with ID: call-123", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should evict sessions older than the maximum age")
+    void shouldEvictStaleSessions() {
+        callSessionRegistry.register(call(CallStatus.ACCEPTED, LocalDateTime.now().minusHours(13)));
+
+        callSessionRegistry.evictStaleSessions();
+
+        assertTrue(callSessionRegistry.find("call-123").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply changes made in a transaction only once it commits")
+    void shouldApplyChangesAfterCommit() {
+        callSessionRegistry.register(call(CallStatus.RINGING, LocalDateTime.now()));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            callSessionRegistry.updateStatus("call-123", CallStatus.ACCEPTED);
+            assertEquals(CallStatus.RINGING, callSessionRegistry.find("call-123").orElseThrow().getStatus());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(CallStatus.ACCEPTED, callSessionRegistry.find("call-123").orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should leave the registry untouched when the transaction rolls back")
+    void shouldIgnoreChanges_whenRolledBack() {
+        callSessionRegistry.register(call(CallStatus.RINGING, LocalDateTime.now()));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            callSessionRegistry.remove("call-123");
+            callSessionRegistry.register(Call.builder()
+                    .id("call-456")
+                    .caller(User.builder().id("user-3").email("other@test.com").build())
+                    .receiver(User.builder().id("user-4").email("another@test.com").build())
+                    .status(CallStatus.RINGING)
+                    .build());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(callSessionRegistry.find("call-123").isPresent());
+        assertTrue(callSessionRegistry.find("call-456").isEmpty());
+    }
+}
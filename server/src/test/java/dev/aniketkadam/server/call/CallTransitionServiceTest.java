@@ -0,0 +1,77 @@
+package dev.aniketkadam.server.call;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Call Transition Service Tests")
+@ActiveProfiles("test")
+class CallTransitionServiceTest {
+
+    @Mock
+    private CallRepository callRepository;
+    @Mock
+    private CallSessionRegistry callSessionRegistry;
+
+    @InjectMocks
+    private CallTransitionService callTransitionService;
+
+    private static CallSession session(CallStatus status) {
+        return CallSession.builder().callId("call-123").status(status).build();
+    }
+
+    @Test
+    @DisplayName("Should update status with a single conditional statement")
+    void shouldApplyTransition_whenSourceStateMatches() {
+        when(callSessionRegistry.find("call-123")).thenReturn(Optional.of(session(CallStatus.RINGING)));
+        when(callRepository.transition("call-123", EnumSet.of(CallStatus.RINGING), CallStatus.ACCEPTED)).thenReturn(1);
+
+        assertTrue(callTransitionService.apply("call-123", CallTransition.ACCEPT));
+
+        verify(callSessionRegistry, times(1)).updateStatus("call-123", CallStatus.ACCEPTED);
+        verify(callRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicate transition without touching the database")
+    void shouldRejectDuplicate_whenCachedStatusIsTarget() {
+        when(callSessionRegistry.find("call-123")).thenReturn(Optional.of(session(CallStatus.ACCEPTED)));
+
+        assertFalse(callTransitionService.apply("call-123", CallTransition.ACCEPT));
+
+        verifyNoInteractions(callRepository);
+    }
+
+    @Test
+    @DisplayName("Should report a lost race when no row matched the source states")
+    void shouldReturnFalse_whenNoRowUpdated() {
+        when(callSessionRegistry.find("call-123")).thenReturn(Optional.empty());
+        when(callRepository.transition(eq("call-123"), anyCollection(), eq(CallStatus.REJECTED))).thenReturn(0);
+
+        assertFalse(callTransitionService.apply("call-123", CallTransition.REJECT));
+
+        verify(callSessionRegistry, never()).remove(anyString());
+    }
+
+    @Test
+    @DisplayName("Should drop the live session after a terminal transition")
+    void shouldRemoveSession_whenTransitionIsTerminal() {
+        when(callSessionRegistry.find("call-123")).thenReturn(Optional.of(session(CallStatus.ACCEPTED)));
+        when(callRepository.transition(eq("call-123"), anyCollection(), eq(CallStatus.FINISH))).thenReturn(1);
+
+        assertTrue(callTransitionService.apply("call-123", CallTransition.FINISH));
+
+        verify(callSessionRegistry, times(1)).remove("call-123");
+    }
+}
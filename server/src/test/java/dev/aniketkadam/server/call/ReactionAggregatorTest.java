@@ -0,0 +1,138 @@
+package dev.aniketkadam.server.call;
+
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reaction Aggregator Tests")
+@ActiveProfiles("test")
+class ReactionAggregatorTest {
+
+    private static final String DESTINATION = "/topic/reaction/call-123/receiver@test.com";
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    private ReactionAggregator aggregator;
+
+    @BeforeEach
+    void setup() {
+        aggregator = new ReactionAggregator(notificationDispatcher, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(aggregator, "maxPerUser", 10);
+        ReflectionTestUtils.setField(aggregator, "maxSenders", 3);
+        aggregator.registerMetrics();
+    }
+
+    private List<ReactionResponse> frames() {
+        ArgumentCaptor<ReactionResponse> captor = ArgumentCaptor.forClass(ReactionResponse.class);
+        verify(notificationDispatcher, atLeast(0)).convertAndSend(eq(DESTINATION), captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("Should send the counts of one window in a single frame")
+    void shouldAggregateWindow() {
+        aggregator.react(DESTINATION, "caller-1", "Caller", "heart");
+        aggregator.react(DESTINATION, "caller-1", "Caller", "heart");
+        aggregator.react(DESTINATION, "caller-1", "Caller", "laugh");
+
+        aggregator.flush();
+
+        List<ReactionResponse> frames = frames();
+        assertEquals(1, frames.size());
+        assertEquals(Map.of("heart", 2L, "laugh", 1L), frames.getFirst().getCounts());
+        assertEquals(List.of("Caller"), frames.getFirst().getSenders().get("heart"));
+    }
+
+    @Test
+    @DisplayName("Should drop reactions of a sender over the cap of the window")
+    void shouldCapReactionsPerSender() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(aggregator.react(DESTINATION, "caller-1", "Caller", "heart"));
+        }
+        assertFalse(aggregator.react(DESTINATION, "caller-1", "Caller", "heart"));
+        aggregator.flush();
+
+        // the cap starts over with the next window
+        assertTrue(aggregator.react(DESTINATION, "caller-1", "Caller", "heart"));
+
+        assertEquals(10L, frames().getFirst().getCounts().get("heart"));
+    }
+
+    @Test
+    @DisplayName("Should cap each sender on their own even when they share a first name")
+    void shouldCapBySenderId_whenNamesCollide() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(aggregator.react(DESTINATION, "user-1", "Alex", "heart"));
+        }
+        assertTrue(aggregator.react(DESTINATION, "user-2", "Alex", "heart"));
+        assertFalse(aggregator.react(DESTINATION, "user-1", "Alex", "heart"));
+
+        aggregator.flush();
+
+        ReactionResponse frame = frames().getFirst();
+        assertEquals(11L, frame.getCounts().get("heart"));
+        assertEquals(List.of("Alex", "Alex"), frame.getSenders().get("heart"));
+    }
+
+    @Test
+    @DisplayName("Should not send anything for a quiet window")
+    void shouldSkipQuietWindow() {
+        aggregator.flush();
+
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    @Test
+    @DisplayName("Should count every reaction exactly once under concurrent senders and flushes")
+    void shouldCountEveryReaction_underConcurrency() throws Exception {
+        ReflectionTestUtils.setField(aggregator, "maxPerUser", Integer.MAX_VALUE);
+        int senders = 8;
+        int reactionsEach = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(senders);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < senders; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < reactionsEach; i++) {
+                    aggregator.react(DESTINATION, "sender-" + thread, "Sender " + thread, "heart");
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        int flushes = 0;
+        do {
+            aggregator.flush();
+            flushes++;
+        } while (!executor.awaitTermination(1, TimeUnit.MILLISECONDS));
+        aggregator.flush();
+        flushes++;
+
+        List<ReactionResponse> frames = frames();
+        long total = frames.stream().mapToLong(frame -> frame.getCounts().get("heart")).sum();
+        assertEquals((long) senders * reactionsEach, total);
+        assertTrue(frames.size() <= flushes);
+        assertTrue(frames.stream().allMatch(frame -> frame.getSenders().get("heart").size() <= 3));
+    }
+}
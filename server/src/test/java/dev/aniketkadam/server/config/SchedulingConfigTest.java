@@ -0,0 +1,97 @@
+package dev.aniketkadam.server.config;
+
+import dev.aniketkadam.server.meeting.MeetingParticipantResponse;
+import dev.aniketkadam.server.meeting.RosterCoalescer;
+import dev.aniketkadam.server.meeting.RosterDeltaResponse;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(SchedulingConfigTest.Context.class)
+@TestPropertySource(properties = "application.meetings.roster.coalesce-ms=20")
+@DisplayName("Scheduling Config Tests")
+@ActiveProfiles("test")
+class SchedulingConfigTest {
+
+    @Autowired
+    private RosterCoalescer rosterCoalescer;
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+    @Autowired
+    private SlowJob slowJob;
+
+    @Test
+    @DisplayName("Should flush the roster while a slow job holds the default scheduler")
+    void shouldFlushRoster_whileSlowJobRuns() throws InterruptedException {
+        try {
+            assertTrue(slowJob.started.await(1, TimeUnit.SECONDS));
+
+            rosterCoalescer.added("abc-defg-hij", MeetingParticipantResponse.builder().id("participant-1").build());
+
+            verify(notificationDispatcher, timeout(1000)).convertAndSend(
+                    eq("/topic/meeting/abc-defg-hij/participants"), any(RosterDeltaResponse.class));
+            assertEquals(1, slowJob.release.getCount());
+        } finally {
+            slowJob.release.countDown();
+        }
+    }
+
+    @Configuration
+    @EnableScheduling
+    @Import({SchedulingConfig.class, RosterCoalescer.class})
+    static class Context {
+
+        // a single thread, the slow job takes it for good
+        @Bean
+        ThreadPoolTaskSchedulerBuilder threadPoolTaskSchedulerBuilder() {
+            return new ThreadPoolTaskSchedulerBuilder().poolSize(1);
+        }
+
+        @Bean
+        NotificationDispatcher notificationDispatcher() {
+            return mock(NotificationDispatcher.class);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        SlowJob slowJob() {
+            return new SlowJob();
+        }
+    }
+
+    // stands in for a write-behind flush stuck on the database
+    static class SlowJob {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Scheduled(fixedDelay = 60_000)
+        public void run() throws InterruptedException {
+            started.countDown();
+            release.await();
+        }
+    }
+}
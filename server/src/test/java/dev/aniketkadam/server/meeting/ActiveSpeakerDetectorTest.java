@@ -0,0 +1,123 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.user.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Active Speaker Detector Tests")
+@ActiveProfiles("test")
+class ActiveSpeakerDetectorTest {
+
+    private static final String CODE = "abc-defg-hij";
+    private static final String TOPIC = "/topic/meeting/" + CODE + "/speakers";
+
+    @Mock
+    private MeetingRoomRegistry roomRegistry;
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    private ActiveSpeakerDetector detector;
+
+    @BeforeEach
+    void setup() {
+        detector = new ActiveSpeakerDetector(roomRegistry, notificationDispatcher, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(detector, "windowTicks", 2);
+        ReflectionTestUtils.setField(detector, "topN", 2);
+        ReflectionTestUtils.setField(detector, "minLevel", 10);
+        ReflectionTestUtils.setField(detector, "idleTicks", 3);
+        detector.registerMetrics();
+
+        MeetingRoom room = new MeetingRoom("meeting-1", CODE, "user-1", "one@test.com", 16);
+        room.join(participant("user-1", "one@test.com"));
+        room.join(participant("user-2", "two@test.com"));
+        room.join(participant("user-3", "three@test.com"));
+        lenient().when(roomRegistry.find(CODE)).thenReturn(Optional.of(room));
+    }
+
+    private static MeetingRoom.RoomParticipant participant(String userId, String email) {
+        return new MeetingRoom.RoomParticipant("p-" + userId,
+                UserResponse.builder().id(userId).email(email).build(), LocalDateTime.now(), false);
+    }
+
+    private List<List<String>> broadcasts() {
+        ArgumentCaptor<ActiveSpeakersResponse> captor = ArgumentCaptor.forClass(ActiveSpeakersResponse.class);
+        verify(notificationDispatcher, atLeast(0)).convertAndSend(eq(TOPIC), captor.capture());
+        return captor.getAllValues().stream().map(ActiveSpeakersResponse::getSpeakers).toList();
+    }
+
+    @Test
+    @DisplayName("Should broadcast the loudest speakers first, limited to top N")
+    void shouldBroadcastTopSpeakers() {
+        detector.record(CODE, "one@test.com", 30);
+        detector.record(CODE, "two@test.com", 80);
+        detector.record(CODE, "three@test.com", 50);
+
+        detector.tick();
+
+        assertEquals(List.of(List.of("user-2", "user-3")), broadcasts());
+    }
+
+    @Test
+    @DisplayName("Should not broadcast again while the speakers stay the same")
+    void shouldBroadcastOnlyChanges() {
+        for (int i = 0; i < 5; i++) {
+            detector.record(CODE, "one@test.com", 60);
+            detector.tick();
+        }
+
+        assertEquals(List.of(List.of("user-1")), broadcasts());
+    }
+
+    @Test
+    @DisplayName("Should keep the peak of a tick and smooth it over the window")
+    void shouldSmoothOverWindow() {
+        detector.record(CODE, "one@test.com", 5);
+        detector.record(CODE, "one@test.com", 40);
+        detector.record(CODE, "one@test.com", 5);
+        detector.tick();
+        // a silent tick still has the peak of 40 in the window
+        detector.tick();
+        // now both ticks in the window are silent
+        detector.tick();
+
+        assertEquals(List.of(List.of("user-1"), List.of()), broadcasts());
+    }
+
+    @Test
+    @DisplayName("Should drop samples from people outside the room")
+    void shouldIgnoreNonParticipants() {
+        detector.record(CODE, "stranger@test.com", 90);
+        detector.record("unknown-code", "one@test.com", 90);
+
+        detector.tick();
+
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    @Test
+    @DisplayName("Should parse plain digit levels and reject anything else")
+    void shouldParseLevel() {
+        assertEquals(42, ActiveSpeakerDetector.parseLevel("42".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0, ActiveSpeakerDetector.parseLevel("0".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(-1, ActiveSpeakerDetector.parseLevel("-3".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(-1, ActiveSpeakerDetector.parseLevel("0.5".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(-1, ActiveSpeakerDetector.parseLevel(new byte[0]));
+    }
+}
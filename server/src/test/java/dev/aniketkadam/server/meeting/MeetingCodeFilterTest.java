@@ -0,0 +1,96 @@
+package dev.aniketkadam.server.meeting;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Meeting Code Filter Tests")
+@ActiveProfiles("test")
+class MeetingCodeFilterTest {
+
+    @Mock
+    private MeetingRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeetingCodeFilter codeFilter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        codeFilter = new MeetingCodeFilter(repository, meterRegistry);
+        ReflectionTestUtils.setField(codeFilter, "expectedCodes", 1000L);
+        ReflectionTestUtils.setField(codeFilter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(codeFilter, "loadPageSize", 2);
+    }
+
+    @Test
+    @DisplayName("Should load every issued code page by page")
+    void shouldLoadCodesInPages() {
+        when(repository.findMeetingCodesAfter("", PageRequest.of(0, 2)))
+                .thenReturn(List.of("aaa-aaaa-aaa", "bbb-bbbb-bbb"));
+        when(repository.findMeetingCodesAfter("bbb-bbbb-bbb", PageRequest.of(0, 2)))
+                .thenReturn(List.of("ccc-cccc-ccc"));
+        when(repository.existsByMeetingCode(anyString()))
+                .thenReturn(true);
+
+        codeFilter.load();
+
+        assertTrue(codeFilter.exists("aaa-aaaa-aaa"));
+        assertTrue(codeFilter.exists("ccc-cccc-ccc"));
+        verify(repository, times(2)).findMeetingCodesAfter(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer unknown codes without the database")
+    void shouldAnswerNegativesFromMemory() {
+        when(repository.findMeetingCodesAfter(anyString(), any()))
+                .thenReturn(List.of());
+        codeFilter.load();
+
+        assertFalse(codeFilter.exists("xyz-wxyz-xyz"));
+
+        verify(repository, never()).existsByMeetingCode(anyString());
+        assertEquals(1, meterRegistry.get("meetings.codes.lookups").tag("result", "negative").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should count codes that pass the filter but are not stored as false positives")
+    void shouldCountFalsePositives() {
+        when(repository.findMeetingCodesAfter(anyString(), any()))
+                .thenReturn(List.of());
+        codeFilter.load();
+        codeFilter.add("abc-defg-hij");
+        when(repository.existsByMeetingCode("abc-defg-hij"))
+                .thenReturn(false);
+
+        assertFalse(codeFilter.exists("abc-defg-hij"));
+        assertFalse(codeFilter.exists("xyz-wxyz-xyz"));
+
+        assertEquals(0.5, meterRegistry.get("meetings.codes.filter.fpp").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should generate codes that were not issued yet")
+    void shouldGenerateUnusedCode() {
+        when(repository.findMeetingCodesAfter(anyString(), any()))
+                .thenReturn(List.of());
+        codeFilter.load();
+
+        String code = codeFilter.newCode();
+
+        assertTrue(code.matches("[a-z]{3}-[a-z]{4}-[a-z]{3}"));
+        assertFalse(codeFilter.exists(code));
+    }
+}
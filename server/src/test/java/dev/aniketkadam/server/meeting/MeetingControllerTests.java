@@ -1,5 +1,6 @@
 package dev.aniketkadam.server.meeting;
 
+import dev.aniketkadam.server.pagination.CursorResponse;
 import dev.aniketkadam.server.user.UserResponse;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Nested;
@@ -15,8 +16,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -132,6 +136,84 @@ public class MeetingControllerTests {
         }
     }
 
+    @Nested
+    class RosterPageTests {
+
+        @Test
+        @WithMockUser
+        @SneakyThrows
+        void shouldReturnRosterPageSuccessfully() {
+            when(service.getRosterPage(eq("meet-1"), eq("cursor-1"), eq(10), any(Authentication.class)))
+                    .thenReturn(CursorResponse.<MeetingParticipantResponse>builder()
+                            .content(List.of(new MeetingParticipantResponse()))
+                            .size(10)
+                            .nextCursor("cursor-2")
+                            .hasMore(true)
+                            .build());
+
+            mockMvc.perform(
+                            get("/api/v1/meetings/meet-1/participants/page")
+                                    .param("cursor", "cursor-1")
+                                    .param("size", "10")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content").isArray())
+                    .andExpect(jsonPath("$.nextCursor").value("cursor-2"));
+        }
+
+        @Test
+        @WithMockUser
+        @SneakyThrows
+        void shouldReturnRosterSummarySuccessfully() {
+            when(service.getRosterSummary(eq("meet-1"), any(Authentication.class)))
+                    .thenReturn(MeetingRosterSummary.builder()
+                            .participantCount(300)
+                            .activeSpeakers(List.of("user-1"))
+                            .build());
+
+            mockMvc.perform(
+                            get("/api/v1/meetings/meet-1/participants/summary")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.participantCount").value(300))
+                    .andExpect(jsonPath("$.waitingCount").doesNotExist());
+        }
+    }
+
+    @Nested
+    class MediaTests {
+
+        @Test
+        @WithMockUser
+        @SneakyThrows
+        void shouldUpdateMediaSuccessfully() {
+            mockMvc.perform(
+                            patch("/api/v1/meetings/meet-1/media")
+                                    .param("type", "HAND")
+                                    .param("on", "true")
+                    )
+                    .andExpect(status().isOk());
+
+            verify(service).updateMedia(eq("meet-1"), eq(MeetingMediaType.HAND), eq(true), any(Authentication.class));
+        }
+
+        @Test
+        @WithMockUser
+        @SneakyThrows
+        void shouldReturnMediaStateSuccessfully() {
+            when(service.getMediaState("meet-1"))
+                    .thenReturn(MeetingMediaResponse.builder()
+                            .states(Map.of("user-1", MeetingMediaType.CAMERA.bit()))
+                            .build());
+
+            mockMvc.perform(
+                            get("/api/v1/meetings/meet-1/media")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.states['user-1']").value(MeetingMediaType.CAMERA.bit()));
+        }
+    }
+
     @Nested
     class AdminPermissionTests {
 
@@ -162,6 +244,20 @@ public class MeetingControllerTests {
                     )
                     .andExpect(status().isOk());
         }
+
+        @Test
+        @WithMockUser
+        @SneakyThrows
+        void shouldAdmitAllWaitingUsersSuccessfully() {
+            when(service.admitAllWaiting(any(String.class), any(Authentication.class)))
+                    .thenReturn(List.of("user-1", "user-2"));
+
+            mockMvc.perform(
+                            patch("/api/v1/meetings/meet-1/add/all/in/meeting")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[1]").value("user-2"));
+        }
     }
 
     @Nested
@@ -0,0 +1,58 @@
+package dev.aniketkadam.server.meeting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Meeting Event Log Tests")
+@ActiveProfiles("test")
+class MeetingEventLogTest {
+
+    @Test
+    @DisplayName("Should number events from one in append order")
+    void shouldNumberEventsInOrder() {
+        MeetingEventLog log = new MeetingEventLog(4);
+
+        log.append(MeetingEventType.PARTICIPANT_JOINED, "a");
+        log.append(MeetingEventType.PARTICIPANT_LEFT, "b");
+
+        assertEquals(2, log.lastSequence());
+        assertEquals(List.of("a", "b"), log.since(0).orElseThrow().stream().map(MeetingEvent::payload).toList());
+    }
+
+    @Test
+    @DisplayName("Should replay the whole buffer when the client is exactly one buffer behind")
+    void shouldReplayWholeBuffer_whenJustWithinCapacity() {
+        MeetingEventLog log = new MeetingEventLog(4);
+        for (int i = 1; i <= 6; i++) {
+            log.append(MeetingEventType.PARTICIPANT_JOINED, i);
+        }
+
+        assertEquals(List.of(3L, 4L, 5L, 6L), log.since(2).orElseThrow().stream().map(MeetingEvent::sequence).toList());
+    }
+
+    @Test
+    @DisplayName("Should report overwritten events as unavailable")
+    void shouldReturnEmpty_whenRolledOver() {
+        MeetingEventLog log = new MeetingEventLog(4);
+        for (int i = 1; i <= 6; i++) {
+            log.append(MeetingEventType.PARTICIPANT_JOINED, i);
+        }
+
+        assertTrue(log.since(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report sequence numbers that were never handed out as unavailable")
+    void shouldReturnEmpty_whenSequenceIsAhead() {
+        MeetingEventLog log = new MeetingEventLog(4);
+        log.append(MeetingEventType.PARTICIPANT_JOINED, "a");
+
+        assertTrue(log.since(5).isEmpty());
+        assertTrue(log.since(-1).isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package dev.aniketkadam.server.meeting;
+
+import org.junit.jupiter.api.*;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Meeting Media State Tests")
+@ActiveProfiles("test")
+class MeetingMediaStateTest {
+
+    private static final int MIC = MeetingMediaType.MIC.bit();
+    private static final int CAMERA = MeetingMediaType.CAMERA.bit();
+    private static final int HAND = MeetingMediaType.HAND.bit();
+
+    private MeetingMediaState state;
+
+    @BeforeEach
+    void setup() {
+        state = new MeetingMediaState();
+    }
+
+    @Test
+    @DisplayName("Should return the new bits only when a flag changes")
+    void shouldReturnNewBits_onlyOnChange() {
+        state.add("user-1", MIC | CAMERA);
+
+        assertEquals(CAMERA, state.update("user-1", MeetingMediaType.MIC, false));
+        assertEquals(MeetingMediaState.ABSENT, state.update("user-1", MeetingMediaType.MIC, false));
+        assertEquals(CAMERA | HAND, state.update("user-1", MeetingMediaType.HAND, true));
+        assertEquals(CAMERA | HAND, state.get("user-1"));
+    }
+
+    @Test
+    @DisplayName("Should ignore users who are not in the room")
+    void shouldIgnoreUnknownUsers() {
+        assertEquals(MeetingMediaState.ABSENT, state.update("user-1", MeetingMediaType.MIC, true));
+        assertEquals(MeetingMediaState.ABSENT, state.get("user-1"));
+    }
+
+    @Test
+    @DisplayName("Should reuse the slot of a user who left without carrying over their bits")
+    void shouldReuseSlots() {
+        for (int i = 0; i < 20; i++) {
+            state.add("user-" + i, MIC);
+        }
+        state.remove("user-3");
+        state.add("user-20", CAMERA);
+
+        Map<String, Integer> snapshot = state.snapshot();
+        assertEquals(20, snapshot.size());
+        assertFalse(snapshot.containsKey("user-3"));
+        // user-20 took the slot user-3 left
+        assertEquals(List.of("user-0", "user-1", "user-2", "user-20"), snapshot.keySet().stream().limit(4).toList());
+        assertEquals(CAMERA, snapshot.get("user-20"));
+    }
+
+    @Test
+    @DisplayName("Should keep the bits of a user who is added twice")
+    void shouldKeepBits_whenAddedTwice() {
+        state.add("user-1", MIC);
+        state.add("user-1", CAMERA);
+
+        assertEquals(MIC, state.get("user-1"));
+    }
+}
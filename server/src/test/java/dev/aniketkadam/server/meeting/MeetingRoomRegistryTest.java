@@ -0,0 +1,180 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.user.User;
+import dev.aniketkadam.server.user.UserMapper;
+import dev.aniketkadam.server.user.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Meeting Room Registry Tests")
+@ActiveProfiles("test")
+class MeetingRoomRegistryTest {
+
+    @Mock
+    private MeetingRepository meetingRepository;
+    @Mock
+    private MeetingParticipantRepository participantRepository;
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private MeetingRoomWriter writer;
+
+    private MeetingRoomRegistry registry;
+    private Meeting meeting;
+
+    @BeforeEach
+    void setup() {
+        registry = new MeetingRoomRegistry(meetingRepository, participantRepository, new MeetingMapper(userMapper),
+                userMapper, writer, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(registry, "roomIdleMinutes", 30L);
+        ReflectionTestUtils.setField(registry, "eventBufferSize", 16);
+        registry.registerMetrics();
+        meeting = Meeting.builder()
+                .id("meeting-123")
+                .meetingCode("abc-defg-hij")
+                .createdBy(User.builder().id("admin-1").email("admin@test.com").build())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should serve a created meeting from memory without touching the database")
+    void shouldResolveFromMemory_whenRegistered() {
+        registry.register(meeting);
+
+        MeetingRoom room = registry.resolve("abc-defg-hij");
+
+        assertTrue(room.isAdmin("admin-1"));
+        assertEquals("admin@test.com", room.getAdminEmail());
+        verifyNoInteractions(meetingRepository, participantRepository);
+    }
+
+    @Test
+    @DisplayName("Should register the room of a meeting only once its insert commits")
+    void shouldRegisterAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.register(meeting);
+            assertTrue(registry.find("abc-defg-hij").isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(registry.find("abc-defg-hij").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should leave no room behind when the insert rolls back")
+    void shouldNotRegister_whenRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.register(meeting);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(registry.find("abc-defg-hij").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the live room when a meeting with the same code is registered")
+    void shouldKeepLiveRoom_whenCodeRegisteredAgain() {
+        registry.register(meeting);
+        MeetingRoom live = registry.find("abc-defg-hij").orElseThrow();
+
+        registry.register(Meeting.builder()
+                .id("meeting-456")
+                .meetingCode("abc-defg-hij")
+                .createdBy(User.builder().id("intruder-1").email("intruder@test.com").build())
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        assertSame(live, registry.find("abc-defg-hij").orElseThrow());
+        assertFalse(live.isAdmin("intruder-1"));
+    }
+
+    @Test
+    @DisplayName("Should load participants, allowed and waiting users once on a miss")
+    void shouldLoadRoomOnce_whenMissing() {
+        User waiting = User.builder().id("user-3").email("user3@test.com").build();
+        when(meetingRepository.findByMeetingCode("abc-defg-hij")).thenReturn(Optional.of(meeting));
+        when(participantRepository.findViewsByMeetingId("meeting-123")).thenReturn(List.of(
+                new MeetingParticipantView("participant-1", "user-1", "User One", "user1@test.com",
+                        null, null, LocalDateTime.now(), null, false)
+        ));
+        when(meetingRepository.findAllowedUserIds("meeting-123")).thenReturn(List.of("user-2"));
+        when(meetingRepository.findWaitingUsers("meeting-123")).thenReturn(List.of(waiting));
+        when(userMapper.toUserResponse(waiting)).thenReturn(UserResponse.builder().id("user-3").build());
+
+        MeetingRoom room = registry.resolve("abc-defg-hij");
+        registry.resolve("abc-defg-hij");
+
+        assertTrue(room.isParticipant("user-1"));
+        assertTrue(room.canJoin("user-2"));
+        assertEquals("user-3", room.waitingUsers().getFirst().getId());
+        verify(meetingRepository, times(1)).findByMeetingCode("abc-defg-hij");
+        verify(participantRepository, times(1)).findViewsByMeetingId("meeting-123");
+    }
+
+    @Test
+    @DisplayName("Should throw when the meeting code is unknown")
+    void shouldThrow_whenMeetingNotFound() {
+        when(meetingRepository.findByMeetingCode("abc-defg-hij")).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(
+                EntityNotFoundException.class,
+                () -> registry.resolve("abc-defg-hij")
+        );
+
+        assertEquals("Meeting is not found with code: abc-defg-hij", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should evict idle empty rooms once their changes are written")
+    void shouldEvictIdleEmptyRooms() {
+        registry.register(meeting);
+        ReflectionTestUtils.setField(registry, "roomIdleMinutes", -1L);
+        when(writer.hasPending()).thenReturn(false);
+
+        registry.evictIdleRooms();
+
+        verify(writer).flush();
+        when(meetingRepository.findByMeetingCode("abc-defg-hij")).thenReturn(Optional.of(meeting));
+        registry.resolve("abc-defg-hij");
+        verify(meetingRepository).findByMeetingCode("abc-defg-hij");
+    }
+
+    @Test
+    @DisplayName("Should keep rooms while changes are still waiting to be written")
+    void shouldKeepRooms_whenWritesPending() {
+        registry.register(meeting);
+        ReflectionTestUtils.setField(registry, "roomIdleMinutes", -1L);
+        when(writer.hasPending()).thenReturn(true);
+
+        registry.evictIdleRooms();
+        registry.resolve("abc-defg-hij");
+
+        verifyNoInteractions(meetingRepository);
+    }
+}
@@ -0,0 +1,134 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.user.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Meeting Room Writer Tests")
+@ActiveProfiles("test")
+class MeetingRoomWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MeetingRoomWriter writer;
+
+    @BeforeEach
+    void setup() {
+        writer = new MeetingRoomWriter(jdbcTemplate, new SimpleMeterRegistry());
+        writer.registerMetrics();
+    }
+
+    private static MeetingRoom.RoomParticipant participant(String id, String userId) {
+        return new MeetingRoom.RoomParticipant(id, UserResponse.builder().id(userId).build(), LocalDateTime.now(), false);
+    }
+
+    @Test
+    @DisplayName("Should write consecutive changes of one kind as a single batch, in order")
+    void shouldBatchConsecutiveChanges() {
+        writer.participantJoined("meeting-1", participant("participant-1", "user-1"));
+        writer.participantJoined("meeting-1", participant("participant-2", "user-2"));
+        writer.usersAllowed("meeting-1", List.of("user-3", "user-4"));
+
+        writer.flush();
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).batchUpdate(contains("INSERT INTO meeting_participant"), argThat((List<Object[]> args) -> args.size() == 2));
+        inOrder.verify(jdbcTemplate).batchUpdate(contains("INSERT INTO meeting_allowed_users"), argThat((List<Object[]> args) -> args.size() == 1));
+        assertFalse(writer.hasPending());
+    }
+
+    @Test
+    @DisplayName("Should admit a set of users with one statement per table")
+    void shouldWriteAdmissionAsOneStatement() {
+        List<String> userIds = List.of("user-1", "user-2", "user-3");
+        writer.usersAllowed("meeting-1", userIds);
+        writer.waitingRemoved("meeting-1", userIds);
+        writer.usersAllowed("meeting-1", List.of());
+
+        writer.flush();
+
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO meeting_allowed_users"), argThat((List<Object[]> args) ->
+                args.size() == 1 && Arrays.equals((String[]) args.getFirst()[1], userIds.toArray())));
+        verify(jdbcTemplate).batchUpdate(contains("DELETE FROM meeting_waiting_users"), argThat((List<Object[]> args) -> args.size() == 1));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should persist mic changes on the participant row")
+    void shouldWriteMutedFlag() {
+        writer.participantMuted("participant-1", true);
+        writer.participantMuted("participant-2", false);
+
+        writer.flush();
+
+        verify(jdbcTemplate).batchUpdate(contains("UPDATE meeting_participant SET muted"), argThat((List<Object[]> args) ->
+                args.size() == 2 && args.getFirst()[0].equals(true) && args.getFirst()[1].equals("participant-1")));
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when nothing changed")
+    void shouldSkipFlush_whenNothingPending() {
+        writer.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should keep failed changes and retry them on the next flush")
+    void shouldRetry_whenWriteFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(new int[]{1});
+        writer.participantLeft(participant("participant-1", "user-1"));
+
+        writer.flush();
+        assertTrue(writer.hasPending());
+
+        writer.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(contains("DELETE FROM meeting_participant"), anyList());
+        assertFalse(writer.hasPending());
+    }
+
+    @Test
+    @DisplayName("Should drop a change the database rejects and write the ones around it")
+    void shouldSkipRejectedChange() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> batch = invocation.getArgument(1);
+                    if (batch.stream().anyMatch(args -> args[1].equals("deleted-meeting"))) {
+                        throw new DataIntegrityViolationException("meeting is gone");
+                    }
+                    return new int[batch.size()];
+                });
+        writer.participantJoined("meeting-1", participant("participant-1", "user-1"));
+        writer.participantJoined("deleted-meeting", participant("participant-2", "user-2"));
+        writer.participantJoined("meeting-1", participant("participant-3", "user-3"));
+        writer.participantMuted("participant-1", true);
+
+        writer.flush();
+
+        assertFalse(writer.hasPending());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO meeting_participant"), argThat((List<Object[]> args) ->
+                args.size() == 1 && args.getFirst()[0].equals("participant-3")));
+        verify(jdbcTemplate).batchUpdate(contains("UPDATE meeting_participant SET muted"), anyList());
+    }
+}
@@ -1,6 +1,8 @@
 package dev.aniketkadam.server.meeting;
 
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.pagination.CursorResponse;
 import dev.aniketkadam.server.user.User;
 import dev.aniketkadam.server.user.UserMapper;
 import dev.aniketkadam.server.user.UserRepository;
@@ -11,16 +13,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,9 +36,19 @@ class MeetingServiceTests {
     @Mock
     private MeetingMapper meetingMapper;
     @Mock
-    private MeetingParticipantRepository meetingParticipantRepository;
+    private MeetingCodeFilter codeFilter;
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private MeetingRoomRegistry roomRegistry;
+    @Mock
+    private MeetingRoomWriter roomWriter;
+    @Mock
+    private ActiveSpeakerDetector speakerDetector;
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+    @Mock
+    private RosterCoalescer rosterCoalescer;
+    @Mock
+    private WaitingRoomNotifier waitingRoomNotifier;
     @Mock
     private UserMapper userMapper;
     @Mock
@@ -47,6 +60,7 @@ class MeetingServiceTests {
     private User testUser;
     private Authentication testAuthentication;
     private Meeting testSavedMeeting;
+    private MeetingRoom testRoom;
 
     @BeforeEach
     void setup() {
@@ -68,6 +82,13 @@ class MeetingServiceTests {
                 .createdBy(testUser)
                 .createdAt(LocalDateTime.now())
                 .build();
+        this.testRoom = new MeetingRoom(
+                testSavedMeeting.getId(),
+                testSavedMeeting.getMeetingCode(),
+                testUser.getId(),
+                testUser.getEmail(),
+                16
+        );
     }
 
     @Nested
@@ -77,6 +98,8 @@ class MeetingServiceTests {
         @Test
         @DisplayName("Should create meeting successfully")
         void shouldCreateMeetingSuccessfully() {
+            when(codeFilter.newCode())
+                    .thenReturn(testSavedMeeting.getMeetingCode());
             when(MeetingServiceTests.this.meetingRepository.save(any(Meeting.class)))
                     .thenReturn(testSavedMeeting);
 
@@ -87,7 +110,10 @@ class MeetingServiceTests {
 
             verify(meetingRepository, times(1)).save(argThat(meeting ->
                     meeting.getCreatedBy().getEmail().equals(testSavedMeeting.getCreatedBy().getEmail())
+                            && meeting.getMeetingCode().equals(testSavedMeeting.getMeetingCode())
             ));
+            verify(codeFilter, times(1)).add(testSavedMeeting.getMeetingCode());
+            verify(roomRegistry, times(1)).register(testSavedMeeting);
         }
     }
 
@@ -100,16 +126,17 @@ class MeetingServiceTests {
         void shouldReturnTrue_whenAuthenticatedUserIsMeetingCreator() {
             String meetingCode = "abc-defg-hij";
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             Boolean result = meetingService.isAdmin(meetingCode, testAuthentication);
 
             assertNotNull(result);
             assertEquals(true, result);
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
+            verify(roomRegistry, times(1))
+                    .resolve(meetingCode);
+            verifyNoInteractions(meetingRepository);
         }
 
         @Test
@@ -126,16 +153,16 @@ class MeetingServiceTests {
                     Collections.emptyList()
             );
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             Boolean result = meetingService.isAdmin(meetingCode, testOutsiderAuth);
 
             assertNotNull(result);
             assertEquals(false, result);
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
+            verify(roomRegistry, times(1))
+                    .resolve(meetingCode);
         }
 
         @Test
@@ -143,8 +170,8 @@ class MeetingServiceTests {
         void shouldThrowException_whenMeetingCodeDoesNotExist() {
             String meetingCode = "abc-defg-hij";
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.empty());
+            when(roomRegistry.resolve(meetingCode))
+                    .thenThrow(new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
 
             EntityNotFoundException exception = assertThrows(
                     EntityNotFoundException.class,
@@ -153,9 +180,6 @@ class MeetingServiceTests {
 
             assertNotNull(exception);
             assertEquals("Meeting is not found with code: " + meetingCode, exception.getMessage());
-
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
         }
     }
 
@@ -167,31 +191,17 @@ class MeetingServiceTests {
         @DisplayName("Should get meeting participants successfully")
         void shouldGetMeetingParticipantsSuccessfully() {
             String meetingCode = "abc-defg-hij";
-            User testParticipant = User.builder()
-                    .id("user-234")
-                    .email("participant1@test.com")
-                    .build();
-            MeetingParticipant testMeetingParticipant = MeetingParticipant.builder()
-                    .id("participant-123")
-                    .user(testParticipant)
-                    .build();
-            MeetingParticipant testSelfParticipant = MeetingParticipant.builder()
-                    .id("participant-234")
-                    .user(testUser)
-                    .build();
-
-            testSavedMeeting.setMeetingParticipants(Set.of(testMeetingParticipant, testSelfParticipant));
-
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
-            when(meetingMapper.toMeetingParticipantResponse(testMeetingParticipant))
+            MeetingRoom.RoomParticipant testMeetingParticipant = roomParticipant("participant-123", "user-234", "participant1@test.com");
+            MeetingRoom.RoomParticipant testSelfParticipant = roomParticipant("participant-234", testUser.getId(), testUser.getEmail());
+            testRoom.join(testMeetingParticipant);
+            testRoom.join(testSelfParticipant);
+
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+            when(meetingMapper.toMeetingParticipantResponse(testMeetingParticipant, false))
                     .thenReturn(MeetingParticipantResponse.builder()
-                            .id(testMeetingParticipant.getId())
-                            .user(UserResponse.builder()
-                                    .id(testMeetingParticipant.getUser().getId())
-                                    .email(testMeetingParticipant.getUser().getEmail())
-                                    .build()
-                            )
+                            .id(testMeetingParticipant.id())
+                            .user(testMeetingParticipant.user())
                             .build()
                     );
             List<MeetingParticipantResponse> result = meetingService.getMeetingParticipants(meetingCode, testAuthentication);
@@ -199,14 +209,13 @@ class MeetingServiceTests {
             assertNotNull(result);
             assertEquals(1, result.size());
             assertEquals(
-                    testMeetingParticipant.getUser().getId(),
+                    testMeetingParticipant.user().getId(),
                     result.getFirst().getUser().getId()
             );
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
             verify(meetingMapper, times(1))
-                    .toMeetingParticipantResponse(any(MeetingParticipant.class));
+                    .toMeetingParticipantResponse(any(MeetingRoom.RoomParticipant.class), anyBoolean());
+            verifyNoInteractions(meetingRepository);
         }
 
         @Test
@@ -214,8 +223,8 @@ class MeetingServiceTests {
         void shouldThrowException_whenMeetingIsNotFoundByCode() {
             String meetingCode = "abc-gfha-qus";
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.empty());
+            when(roomRegistry.resolve(meetingCode))
+                    .thenThrow(new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
 
             EntityNotFoundException exception = assertThrows(
                     EntityNotFoundException.class,
@@ -225,8 +234,6 @@ class MeetingServiceTests {
             assertNotNull(exception);
             assertEquals("Meeting is not found with code: " + meetingCode, exception.getMessage());
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
             verifyNoInteractions(meetingMapper);
         }
 
@@ -234,24 +241,18 @@ class MeetingServiceTests {
         @DisplayName("Should return empty list successfully when only creator has join the meeting")
         void shouldReturnEmptyList_whenOnlyCreatorJoinMeeting() {
             String meetingCode = "abc-defg-hij";
-            MeetingParticipant testSelfMeetingParticipant = MeetingParticipant.builder()
-                    .id("participant-123")
-                    .user(testUser).build();
-
-            testSavedMeeting.setMeetingParticipants(Set.of(testSelfMeetingParticipant));
+            testRoom.join(roomParticipant("participant-123", testUser.getId(), testUser.getEmail()));
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             List<MeetingParticipantResponse> result = meetingService.getMeetingParticipants(meetingCode, testAuthentication);
 
             assertNotNull(result);
             assertTrue(result.isEmpty());
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
             verify(meetingMapper, never())
-                    .toMeetingParticipantResponse(any(MeetingParticipant.class));
+                    .toMeetingParticipantResponse(any(MeetingRoom.RoomParticipant.class), anyBoolean());
         }
     }
 
@@ -263,24 +264,22 @@ class MeetingServiceTests {
         @DisplayName("Should add participant successfully when creator joins")
         void shouldAddParticipant_whenCreatorJoins() throws Exception {
             String meetingCode = "abc-adse-erf";
-            MeetingParticipant savedParticipant = MeetingParticipant.builder()
-                    .user(testUser)
-                    .meeting(testSavedMeeting)
-                    .build();
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
-            when(meetingParticipantRepository.save(any()))
-                    .thenReturn(savedParticipant);
-            when(meetingMapper.toMeetingParticipantResponse(savedParticipant))
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+            when(userMapper.toUserResponse(testUser))
+                    .thenReturn(UserResponse.builder().id(testUser.getId()).email(testUser.getEmail()).build());
+            when(meetingMapper.toMeetingParticipantResponse(any(MeetingRoom.RoomParticipant.class), eq(true)))
                     .thenReturn(MeetingParticipantResponse.builder().build());
 
             meetingService.addUserInMeeting(meetingCode, testAuthentication);
 
-            verify(meetingParticipantRepository).save(any(MeetingParticipant.class));
-            verify(messagingTemplate).convertAndSend(
-                    eq("/topic/meeting/" + meetingCode + "/participant/add"),
-                    any(MeetingParticipantResponse.class)
+            assertTrue(testRoom.isParticipant(testUser.getId()));
+            assertEquals(1, testRoom.getEvents().lastSequence());
+            verify(roomWriter).participantJoined(eq(testRoom.getMeetingId()), any(MeetingRoom.RoomParticipant.class));
+            verify(rosterCoalescer).added(
+                    eq(meetingCode),
+                    argThat((MeetingParticipantResponse response) -> response.getSequence() == 1L)
             );
         }
 
@@ -292,23 +291,21 @@ class MeetingServiceTests {
                     .id("user-987")
                     .email("user987@test.com")
                     .build();
-            testSavedMeeting.setAllowedUsers(Set.of(requestToAddInMeeting));
-
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
-            when(meetingParticipantRepository.save(any()))
-                    .thenReturn(MeetingParticipant.builder()
-                            .id("new-participant-123")
-                            .user(requestToAddInMeeting)
-                            .build());
-            when(meetingMapper.toMeetingParticipantResponse(any(MeetingParticipant.class)))
+            testRoom.allow(List.of(requestToAddInMeeting.getId()));
+
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+            when(userMapper.toUserResponse(requestToAddInMeeting))
+                    .thenReturn(UserResponse.builder().id(requestToAddInMeeting.getId()).build());
+            when(meetingMapper.toMeetingParticipantResponse(any(MeetingRoom.RoomParticipant.class), anyBoolean()))
                     .thenReturn(MeetingParticipantResponse.builder().build());
 
             meetingService.addUserInMeeting(meetingCode, new UsernamePasswordAuthenticationToken(requestToAddInMeeting, null, Collections.emptyList()));
 
-            verify(meetingParticipantRepository).save(any(MeetingParticipant.class));
-            verify(messagingTemplate).convertAndSend(
-                    eq("/topic/meeting/" + meetingCode + "/participant/add"),
+            assertTrue(testRoom.isParticipant(requestToAddInMeeting.getId()));
+            verify(roomWriter).participantJoined(eq(testRoom.getMeetingId()), any(MeetingRoom.RoomParticipant.class));
+            verify(rosterCoalescer).added(
+                    eq(meetingCode),
                     any(MeetingParticipantResponse.class)
             );
         }
@@ -318,8 +315,8 @@ class MeetingServiceTests {
         void shouldThrowException_whenMeetingNotFound() {
             String meetingCode = "abc-ajdh-qwm";
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.empty());
+            when(roomRegistry.resolve(meetingCode))
+                    .thenThrow(new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
 
             EntityNotFoundException exception = assertThrows(
                     EntityNotFoundException.class,
@@ -327,9 +324,9 @@ class MeetingServiceTests {
             );
 
             assertNotNull(exception);
-            assertEquals("Meeting is not found with ID: " + meetingCode, exception.getMessage());
+            assertEquals("Meeting is not found with code: " + meetingCode, exception.getMessage());
 
-            verifyNoInteractions(meetingParticipantRepository, meetingMapper, messagingTemplate);
+            verifyNoInteractions(roomWriter, meetingMapper, rosterCoalescer);
         }
 
         @Test
@@ -341,8 +338,8 @@ class MeetingServiceTests {
                     .email("random@test.com")
                     .build();
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             OperationNotPermittedException exception =
                     assertThrows(OperationNotPermittedException.class, () ->
@@ -351,24 +348,17 @@ class MeetingServiceTests {
 
             assertNotNull(exception);
             assertEquals("You don't have permission to join the meeting", exception.getMessage());
-            verifyNoInteractions(meetingParticipantRepository, meetingMapper, messagingTemplate);
+            verifyNoInteractions(roomWriter, meetingMapper, rosterCoalescer);
         }
 
         @Test
         @DisplayName("Should throw exception successfully when user already participant")
         void shouldThrowException_whenUserAlreadyParticipant() {
             String meetingCode = "abc-ajdh-qwm";
+            testRoom.join(roomParticipant("participant-123", testUser.getId(), testUser.getEmail()));
 
-            testSavedMeeting.getMeetingParticipants()
-                    .add(
-                        MeetingParticipant.builder()
-                            .id("participant-123")
-                            .user(testUser)
-                            .build()
-                    );
-
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             OperationNotPermittedException exception = assertThrows(
                     OperationNotPermittedException.class,
@@ -377,7 +367,7 @@ class MeetingServiceTests {
 
             assertNotNull(exception);
             assertEquals("You are already present in the participants list.", exception.getMessage());
-            verifyNoInteractions(meetingParticipantRepository, meetingMapper, messagingTemplate);
+            verifyNoInteractions(roomWriter, meetingMapper, rosterCoalescer);
         }
     }
 
@@ -396,35 +386,59 @@ class MeetingServiceTests {
                     .email(newUser.getEmail())
                     .build();
 
-            when(meetingRepository.findByMeetingCode("abc-efgh-ijq"))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenReturn(testRoom);
             when(userMapper.toUserResponse(newUser))
                     .thenReturn(response);
 
             meetingService.getAdminPermission("abc-efgh-ijq", new UsernamePasswordAuthenticationToken(newUser, null, Collections.emptyList()));
 
-            assertTrue(testSavedMeeting.getWaitingUsers().contains(newUser));
+            assertEquals(List.of(response), testRoom.waitingUsers());
 
-            verify(meetingRepository, times(1)).save(any());
-            verify(messagingTemplate).convertAndSend(
-                    eq("/topic/waiting/users/abc-efgh-ijq/" + testSavedMeeting.getCreatedBy().getEmail()),
-                    any(UserResponse.class)
-            );
+            verify(roomWriter, times(1)).userWaiting(testRoom.getMeetingId(), newUser.getId());
+            verify(waitingRoomNotifier, times(1)).knocked(testRoom, response);
+            verifyNoInteractions(notificationDispatcher);
+        }
+
+        @Test
+        void shouldIgnoreRepeatKnocks() {
+            User newUser = User.builder()
+                    .id("new-user-123")
+                    .email("newUser123@test.com")
+                    .build();
+            UserResponse response = UserResponse.builder()
+                    .id(newUser.getId())
+                    .email(newUser.getEmail())
+                    .build();
+            var authentication = new UsernamePasswordAuthenticationToken(newUser, null, Collections.emptyList());
+
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenReturn(testRoom);
+            when(userMapper.toUserResponse(newUser))
+                    .thenReturn(response);
+
+            meetingService.getAdminPermission("abc-efgh-ijq", authentication);
+            meetingService.getAdminPermission("abc-efgh-ijq", authentication);
+            meetingService.getAdminPermission("abc-efgh-ijq", authentication);
+
+            assertEquals(1, testRoom.waitingCount());
+            verify(roomWriter, times(1)).userWaiting(testRoom.getMeetingId(), newUser.getId());
+            verify(waitingRoomNotifier, times(1)).knocked(testRoom, response);
         }
 
         @Test
         void shouldThrowException_whenMeetingNotFound() {
-            when(meetingRepository.findByMeetingCode("abc-efgh-ijq"))
-                    .thenReturn(Optional.empty());
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenThrow(new EntityNotFoundException("Meeting is not found with code: abc-efgh-ijq"));
 
             EntityNotFoundException exception = assertThrows(
                     EntityNotFoundException.class,
                     () -> meetingService.getAdminPermission("abc-efgh-ijq", testAuthentication)
             );
 
-            assertEquals("Meeting is not found with ID: abc-efgh-ijq", exception.getMessage());
+            assertEquals("Meeting is not found with code: abc-efgh-ijq", exception.getMessage());
 
-            verifyNoInteractions(messagingTemplate, userMapper);
+            verifyNoInteractions(waitingRoomNotifier, userMapper);
         }
     }
 
@@ -436,22 +450,11 @@ class MeetingServiceTests {
         @DisplayName("Should generate permission for users successfully")
         void shouldGeneratePermissionForUsersSuccessfully() throws OperationNotPermittedException {
             List<String> userIds = List.of("user-1", "user-2");
+            testRoom.knock(UserResponse.builder().id("user-1").build());
+            testRoom.knock(UserResponse.builder().id("user-2").build());
 
-            var waitingUser1 = User.builder()
-                    .id("user-1")
-                    .email("user1@test.com")
-                    .build();
-            var waitingUser2 = User.builder()
-                    .id("user-2")
-                    .email("user2@test.com")
-                    .build();
-
-            when(meetingRepository.findByMeetingCode("abc-efgh-ijq"))
-                    .thenReturn(Optional.of(testSavedMeeting));
-            when(userRepository.findById("user-1"))
-                    .thenReturn(Optional.of(waitingUser1));
-            when(userRepository.findById("user-2"))
-                    .thenReturn(Optional.of(waitingUser2));
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenReturn(testRoom);
 
             meetingService.generatePermissionToUsers(
                     "abc-efgh-ijq",
@@ -459,21 +462,75 @@ class MeetingServiceTests {
                     userIds
             );
 
-            assertEquals(2, testSavedMeeting.getAllowedUsers().size());
-            assertTrue(testSavedMeeting.getAllowedUsers().contains(waitingUser1));
-            assertTrue(testSavedMeeting.getAllowedUsers().contains(waitingUser2));
-            assertTrue(testSavedMeeting.getWaitingUsers().isEmpty());
+            assertTrue(testRoom.canJoin("user-1"));
+            assertTrue(testRoom.canJoin("user-2"));
+            assertTrue(testRoom.waitingUsers().isEmpty());
+
+            verify(roomWriter, times(1)).usersAllowed(testRoom.getMeetingId(), userIds);
+            verify(roomWriter, times(1)).waitingRemoved(testRoom.getMeetingId(), userIds);
+            verify(notificationDispatcher, times(1)).convertAndSend(
+                    "/topic/allowed/in/meeting/" + testRoom.getMeetingCode(),
+                    userIds
+            );
+            // waiting users are known to exist
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        @DisplayName("Should look up users outside the waiting room in one query and skip unknown ids")
+        void shouldCheckUnknownUsersInOneQuery() throws OperationNotPermittedException {
+            testRoom.knock(UserResponse.builder().id("user-1").build());
 
-            verify(meetingRepository, times(1)).save(testSavedMeeting);
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenReturn(testRoom);
+            when(userRepository.findIdsByIdIn(List.of("user-2", "user-x")))
+                    .thenReturn(List.of("user-2"));
 
-            verify(messagingTemplate, times(1)).convertAndSend(
-                    eq("/topic/allowed/in/meeting/abc-efgh-ijq/user-1"),
-                    eq("user-1")
+            meetingService.generatePermissionToUsers(
+                    "abc-efgh-ijq",
+                    testAuthentication,
+                    List.of("user-1", "user-2", "user-x", "user-1")
             );
-            verify(messagingTemplate, times(1)).convertAndSend(
-                    eq("/topic/allowed/in/meeting/abc-efgh-ijq/user-2"),
-                    eq("user-2")
+
+            assertTrue(testRoom.canJoin("user-2"));
+            assertFalse(testRoom.canJoin("user-x"));
+            verify(userRepository, times(1)).findIdsByIdIn(anyCollection());
+            verify(roomWriter, times(1)).usersAllowed(testRoom.getMeetingId(), List.of("user-1", "user-2"));
+            verify(roomWriter, times(1)).waitingRemoved(testRoom.getMeetingId(), List.of("user-1", "user-2", "user-x"));
+            verify(notificationDispatcher, times(1)).convertAndSend(anyString(), any(Object.class));
+        }
+
+        @Test
+        @DisplayName("Should admit everyone in the waiting room")
+        void shouldAdmitAllWaitingUsers() throws OperationNotPermittedException {
+            testRoom.knock(UserResponse.builder().id("user-1").build());
+            testRoom.knock(UserResponse.builder().id("user-2").build());
+
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenReturn(testRoom);
+
+            List<String> result = meetingService.admitAllWaiting("abc-efgh-ijq", testAuthentication);
+
+            assertEquals(List.of("user-1", "user-2"), result);
+            assertTrue(testRoom.waitingUsers().isEmpty());
+            assertEquals(1, testRoom.getEvents().lastSequence());
+            verify(roomWriter, times(1)).usersAllowed(testRoom.getMeetingId(), result);
+            verify(notificationDispatcher, times(1)).convertAndSend(
+                    "/topic/allowed/in/meeting/" + testRoom.getMeetingCode(),
+                    result
             );
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        @DisplayName("Should do nothing when nobody is waiting")
+        void shouldSkipAdmitAll_whenNobodyIsWaiting() throws OperationNotPermittedException {
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenReturn(testRoom);
+
+            assertTrue(meetingService.admitAllWaiting("abc-efgh-ijq", testAuthentication).isEmpty());
+
+            verifyNoInteractions(roomWriter, notificationDispatcher);
         }
 
         @Test
@@ -484,8 +541,8 @@ class MeetingServiceTests {
                     .email("userx@test.com")
                     .build();
 
-            when(meetingRepository.findByMeetingCode("abc-efgh-ijq"))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenReturn(testRoom);
 
             OperationNotPermittedException exception = assertThrows(
                     OperationNotPermittedException.class,
@@ -498,14 +555,14 @@ class MeetingServiceTests {
 
             assertEquals("Only admin of the meeting can generate permission", exception.getMessage());
 
-            verifyNoInteractions(userRepository, messagingTemplate);
+            verifyNoInteractions(userRepository, roomWriter, notificationDispatcher);
         }
 
         @Test
         @DisplayName("Should throw exception successfully when meeting not found")
         void shouldThrowException_whenMeetingNotFound() {
-            when(meetingRepository.findByMeetingCode("abc-efgh-ijq"))
-                    .thenReturn(Optional.empty());
+            when(roomRegistry.resolve("abc-efgh-ijq"))
+                    .thenThrow(new EntityNotFoundException("Meeting is not found with code: abc-efgh-ijq"));
 
             EntityNotFoundException exception = assertThrows(
                     EntityNotFoundException.class,
@@ -516,9 +573,9 @@ class MeetingServiceTests {
                     )
             );
 
-            assertEquals("Meeting is not found with ID: abc-efgh-ijq", exception.getMessage());
+            assertEquals("Meeting is not found with code: abc-efgh-ijq", exception.getMessage());
 
-            verifyNoInteractions(userRepository, messagingTemplate);
+            verifyNoInteractions(userRepository, notificationDispatcher);
         }
     }
 
@@ -531,15 +588,15 @@ class MeetingServiceTests {
         void shouldReturnTrue_whenUserIsAdmin() {
             String meetingCode = "abc-hsgd-wue";
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             Boolean result = meetingService.hasPermissionToJoin(meetingCode, testAuthentication);
 
             assertTrue(result);
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
+            verify(roomRegistry, times(1))
+                    .resolve(meetingCode);
         }
 
         @Test
@@ -551,10 +608,10 @@ class MeetingServiceTests {
                     .email("allowedUser1@test.com")
                     .build();
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
-            testSavedMeeting.setAllowedUsers(Set.of(allowedUser));
+            testRoom.allow(List.of(allowedUser.getId()));
 
             Boolean result = meetingService.hasPermissionToJoin(
                     meetingCode,
@@ -562,9 +619,6 @@ class MeetingServiceTests {
             );
 
             assertTrue(result);
-
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
         }
 
         @Test
@@ -576,8 +630,8 @@ class MeetingServiceTests {
                     .email("allowedUser1@test.com")
                     .build();
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             Boolean result = meetingService.hasPermissionToJoin(
                     meetingCode,
@@ -585,9 +639,6 @@ class MeetingServiceTests {
             );
 
             assertFalse(result);
-
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
         }
 
         @Test
@@ -595,15 +646,15 @@ class MeetingServiceTests {
         void shouldThrowException_whenMeetingNotFoundById() {
             String meetingCode = "abc-hsgd-wue";
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.empty());
+            when(roomRegistry.resolve(meetingCode))
+                    .thenThrow(new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
 
             EntityNotFoundException exception = assertThrows(
                     EntityNotFoundException.class,
                     () -> meetingService.hasPermissionToJoin(meetingCode, testAuthentication)
             );
 
-            assertEquals("Meeting is not found with ID: " + meetingCode, exception.getMessage());
+            assertEquals("Meeting is not found with code: " + meetingCode, exception.getMessage());
         }
     }
 
@@ -614,46 +665,28 @@ class MeetingServiceTests {
         void shouldReturnWaitingUsers_whenUserIsAdmin() throws OperationNotPermittedException {
             String meetingCode = "ahd-ahds-eur";
 
-            var waitingUser1 = User.builder()
+            var waitingUser1 = UserResponse.builder()
                     .id("user-1")
                     .email("user1@test.com")
                     .build();
-            var waitingUser2 = User.builder()
+            var waitingUser2 = UserResponse.builder()
                     .id("user-2")
                     .email("user2@test.com")
                     .build();
+            testRoom.knock(waitingUser1);
+            testRoom.knock(waitingUser2);
 
-            testSavedMeeting.setWaitingUsers(Set.of(waitingUser1, waitingUser2));
-
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
-            when(userMapper.toUserResponse(waitingUser1))
-                    .thenReturn(UserResponse.builder()
-                            .id(waitingUser1.getId())
-                            .email(waitingUser1.getEmail())
-                            .build()
-                    );
-            when(userMapper.toUserResponse(waitingUser2))
-                    .thenReturn(UserResponse.builder()
-                            .id(waitingUser2.getId())
-                            .email(waitingUser2.getEmail())
-                            .build()
-                    );
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             List<UserResponse> result = meetingService.getWaitingUsers(meetingCode, testAuthentication);
 
-            assertEquals(2, result.size());
-            assertTrue(result.stream()
-                    .allMatch(wu ->
-                            Objects.equals(wu.getId(), waitingUser1.getId()) ||
-                                    Objects.equals(wu.getId(), waitingUser2.getId())
-                    )
-            );
+            // longest waiting first
+            assertEquals(List.of(waitingUser1, waitingUser2), result);
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(anyString());
-            verify(userMapper, times(2))
-                    .toUserResponse(any(User.class));
+            verify(roomRegistry, times(1))
+                    .resolve(anyString());
+            verifyNoInteractions(userMapper, meetingRepository);
         }
 
         @Test
@@ -664,8 +697,8 @@ class MeetingServiceTests {
                     .email("userx@test.com")
                     .build();
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             OperationNotPermittedException exception = assertThrows(
                     OperationNotPermittedException.class,
@@ -681,91 +714,146 @@ class MeetingServiceTests {
         void shouldThrowException_whenMeetingNotFoundById() {
             String meetingCode = "ajs-fhds-wue";
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.empty());
+            when(roomRegistry.resolve(meetingCode))
+                    .thenThrow(new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
 
             EntityNotFoundException exception = assertThrows(
                     EntityNotFoundException.class,
                     () -> meetingService.getWaitingUsers(meetingCode, testAuthentication)
             );
 
-            assertEquals("Meeting is not found with ID: " + meetingCode, exception.getMessage());
+            assertEquals("Meeting is not found with code: " + meetingCode, exception.getMessage());
 
             verifyNoInteractions(userMapper);
         }
     }
 
     @Nested
-    class GetMeetingParticipantsAllTests {
+    class RosterPageTests {
+
+        private final LocalDateTime start = LocalDateTime.now().minusMinutes(10);
+
+        @BeforeEach
+        void setupRoster() {
+            ReflectionTestUtils.setField(meetingService, "maxRosterPageSize", 100);
+            testRoom.join(new MeetingRoom.RoomParticipant("participant-1", UserResponse.builder().id("user-1").build(), start.plusSeconds(1), false));
+            testRoom.join(new MeetingRoom.RoomParticipant("participant-2", UserResponse.builder().id("user-2").build(), start.plusSeconds(2), false));
+            testRoom.join(new MeetingRoom.RoomParticipant("participant-3", UserResponse.builder().id("user-3").build(), start.plusSeconds(3), false));
+            testRoom.join(new MeetingRoom.RoomParticipant("participant-4", UserResponse.builder().id("user-4").build(), start.plusSeconds(4), false));
+            testRoom.join(new MeetingRoom.RoomParticipant("participant-self", UserResponse.builder().id(testUser.getId()).build(), start.plusSeconds(5), false));
+
+            lenient().when(roomRegistry.resolve("abc-defg-hij"))
+                    .thenReturn(testRoom);
+            lenient().when(speakerDetector.currentSpeakers(testRoom.getMeetingCode()))
+                    .thenReturn(List.of("user-3"));
+            lenient().when(meetingMapper.toMeetingParticipantResponse(any(MeetingRoom.RoomParticipant.class), anyBoolean()))
+                    .thenAnswer(invocation -> MeetingParticipantResponse.builder()
+                            .id(((MeetingRoom.RoomParticipant) invocation.getArgument(0)).id())
+                            .build());
+        }
 
         @Test
-        void shouldGetMeetingParticipantsSuccessfully() {
-            String meetingCode = "abc-ahsf-hgf";
+        void shouldWalkRosterInOrder_acrossPages() throws OperationNotPermittedException {
+            List<String> ids = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                CursorResponse<MeetingParticipantResponse> page = meetingService.getRosterPage("abc-defg-hij", cursor, 2, testAuthentication);
+                page.getContent().forEach(participant -> ids.add(participant.getId()));
+                cursor = page.getNextCursor();
+                pages++;
+                assertEquals(page.isHasMore(), cursor != null);
+            } while (cursor != null);
+
+            // self (also the admin), the active speaker, then by join time
+            assertEquals(List.of("participant-self", "participant-3", "participant-1", "participant-2", "participant-4"), ids);
+            assertEquals(3, pages);
+        }
 
-            MeetingParticipant meetingParticipant1 = MeetingParticipant.builder()
-                    .id("participant-1")
-                    .user(User.builder()
-                            .id("user-2")
-                            .email("user2@test.com")
-                            .build()
-                    )
-                    .build();
-            MeetingParticipant meetingParticipant2 = MeetingParticipant.builder()
-                    .id("participant-2")
-                    .user(User.builder()
-                            .id("user-3")
-                            .email("user3@test.com")
-                            .build()
-                    )
-                    .build();
-            MeetingParticipant meetingParticipant3 = MeetingParticipant.builder()
-                    .id("participant-3")
-                    .user(testUser)
-                    .build();
+        @Test
+        void shouldMapOnlyTheRequestedPage() throws OperationNotPermittedException {
+            meetingService.getRosterPage("abc-defg-hij", null, 2, testAuthentication);
 
+            verify(meetingMapper, times(2)).toMeetingParticipantResponse(any(MeetingRoom.RoomParticipant.class), anyBoolean());
+        }
 
-            testSavedMeeting.setMeetingParticipants(
-                    new LinkedHashSet<>(List.of(meetingParticipant1, meetingParticipant2, meetingParticipant3))
+        @Test
+        void shouldThrowException_whenCursorIsInvalid() {
+            OperationNotPermittedException exception = assertThrows(
+                    OperationNotPermittedException.class,
+                    () -> meetingService.getRosterPage("abc-defg-hij", "not-a-cursor", 2, testAuthentication)
             );
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
-            when(userMapper.toUserResponse(argThat(user -> user != null && user.getId().equals("user-2"))))
-                    .thenReturn(UserResponse.builder()
-                            .id(meetingParticipant1.getUser().getId())
-                            .email(meetingParticipant1.getUser().getEmail())
-                            .build()
-                    );
-            when(userMapper.toUserResponse(argThat(user ->  user != null && user.getId().equals("user-3"))))
-                    .thenReturn(UserResponse.builder()
-                            .id(meetingParticipant2.getUser().getId())
-                            .email(meetingParticipant2.getUser().getEmail())
-                            .build()
-                    );
-            when(userMapper.toUserResponse(testUser))
-                    .thenReturn(UserResponse.builder()
-                            .id(testUser.getId())
-                            .email(testUser.getEmail())
-                            .build()
-                    );
+            assertEquals("Invalid cursor.", exception.getMessage());
+        }
+
+        @Test
+        void shouldRankRaisedHands_beforeOthers() throws OperationNotPermittedException {
+            testRoom.updateMedia("user-4", MeetingMediaType.HAND, true);
+
+            List<String> ids = meetingService.getRosterPage("abc-defg-hij", null, 10, testAuthentication)
+                    .getContent()
+                    .stream()
+                    .map(MeetingParticipantResponse::getId)
+                    .toList();
+
+            assertEquals(List.of("participant-self", "participant-3", "participant-4", "participant-1", "participant-2"), ids);
+        }
+
+        @Test
+        void shouldSummarizeRoster() {
+            testRoom.knock(UserResponse.builder().id("user-9").build());
+
+            MeetingRosterSummary summary = meetingService.getRosterSummary("abc-defg-hij", testAuthentication);
+
+            assertEquals(5, summary.getParticipantCount());
+            assertEquals(1, summary.getWaitingCount());
+            assertEquals(List.of("user-3"), summary.getActiveSpeakers());
+            verifyNoInteractions(meetingMapper);
+        }
+    }
+
+    @Nested
+    class GetMeetingParticipantsAllTests {
+
+        @Test
+        void shouldGetMeetingParticipantsSuccessfully() {
+            String meetingCode = "abc-ahsf-hgf";
+
+            testRoom.join(roomParticipant("participant-1", "user-2", "user2@test.com"));
+            testRoom.join(roomParticipant("participant-2", "user-3", "user3@test.com"));
+            testRoom.join(roomParticipant("participant-3", testUser.getId(), testUser.getEmail()));
+
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+            when(meetingMapper.toMeetingParticipantResponse(any(MeetingRoom.RoomParticipant.class), anyBoolean()))
+                    .thenAnswer(invocation -> {
+                        MeetingRoom.RoomParticipant participant = invocation.getArgument(0);
+                        return MeetingParticipantResponse.builder()
+                                .id(participant.id())
+                                .user(participant.user())
+                                .isAdmin(invocation.getArgument(1))
+                                .build();
+                    });
 
             List<MeetingParticipantResponse> result = meetingService.getMeetingParticipantsAll(meetingCode, testAuthentication);
 
             assertEquals(3, result.size());
             assertEquals(testUser.getEmail(), result.getFirst().getUser().getEmail());
+            assertTrue(result.getFirst().isAdmin());
+            assertFalse(result.get(1).isAdmin());
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
-            verify(userMapper, times(result.size()))
-                    .toUserResponse(any(User.class));
+            verify(roomRegistry, times(1))
+                    .resolve(meetingCode);
+            verifyNoInteractions(userMapper, meetingRepository);
         }
 
         @Test
         void shouldThrowException_whenMeetingNotFoundById() {
             String meetingCode = "ajs-fhds-wue";
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.empty());
+            when(roomRegistry.resolve(meetingCode))
+                    .thenThrow(new EntityNotFoundException("Meeting is not found with code: " + meetingCode));
 
             EntityNotFoundException exception = assertThrows(
                     EntityNotFoundException.class,
@@ -774,7 +862,205 @@ class MeetingServiceTests {
 
             assertEquals("Meeting is not found with code: " + meetingCode, exception.getMessage());
 
-            verifyNoInteractions(userMapper);
+            verifyNoInteractions(userMapper, meetingMapper);
+        }
+    }
+
+    @Nested
+    class SyncMeetingTests {
+
+        @Test
+        void shouldReturnMissedEvents_whenStillBuffered() {
+            String meetingCode = "abc-defg-hij";
+            testRoom.getEvents().append(MeetingEventType.PARTICIPANT_JOINED, "first");
+            testRoom.getEvents().append(MeetingEventType.PARTICIPANT_LEFT, "second");
+            testRoom.getEvents().append(MeetingEventType.USERS_ADMITTED, "third");
+
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+
+            MeetingSyncResponse result = meetingService.syncMeeting(
+                    meetingCode, 1L, testRoom.getEvents().getEpoch(), testAuthentication);
+
+            assertEquals(3, result.getSequence());
+            assertEquals(List.of(2L, 3L), result.getEvents().stream().map(MeetingEvent::sequence).toList());
+            assertNull(result.getParticipants());
+            verifyNoInteractions(meetingMapper);
+        }
+
+        @Test
+        void shouldReturnNoEvents_whenClientIsUpToDate() {
+            String meetingCode = "abc-defg-hij";
+            testRoom.getEvents().append(MeetingEventType.PARTICIPANT_JOINED, "first");
+
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+
+            MeetingSyncResponse result = meetingService.syncMeeting(
+                    meetingCode, 1L, testRoom.getEvents().getEpoch(), testAuthentication);
+
+            assertEquals(1, result.getSequence());
+            assertTrue(result.getEvents().isEmpty());
+        }
+
+        @Test
+        void shouldReturnSnapshot_whenEventsRolledOver() {
+            String meetingCode = "abc-defg-hij";
+            testRoom.join(roomParticipant("participant-1", testUser.getId(), testUser.getEmail()));
+            for (int i = 0; i < 20; i++) {
+                testRoom.getEvents().append(MeetingEventType.PARTICIPANT_JOINED, "event-" + i);
+            }
+
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+            when(meetingMapper.toMeetingParticipantResponse(any(MeetingRoom.RoomParticipant.class), anyBoolean()))
+                    .thenReturn(MeetingParticipantResponse.builder().build());
+
+            MeetingSyncResponse result = meetingService.syncMeeting(
+                    meetingCode, 2L, testRoom.getEvents().getEpoch(), testAuthentication);
+
+            assertEquals(20, result.getSequence());
+            assertNull(result.getEvents());
+            assertEquals(1, result.getParticipants().size());
+            assertEquals(Map.of(testUser.getId(), MeetingMediaType.MIC.bit() | MeetingMediaType.CAMERA.bit()), result.getMedia());
+        }
+
+        @Test
+        void shouldReturnSnapshot_whenEpochChanged() {
+            String meetingCode = "abc-defg-hij";
+            testRoom.getEvents().append(MeetingEventType.PARTICIPANT_JOINED, "first");
+
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+
+            MeetingSyncResponse result = meetingService.syncMeeting(meetingCode, 0L, "old-epoch", testAuthentication);
+
+            assertEquals(testRoom.getEvents().getEpoch(), result.getEpoch());
+            assertNull(result.getEvents());
+            assertTrue(result.getParticipants().isEmpty());
+        }
+    }
+
+    @Nested
+    class RemoveDisconnectedTests {
+
+        @Test
+        void shouldRemoveDisconnectedParticipants() {
+            String meetingCode = "abc-defg-hij";
+            MeetingRoom.RoomParticipant gone = roomParticipant("participant-1", "user-2", "user2@test.com");
+            testRoom.join(gone);
+            testRoom.join(roomParticipant("participant-2", "user-3", "user3@test.com"));
+
+            when(roomRegistry.find(meetingCode))
+                    .thenReturn(Optional.of(testRoom));
+            when(meetingMapper.toMeetingParticipantResponse(gone, false))
+                    .thenReturn(MeetingParticipantResponse.builder().id(gone.id()).build());
+
+            meetingService.removeDisconnected(meetingCode, List.of("user2@test.com", "stranger@test.com"));
+
+            assertFalse(testRoom.isParticipant("user-2"));
+            assertTrue(testRoom.isParticipant("user-3"));
+            verify(roomWriter, times(1)).participantLeft(gone);
+            verify(rosterCoalescer, times(1))
+                    .removed(eq(meetingCode), any(MeetingParticipantResponse.class));
+        }
+
+        @Test
+        void shouldDoNothing_whenRoomIsNotLive() {
+            when(roomRegistry.find("abc-defg-hij"))
+                    .thenReturn(Optional.empty());
+
+            meetingService.removeDisconnected("abc-defg-hij", List.of("user2@test.com"));
+
+            verifyNoInteractions(roomWriter, rosterCoalescer);
+        }
+    }
+
+    @Nested
+    class UpdateMediaTests {
+
+        private final String meetingCode = "abc-defg-hij";
+
+        @BeforeEach
+        void setupRoom() {
+            testRoom.join(roomParticipant("participant-1", testUser.getId(), testUser.getEmail()));
+            lenient().when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+        }
+
+        @Test
+        void shouldPersistAndAnnounce_whenMicIsMuted() throws OperationNotPermittedException {
+            meetingService.updateMedia(meetingCode, MeetingMediaType.MIC, false, testAuthentication);
+
+            assertTrue(testRoom.findParticipant(testUser.getId()).orElseThrow().muted());
+            verify(roomWriter, times(1)).participantMuted("participant-1", true);
+            verify(rosterCoalescer, times(1)).mediaChanged(meetingCode, testUser.getId(), MeetingMediaType.CAMERA.bit(), 1L);
+        }
+
+        @Test
+        void shouldOnlyAnnounce_whenHandIsRaised() throws OperationNotPermittedException {
+            meetingService.updateMedia(meetingCode, MeetingMediaType.HAND, true, testAuthentication);
+
+            verify(rosterCoalescer, times(1)).mediaChanged(meetingCode, testUser.getId(),
+                    MeetingMediaType.MIC.bit() | MeetingMediaType.CAMERA.bit() | MeetingMediaType.HAND.bit(), 1L);
+            verifyNoInteractions(roomWriter);
+        }
+
+        @Test
+        void shouldLogChange_forEventSync() throws OperationNotPermittedException {
+            long before = testRoom.getEvents().lastSequence();
+
+            meetingService.updateMedia(meetingCode, MeetingMediaType.HAND, true, testAuthentication);
+            meetingService.updateMedia(meetingCode, MeetingMediaType.MIC, false, testAuthentication);
+
+            List<MeetingEvent> events = testRoom.getEvents().since(before).orElseThrow();
+            assertEquals(2, events.size());
+            assertTrue(events.stream().allMatch(event -> event.type() == MeetingEventType.MEDIA_CHANGED));
+            MeetingMediaChangeResponse last = (MeetingMediaChangeResponse) events.getLast().payload();
+            assertEquals(testUser.getId(), last.getUserId());
+            assertEquals(MeetingMediaType.CAMERA.bit() | MeetingMediaType.HAND.bit(), last.getBits());
+        }
+
+        @Test
+        void shouldNotLogChange_whenStateIsUnchanged() throws OperationNotPermittedException {
+            long before = testRoom.getEvents().lastSequence();
+
+            meetingService.updateMedia(meetingCode, MeetingMediaType.CAMERA, true, testAuthentication);
+
+            assertEquals(before, testRoom.getEvents().lastSequence());
+        }
+
+        @Test
+        void shouldDoNothing_whenStateIsUnchanged() throws OperationNotPermittedException {
+            meetingService.updateMedia(meetingCode, MeetingMediaType.CAMERA, true, testAuthentication);
+
+            verifyNoInteractions(roomWriter, rosterCoalescer);
+        }
+
+        @Test
+        void shouldThrowException_whenUserIsNotParticipant() {
+            testRoom.leave(testUser.getId());
+
+            OperationNotPermittedException exception = assertThrows(
+                    OperationNotPermittedException.class,
+                    () -> meetingService.updateMedia(meetingCode, MeetingMediaType.MIC, true, testAuthentication)
+            );
+
+            assertEquals("Only participants of the meeting can change their media.", exception.getMessage());
+            verifyNoInteractions(roomWriter, rosterCoalescer);
+        }
+
+        @Test
+        void shouldReturnMediaSnapshot() {
+            testRoom.join(roomParticipant("participant-2", "user-2", "user2@test.com"));
+            testRoom.updateMedia("user-2", MeetingMediaType.MIC, false);
+
+            MeetingMediaResponse response = meetingService.getMediaState(meetingCode);
+
+            assertEquals(Map.of(
+                    testUser.getId(), MeetingMediaType.MIC.bit() | MeetingMediaType.CAMERA.bit(),
+                    "user-2", MeetingMediaType.CAMERA.bit()
+            ), response.getStates());
         }
     }
 
@@ -785,30 +1071,30 @@ class MeetingServiceTests {
         void shouldReturnTrue_whenMeetingExistsByCode() {
             String meetingCode = "ahd-uerd-ajd";
 
-            when(meetingRepository.existsByMeetingCode(meetingCode))
+            when(codeFilter.exists(meetingCode))
                     .thenReturn(true);
 
             Boolean result = meetingService.isExist(meetingCode);
 
             assertTrue(result);
 
-            verify(meetingRepository, times(1))
-                    .existsByMeetingCode(meetingCode);
+            verify(codeFilter, times(1))
+                    .exists(meetingCode);
         }
 
         @Test
         void shouldReturnFalse_whenMeetingNotExistsByCode() {
             String meetingCode = "ahd-uerd-ajd";
 
-            when(meetingRepository.existsByMeetingCode(meetingCode))
+            when(codeFilter.exists(meetingCode))
                     .thenReturn(false);
 
             Boolean result = meetingService.isExist(meetingCode);
 
             assertFalse(result);
 
-            verify(meetingRepository, times(1))
-                    .existsByMeetingCode(meetingCode);
+            verify(codeFilter, times(1))
+                    .exists(meetingCode);
         }
     }
 
@@ -819,51 +1105,28 @@ class MeetingServiceTests {
         void shouldRemoveUserFromMeetingSuccessfully() {
             String meetingCode = "ajd-hfgd-ytt";
 
-            MeetingParticipant meetingParticipant1 = MeetingParticipant.builder()
-                    .id("participant-1")
-                    .user(User.builder()
-                            .id("user-2")
-                            .email("user2@test.com")
-                            .build()
-                    )
-                    .build();
-            MeetingParticipant meetingParticipant2 = MeetingParticipant.builder()
-                    .id("participant-2")
-                    .user(User.builder()
-                            .id("user-3")
-                            .email("user3@test.com")
-                            .build()
-                    )
-                    .build();
-            MeetingParticipant meetingParticipant3 = MeetingParticipant.builder()
-                    .id("participant-3")
-                    .user(testUser)
-                    .build();
-
+            MeetingRoom.RoomParticipant selfParticipant = roomParticipant("participant-3", testUser.getId(), testUser.getEmail());
+            testRoom.join(roomParticipant("participant-1", "user-2", "user2@test.com"));
+            testRoom.join(roomParticipant("participant-2", "user-3", "user3@test.com"));
+            testRoom.join(selfParticipant);
 
-            testSavedMeeting.setMeetingParticipants(
-                    new LinkedHashSet<>(List.of(meetingParticipant1, meetingParticipant2, meetingParticipant3))
-            );
-
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
-            when(meetingMapper.toMeetingParticipantResponse(meetingParticipant3))
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
+            when(meetingMapper.toMeetingParticipantResponse(selfParticipant, true))
                     .thenReturn(MeetingParticipantResponse.builder()
-                            .id(meetingParticipant3.getId())
-                            .user(UserResponse.builder()
-                                    .id(meetingParticipant3.getUser().getId())
-                                    .email(meetingParticipant3.getUser().getEmail())
-                                    .build()
-                            )
+                            .id(selfParticipant.id())
+                            .user(selfParticipant.user())
                             .build());
 
             meetingService.removeFromMeeting(meetingCode, testAuthentication);
 
-            verify(meetingRepository, times(1))
-                    .findByMeetingCode(meetingCode);
-            verify(messagingTemplate, times(1))
-                    .convertAndSend(
-                            eq("/topic/meeting/" + meetingCode + "/participant/remove"),
+            assertFalse(testRoom.isParticipant(testUser.getId()));
+            assertEquals(2, testRoom.participantCount());
+            verify(roomWriter, times(1))
+                    .participantLeft(selfParticipant);
+            verify(rosterCoalescer, times(1))
+                    .removed(
+                            eq(meetingCode),
                             any(MeetingParticipantResponse.class)
                     );
         }
@@ -872,29 +1135,11 @@ class MeetingServiceTests {
         void shouldThrowException_whenUserIsNotExistOnParticipantsLists() {
             String meetingCode = "ajd-hfgd-ytt";
 
-            MeetingParticipant meetingParticipant1 = MeetingParticipant.builder()
-                    .id("participant-1")
-                    .user(User.builder()
-                            .id("user-2")
-                            .email("user2@test.com")
-                            .build()
-                    )
-                    .build();
-            MeetingParticipant meetingParticipant2 = MeetingParticipant.builder()
-                    .id("participant-2")
-                    .user(User.builder()
-                            .id("user-3")
-                            .email("user3@test.com")
-                            .build()
-                    )
-                    .build();
-
-            testSavedMeeting.setMeetingParticipants(
-                    new LinkedHashSet<>(List.of(meetingParticipant1, meetingParticipant2))
-            );
+            testRoom.join(roomParticipant("participant-1", "user-2", "user2@test.com"));
+            testRoom.join(roomParticipant("participant-2", "user-3", "user3@test.com"));
 
-            when(meetingRepository.findByMeetingCode(meetingCode))
-                    .thenReturn(Optional.of(testSavedMeeting));
+            when(roomRegistry.resolve(meetingCode))
+                    .thenReturn(testRoom);
 
             IllegalStateException exception = assertThrows(
                     IllegalStateException.class,
@@ -903,9 +1148,16 @@ class MeetingServiceTests {
 
             assertEquals("User is not a participant of this meeting", exception.getMessage());
 
-            verify(meetingRepository, never())
-                    .save(any(Meeting.class));
-            verifyNoInteractions(meetingMapper);
+            verifyNoInteractions(roomWriter, meetingMapper);
         }
     }
+
+    private static MeetingRoom.RoomParticipant roomParticipant(String id, String userId, String email) {
+        return new MeetingRoom.RoomParticipant(
+                id,
+                UserResponse.builder().id(userId).email(email).build(),
+                LocalDateTime.now(),
+                false
+        );
+    }
 }
@@ -0,0 +1,148 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Roster Coalescer Tests")
+@ActiveProfiles("test")
+class RosterCoalescerTest {
+
+    private static final String CODE = "abc-defg-hij";
+    private static final String TOPIC = "/topic/meeting/" + CODE + "/participants";
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    private RosterCoalescer coalescer;
+
+    @BeforeEach
+    void setup() {
+        coalescer = new RosterCoalescer(notificationDispatcher, new SimpleMeterRegistry());
+        coalescer.registerMetrics();
+    }
+
+    private static MeetingParticipantResponse participant(String id, long sequence) {
+        return MeetingParticipantResponse.builder().id(id).sequence(sequence).build();
+    }
+
+    private List<RosterDeltaResponse> frames() {
+        ArgumentCaptor<RosterDeltaResponse> captor = ArgumentCaptor.forClass(RosterDeltaResponse.class);
+        verify(notificationDispatcher, atLeast(0)).convertAndSend(eq(TOPIC), captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("Should merge the changes of one window into a single frame")
+    void shouldMergeChangesOfWindow() {
+        coalescer.removed(CODE, participant("participant-0", 1));
+        coalescer.added(CODE, participant("participant-1", 2));
+        coalescer.added(CODE, participant("participant-2", 3));
+
+        coalescer.flush();
+
+        List<RosterDeltaResponse> frames = frames();
+        assertEquals(1, frames.size());
+        assertEquals(List.of("participant-1", "participant-2"),
+                frames.getFirst().getAdded().stream().map(MeetingParticipantResponse::getId).toList());
+        assertEquals(1, frames.getFirst().getRemoved().size());
+        assertEquals(3, frames.getFirst().getSequence());
+    }
+
+    @Test
+    @DisplayName("Should drop participants who joined and left within the window")
+    void shouldCancelJoinAndLeave() {
+        coalescer.added(CODE, participant("participant-1", 1));
+        coalescer.removed(CODE, participant("participant-1", 2));
+
+        coalescer.flush();
+
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    @Test
+    @DisplayName("Should announce leaving when the join went out in an earlier frame")
+    void shouldAnnounceLeave_afterEarlierJoin() {
+        coalescer.added(CODE, participant("participant-1", 1));
+        coalescer.flush();
+        coalescer.removed(CODE, participant("participant-1", 2));
+        coalescer.flush();
+
+        List<RosterDeltaResponse> frames = frames();
+        assertEquals(2, frames.size());
+        assertEquals("participant-1", frames.get(1).getRemoved().getFirst().getId());
+    }
+
+    @Test
+    @DisplayName("Should send only the latest media bits of a user per window")
+    void shouldKeepLatestMediaBits() {
+        coalescer.mediaChanged(CODE, "user-1", MeetingMediaType.CAMERA.bit(), 4);
+        coalescer.mediaChanged(CODE, "user-2", MeetingMediaType.MIC.bit(), 5);
+        coalescer.mediaChanged(CODE, "user-1", MeetingMediaType.CAMERA.bit() | MeetingMediaType.HAND.bit(), 6);
+
+        coalescer.flush();
+
+        List<RosterDeltaResponse> frames = frames();
+        assertEquals(1, frames.size());
+        assertEquals(Map.of(
+                "user-1", MeetingMediaType.CAMERA.bit() | MeetingMediaType.HAND.bit(),
+                "user-2", MeetingMediaType.MIC.bit()
+        ), frames.getFirst().getMedia());
+        assertEquals(6, frames.getFirst().getSequence());
+        assertTrue(frames.getFirst().getAdded().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should send one frame per window during a join storm and deliver every join once")
+    void shouldBoundFrames_duringJoinStorm() throws Exception {
+        int joiners = 8;
+        int joinsEach = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(joiners);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < joiners; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < joinsEach; i++) {
+                    coalescer.added(CODE, participant("participant-" + thread + "-" + i, thread * joinsEach + i));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        int flushes = 0;
+        do {
+            coalescer.flush();
+            flushes++;
+        } while (!executor.awaitTermination(1, TimeUnit.MILLISECONDS));
+        coalescer.flush();
+        flushes++;
+
+        List<RosterDeltaResponse> frames = frames();
+        Set<String> delivered = new HashSet<>();
+        frames.forEach(frame -> frame.getAdded().forEach(added -> assertTrue(delivered.add(added.getId()))));
+        assertEquals(joiners * joinsEach, delivered.size());
+        assertTrue(frames.size() <= flushes, frames.size() + " frames for " + flushes + " windows");
+        assertTrue(frames.size() < joiners * joinsEach);
+    }
+}
@@ -0,0 +1,89 @@
+package dev.aniketkadam.server.meeting;
+
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.user.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Waiting Room Notifier Tests")
+@ActiveProfiles("test")
+class WaitingRoomNotifierTest {
+
+    private static final String TOPIC = "/topic/waiting/users/abc-defg-hij/admin@test.com";
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    private WaitingRoomNotifier notifier;
+    private MeetingRoom room;
+
+    @BeforeEach
+    void setup() {
+        notifier = new WaitingRoomNotifier(notificationDispatcher, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(notifier, "maxBatch", 2);
+        notifier.registerMetrics();
+        room = new MeetingRoom("meeting-1", "abc-defg-hij", "admin-1", "admin@test.com", 16);
+    }
+
+    private UserResponse knock(String userId) {
+        UserResponse user = UserResponse.builder().id(userId).build();
+        room.knock(user);
+        notifier.knocked(room, user);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Should send one update per room for all knocks since the last flush")
+    void shouldBatchKnocks() {
+        UserResponse first = knock("user-1");
+        UserResponse second = knock("user-2");
+
+        notifier.flush();
+
+        ArgumentCaptor<WaitingUsersResponse> captor = ArgumentCaptor.forClass(WaitingUsersResponse.class);
+        verify(notificationDispatcher, times(1)).convertAndSend(eq(TOPIC), captor.capture());
+        assertEquals(List.of(first, second), captor.getValue().getAdded());
+        assertEquals(2, captor.getValue().getWaitingCount());
+        assertFalse(captor.getValue().isTruncated());
+    }
+
+    @Test
+    @DisplayName("Should cap the users of one update and flag it as truncated")
+    void shouldTruncateLargeBatches() {
+        knock("user-1");
+        knock("user-2");
+        knock("user-3");
+
+        notifier.flush();
+
+        ArgumentCaptor<WaitingUsersResponse> captor = ArgumentCaptor.forClass(WaitingUsersResponse.class);
+        verify(notificationDispatcher).convertAndSend(eq(TOPIC), captor.capture());
+        assertEquals(2, captor.getValue().getAdded().size());
+        assertTrue(captor.getValue().isTruncated());
+        assertEquals(3, captor.getValue().getWaitingCount());
+    }
+
+    @Test
+    @DisplayName("Should stay quiet when nobody knocked")
+    void shouldSkipFlush_whenNothingPending() {
+        knock("user-1");
+        notifier.flush();
+
+        notifier.flush();
+
+        verify(notificationDispatcher, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+}
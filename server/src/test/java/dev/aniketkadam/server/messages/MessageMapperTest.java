@@ -3,6 +3,7 @@ package dev.aniketkadam.server.messages;
 import dev.aniketkadam.server.call.Call;
 import dev.aniketkadam.server.call.CallMapper;
 import dev.aniketkadam.server.call.CallResponse;
+import dev.aniketkadam.server.message.CompactMessage;
 import dev.aniketkadam.server.message.Message;
 import dev.aniketkadam.server.message.MessageMapper;
 import dev.aniketkadam.server.message.MessageResponse;
@@ -102,4 +103,23 @@ public class MessageMapperTest {
 
         }
     }
+
+    @Nested
+    @DisplayName("To Compact Message Tests")
+    class ToCompactMessageTests {
+
+        @Test
+        @DisplayName("Should map Message to CompactMessage without touching user or call mapping")
+        void shouldMapToCompactMessage() {
+            testMessage.setSequence(7L);
+
+            CompactMessage compactMessage = messageMapper.toCompactMessage(testMessage);
+
+            assertEquals(7L, compactMessage.getSeq());
+            assertEquals(testMessage.getSender().getId(), compactMessage.getSenderId());
+            assertEquals(testMessage.getContent(), compactMessage.getContent());
+            assertEquals(testMessage.getCreatedAt(), compactMessage.getCreatedAt());
+            verifyNoInteractions(userMapper, callMapper);
+        }
+    }
 }
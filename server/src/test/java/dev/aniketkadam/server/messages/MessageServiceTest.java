@@ -3,9 +3,15 @@ package dev.aniketkadam.server.messages;
 import dev.aniketkadam.server.call.Call;
 import dev.aniketkadam.server.call.CallRepository;
 import dev.aniketkadam.server.call.CallResponse;
+import dev.aniketkadam.server.call.CallSession;
+import dev.aniketkadam.server.call.CallSessionRegistry;
 import dev.aniketkadam.server.call.CallStatus;
 import dev.aniketkadam.server.exception.OperationNotPermittedException;
 import dev.aniketkadam.server.message.*;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.pagination.CursorResponse;
+import dev.aniketkadam.server.pagination.KeysetCursor;
+import dev.aniketkadam.server.profileImg.ProfileImg;
 import dev.aniketkadam.server.user.User;
 import dev.aniketkadam.server.user.UserResponse;
 import dev.aniketkadam.server.webrtc.CallMode;
@@ -15,11 +21,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -41,7 +49,11 @@ class MessageServiceTest {
     @Mock
     private MessageMapper messageMapper;
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private NotificationDispatcher notificationDispatcher;
+    @Mock
+    private CallSessionRegistry callSessionRegistry;
+    @Mock
+    private MessageWriteBehind messageWriteBehind;
 
     @InjectMocks
     private MessageService messageService;
@@ -105,6 +117,10 @@ class MessageServiceTest {
 
             when(callRepository.findById(callId))
                     .thenReturn(Optional.of(testCall));
+            when(callSessionRegistry.resolve(callId))
+                    .thenReturn(CallSession.from(testCall));
+            when(messageRepository.findLastSequence(callId))
+                    .thenReturn(4L);
             when(messageRepository.save(any(Message.class)))
                     .thenReturn(testSavedMessage);
             when(messageMapper.toMessageResponse(testSavedMessage))
@@ -120,11 +136,12 @@ class MessageServiceTest {
             assertEquals(content, result.getContent());
 
             verify(messageRepository).save(argThat(msg ->
+                    msg.getSequence() == 5L &&
                     msg.getSender().equals(testUser) &&
                     msg.getReceiver().equals(testCall.getReceiver()) &&
                     msg.getContent().equals(content)
             ));
-            verify(messagingTemplate).convertAndSend(
+            verify(notificationDispatcher).convertAndSend(
                     eq("/topic/call/" + callId + "/messages/user/" + testCall.getReceiver().getEmail()),
                     eq(result)
             );
@@ -136,6 +153,86 @@ class MessageServiceTest {
                     .toMessageResponse(any(Message.class));
         }
 
+        @Test
+        @DisplayName("Should push compact message when compact wire format is enabled")
+        void shouldPushCompactMessage_whenCompactFormatEnabled() throws OperationNotPermittedException {
+            ReflectionTestUtils.setField(messageService, "compactWireFormat", true);
+            CompactMessage compactMessage = CompactMessage.builder()
+                    .seq(1)
+                    .senderId(testUser.getId())
+                    .content("Unit testing message")
+                    .build();
+
+            when(callRepository.findById("call-123"))
+                    .thenReturn(Optional.of(testCall));
+            when(callSessionRegistry.resolve("call-123"))
+                    .thenReturn(CallSession.from(testCall));
+            when(messageRepository.save(any(Message.class)))
+                    .thenReturn(testSavedMessage);
+            when(messageMapper.toCompactMessage(testSavedMessage))
+                    .thenReturn(compactMessage);
+
+            CompactMessage result = messageService.sendCompactMessage("call-123", "Unit testing message", testAuthentication);
+
+            assertSame(compactMessage, result);
+            verify(notificationDispatcher).convertAndSend(
+                    eq("/topic/call/call-123/messages/user/" + testCall.getReceiver().getEmail()),
+                    eq(compactMessage)
+            );
+            verify(messageMapper, never()).toMessageResponse(any(Message.class));
+        }
+
+        @Test
+        @DisplayName("Should journal message without touching the database when write-behind is enabled")
+        void shouldJournalMessage_whenWriteBehindEnabled() throws OperationNotPermittedException {
+            when(messageWriteBehind.isEnabled())
+                    .thenReturn(true);
+            when(callSessionRegistry.resolve("call-123"))
+                    .thenReturn(CallSession.from(testCall));
+            when(messageRepository.findLastSequence("call-123"))
+                    .thenReturn(0L);
+            when(messageMapper.toMessageResponse(any(Message.class)))
+                    .thenReturn(testMessageResponse);
+
+            MessageResponse result = messageService.sendMessage("call-123", "Unit testing message", testAuthentication);
+
+            assertSame(testMessageResponse, result);
+            verify(messageWriteBehind).append(argThat(entry ->
+                    entry.id() != null &&
+                    entry.callId().equals("call-123") &&
+                    entry.senderId().equals(testUser.getId()) &&
+                    entry.receiverId().equals(testCall.getReceiver().getId()) &&
+                    entry.sequence() == 1L
+            ));
+            verify(notificationDispatcher).convertAndSend(
+                    eq("/topic/call/call-123/messages/user/" + testCall.getReceiver().getEmail()),
+                    eq(testMessageResponse)
+            );
+            verify(callRepository, never()).findById(any());
+            verify(messageRepository, never()).save(any(Message.class));
+        }
+
+        @Test
+        @DisplayName("Should keep the receiver profile in a write-behind message")
+        void shouldKeepProfiles_whenWriteBehindEnabled() throws OperationNotPermittedException {
+            testCall.getReceiver().setBirthDate(LocalDate.of(2000, 1, 1));
+            testCall.getReceiver().setProfile(ProfileImg.builder().profileUrl("https://cdn.test/receiver.jpg").build());
+            when(messageWriteBehind.isEnabled())
+                    .thenReturn(true);
+            when(callSessionRegistry.resolve("call-123"))
+                    .thenReturn(CallSession.from(testCall));
+            when(messageRepository.findLastSequence("call-123"))
+                    .thenReturn(0L);
+
+            messageService.sendMessage("call-123", "Unit testing message", testAuthentication);
+
+            verify(messageMapper).toMessageResponse(argThat(message ->
+                    message.getReceiver().getProfile().getProfileUrl().equals("https://cdn.test/receiver.jpg") &&
+                    message.getReceiver().getBirthDate().equals(LocalDate.of(2000, 1, 1)) &&
+                    message.getCall().getReceiver().getProfile() != null
+            ));
+        }
+
         @Test
         @DisplayName("Should throw exception when call not found")
         void shouldThrowException_whenCallNotFound() {
@@ -152,7 +249,7 @@ class MessageServiceTest {
 
             assertNotNull(exception);
             assertEquals("Call is not found with ID: " + callId, exception.getMessage());
-            verifyNoInteractions(messageRepository, messageMapper, messagingTemplate);
+            verifyNoInteractions(messageRepository, messageMapper, notificationDispatcher);
         }
 
         @Test
@@ -177,7 +274,7 @@ class MessageServiceTest {
 
             assertNotNull(exception);
             assertEquals("Only caller and receiver can send messages.", exception.getMessage());
-            verifyNoInteractions(messageRepository, messageMapper, messagingTemplate);
+            verifyNoInteractions(messageRepository, messageMapper, notificationDispatcher);
         }
 
         @Test
@@ -199,7 +296,7 @@ class MessageServiceTest {
 
             assertNotNull(exception);
             assertEquals("Call is ended or not accepted yet.", exception.getMessage());
-            verifyNoInteractions(messageRepository, messageMapper, messagingTemplate);
+            verifyNoInteractions(messageRepository, messageMapper, notificationDispatcher);
         }
     }
 
@@ -227,6 +324,8 @@ class MessageServiceTest {
 
             when(MessageServiceTest.this.callRepository.findById(callId))
                     .thenReturn(Optional.of(testCall));
+            when(MessageServiceTest.this.messageRepository.findAllByCallIdOrderByCreatedAtAsc(callId))
+                    .thenReturn(List.of(message1, message2));
             when(MessageServiceTest.this.messageMapper.toMessageResponse(message1))
                     .thenReturn(MessageResponse.builder()
                             .id(message1.getId())
@@ -296,5 +395,123 @@ class MessageServiceTest {
 
     }
 
-}
+    @Nested
+    @DisplayName("Get Message Page Tests")
+    class GetMessagePageTests {
+
+        private Message message(String id, int minute) {
+            return Message.builder()
+                    .id(id)
+                    .content(id)
+                    .call(testCall)
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 10, minute))
+                    .build();
+        }
+
+        @BeforeEach
+        void setup() {
+            ReflectionTestUtils.setField(messageService, "maxPageSize", 2);
+        }
+
+        @Test
+        @DisplayName("Should cap the page size and hand out a cursor to the older slice")
+        void shouldReturnLatestSliceCapped() throws OperationNotPermittedException {
+            Message newest = message("msg-3", 3);
+            Message middle = message("msg-2", 2);
+            Message oldest = message("msg-1", 1);
+
+            when(callRepository.findById("call-123"))
+                    .thenReturn(Optional.of(testCall));
+            when(messageRepository.findLatestByCallId(eq("call-123"), eq(Limit.of(3))))
+                    .thenReturn(List.of(newest, middle, oldest));
+            when(messageMapper.toMessageResponse(any(Message.class)))
+                    .thenAnswer(invocation -> MessageResponse.builder()
+                            .id(invocation.<Message>getArgument(0).getId())
+                            .build());
+
+            CursorResponse<MessageResponse> page = messageService.getMessagePage("call-123", null, null, 50, testAuthentication);
+
+            assertEquals(2, page.getSize());
+            assertEquals(List.of("msg-3", "msg-2"), page.getContent().stream().map(MessageResponse::getId).toList());
+            assertTrue(page.isHasMore());
+            KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+            assertEquals(middle.getId(), cursor.id());
+            assertEquals(middle.getCreatedAt(), cursor.timestamp());
+        }
+
+        @Test
+        @DisplayName("Should return only messages after the since cursor")
+        void shouldReturnMessagesSinceCursor() throws OperationNotPermittedException {
+            Message seen = message("msg-1", 1);
+            Message missed = message("msg-2", 2);
+            String since = new KeysetCursor(seen.getCreatedAt(), seen.getId()).encode();
+
+            when(callRepository.findById("call-123"))
+                    .thenReturn(Optional.of(testCall));
+            when(messageRepository.findByCallIdSince(eq("call-123"), eq(seen.getCreatedAt()), eq(seen.getId()), any(Limit.class)))
+                    .thenReturn(List.of(missed));
+            when(messageMapper.toMessageResponse(missed))
+                    .thenReturn(MessageResponse.builder().id(missed.getId()).build());
+
+            CursorResponse<MessageResponse> page = messageService.getMessagePage("call-123", null, since, 2, testAuthentication);
+
+            assertEquals(1, page.getContent().size());
+            assertFalse(page.isHasMore());
+            assertEquals(missed.getId(), KeysetCursor.decode(page.getNextCursor()).id());
+            verify(messageRepository, never()).findLatestByCallId(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should hand the since cursor back when nothing was missed")
+        void shouldKeepSinceCursor_whenNothingMissed() throws OperationNotPermittedException {
+            Message seen = message("msg-1", 1);
+            String since = new KeysetCursor(seen.getCreatedAt(), seen.getId()).encode();
+
+            when(callRepository.findById("call-123"))
+                    .thenReturn(Optional.of(testCall));
+            when(messageRepository.findByCallIdSince(eq("call-123"), eq(seen.getCreatedAt()), eq(seen.getId()), any(Limit.class)))
+                    .thenReturn(List.of());
+
+            CursorResponse<MessageResponse> page = messageService.getMessagePage("call-123", null, since, 2, testAuthentication);
+
+            assertTrue(page.getContent().isEmpty());
+            assertFalse(page.isHasMore());
+            assertEquals(since, page.getNextCursor());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when both before and since are given")
+        void shouldThrowException_whenBothCursorsGiven() {
+            String cursor = new KeysetCursor(LocalDateTime.now(), "msg-1").encode();
+
+            OperationNotPermittedException exception = assertThrows(
+                    OperationNotPermittedException.class,
+                    () -> messageService.getMessagePage("call-123", cursor, cursor, 2, testAuthentication)
+            );
+
+            assertEquals("Use either before or since, not both.", exception.getMessage());
+            verifyNoInteractions(callRepository, messageRepository);
+        }
 
+        @Test
+        @DisplayName("Should throw exception when user is not participant")
+        void shouldThrowException_whenUserIsNotParticipant() {
+            User outsider = User.builder()
+                    .id("outsider-123")
+                    .email("outsider@test.com")
+                    .build();
+
+            when(callRepository.findById("call-123"))
+                    .thenReturn(Optional.of(testCall));
+
+            OperationNotPermittedException exception = assertThrows(
+                    OperationNotPermittedException.class,
+                    () -> messageService.getMessagePage("call-123", null, null, 2, new UsernamePasswordAuthenticationToken(outsider, null, Collections.emptyList()))
+            );
+
+            assertEquals("Only caller and receiver can read messages.", exception.getMessage());
+            verifyNoInteractions(messageRepository, messageMapper);
+        }
+    }
+
+}
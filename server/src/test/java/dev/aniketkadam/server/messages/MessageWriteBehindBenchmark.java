@@ -0,0 +1,143 @@
+package dev.aniketkadam.server.messages;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.aniketkadam.server.message.MessageJournalEntry;
+import dev.aniketkadam.server.message.MessageWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the request path cost of storing a chat message: one INSERT per message, as
+ * {@code MessageService} does without write-behind, against appending to the
+ * {@link MessageWriteBehind} journal with and without fsync while a background thread
+ * flushes every 200 ms, as the scheduler does. Sample mode reports p50/p99 per message.
+ * <p>
+ * The database is H2 in memory, so the synchronous insert pays no network round trip and no
+ * commit fsync. Against Postgres it can only get slower.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageWriteBehindBenchmark {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO messages (id, content, sender_id, receiver_id, call_id, created_at, seq)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:chat-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute("""
+                CREATE TABLE messages (
+                    id VARCHAR(255) PRIMARY KEY,
+                    content VARCHAR(2000),
+                    sender_id VARCHAR(255),
+                    receiver_id VARCHAR(255),
+                    call_id VARCHAR(255),
+                    created_at TIMESTAMP,
+                    seq BIGINT
+                )
+                """);
+        return dataSource;
+    }
+
+    private static MessageJournalEntry entry(long sequence) {
+        return new MessageJournalEntry(UUID.randomUUID().toString(), "call-1", "user-1", "user-2",
+                "Can you hear me now?", LocalDateTime.now(), sequence);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Synchronous {
+
+        private HikariDataSource dataSource;
+        private JdbcTemplate jdbcTemplate;
+        private long sequence;
+
+        @Setup
+        public void setup() {
+            dataSource = dataSource();
+            jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        @TearDown
+        public void tearDown() {
+            dataSource.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class WriteBehind {
+
+        @Param({"true", "false"})
+        public boolean fsync;
+
+        private HikariDataSource dataSource;
+        private Path journalDir;
+        private MessageWriteBehind writeBehind;
+        private ScheduledExecutorService flusher;
+        private long sequence;
+
+        @Setup
+        public void setup() throws IOException {
+            dataSource = dataSource();
+            journalDir = Files.createTempDirectory("message-journal");
+            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            writeBehind = new MessageWriteBehind(new JdbcTemplate(dataSource), objectMapper, new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(writeBehind, "enabled", true);
+            ReflectionTestUtils.setField(writeBehind, "journalDir", journalDir.toString());
+            ReflectionTestUtils.setField(writeBehind, "fsync", fsync);
+            ReflectionTestUtils.setField(writeBehind, "batchSize", 500);
+            ReflectionTestUtils.invokeMethod(writeBehind, "start");
+            flusher = Executors.newSingleThreadScheduledExecutor();
+            flusher.scheduleWithFixedDelay(writeBehind::flush, 200, 200, TimeUnit.MILLISECONDS);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            flusher.shutdown();
+            ReflectionTestUtils.invokeMethod(writeBehind, "flushOnShutdown");
+            dataSource.close();
+            FileSystemUtils.deleteRecursively(journalDir);
+        }
+    }
+
+    @Benchmark
+    public int synchronousInsert(Synchronous state) {
+        MessageJournalEntry entry = entry(++state.sequence);
+        return state.jdbcTemplate.update(INSERT_SQL, entry.id(), entry.content(), entry.senderId(),
+                entry.receiverId(), entry.callId(), Timestamp.valueOf(entry.createdAt()), entry.sequence());
+    }
+
+    @Benchmark
+    public void writeBehindAppend(WriteBehind state) {
+        state.writeBehind.append(entry(++state.sequence));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageWriteBehindBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,193 @@
+package dev.aniketkadam.server.messages;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.aniketkadam.server.message.MessageJournalEntry;
+import dev.aniketkadam.server.message.MessageWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Message Write Behind Tests")
+@ActiveProfiles("test")
+class MessageWriteBehindTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path journalDir;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final List<List<MessageJournalEntry>> insertedBatches = new ArrayList<>();
+
+    private MessageWriteBehind newWriteBehind() {
+        MessageWriteBehind writeBehind = new MessageWriteBehind(jdbcTemplate, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(writeBehind, "fsync", true);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 100);
+        ReflectionTestUtils.invokeMethod(writeBehind, "start");
+        return writeBehind;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordInserts() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    insertedBatches.add(new ArrayList<>((Collection<MessageJournalEntry>) invocation.getArgument(1)));
+                    return new int[0][];
+                });
+    }
+
+    private static MessageJournalEntry entry(String id, long sequence) {
+        return new MessageJournalEntry(id, "call-1", "user-1", "user-2", "hello " + id,
+                LocalDateTime.of(2024, 1, 1, 10, 0), sequence);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.filter(path -> Files.isRegularFile(path)).count();
+        }
+    }
+
+    @Test
+    @DisplayName("Should insert appended messages in one batch and drop the covered segment")
+    void shouldFlushAppendedMessagesAsBatch() throws IOException {
+        recordInserts();
+        MessageWriteBehind writeBehind = newWriteBehind();
+
+        writeBehind.append(entry("msg-1", 1));
+        writeBehind.append(entry("msg-2", 2));
+        writeBehind.flush();
+
+        assertEquals(1, insertedBatches.size());
+        assertEquals(List.of("msg-1", "msg-2"), insertedBatches.getFirst().stream().map(MessageJournalEntry::id).toList());
+        // only the fresh, empty segment is left
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when nothing was appended")
+    void shouldSkipFlush_whenNothingPending() {
+        MessageWriteBehind writeBehind = newWriteBehind();
+
+        writeBehind.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should keep the segment and retry when the insert fails")
+    void shouldRetry_whenInsertFails() throws IOException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(new int[0][]);
+        MessageWriteBehind writeBehind = newWriteBehind();
+
+        writeBehind.append(entry("msg-1", 1));
+        writeBehind.flush();
+        assertEquals(2, segmentCount());
+
+        writeBehind.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, segmentCount());
+    }
+
+    @Test
+    @DisplayName("Should replay messages left in the journal by a crash on startup")
+    void shouldReplayJournal_onStartup() throws IOException {
+        recordInserts();
+        MessageWriteBehind crashed = newWriteBehind();
+        crashed.append(entry("msg-1", 1));
+        crashed.append(entry("msg-2", 2));
+        // simulate a torn write at the end of the segment
+        try (Stream<Path> files = Files.list(journalDir)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.writeString(segment, Files.readString(segment) + "{\"id\":\"msg-3\",\"cont");
+        }
+
+        newWriteBehind();
+
+        assertEquals(1, insertedBatches.size());
+        assertEquals(List.of("msg-1", "msg-2"), insertedBatches.getFirst().stream().map(MessageJournalEntry::id).toList());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a rejected message and still write the rest")
+    @SuppressWarnings("unchecked")
+    void shouldDeadLetterRejectedMessage() throws IOException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<MessageJournalEntry> batch = invocation.getArgument(1);
+                    if (batch.stream().anyMatch(entry -> entry.id().equals("msg-bad"))) {
+                        throw new DataIntegrityViolationException("call is gone");
+                    }
+                    insertedBatches.add(new ArrayList<>(batch));
+                    return new int[0][];
+                });
+        MessageWriteBehind writeBehind = newWriteBehind();
+
+        writeBehind.append(entry("msg-1", 1));
+        writeBehind.append(entry("msg-bad", 2));
+        writeBehind.append(entry("msg-3", 3));
+        writeBehind.flush();
+        writeBehind.append(entry("msg-4", 4));
+        writeBehind.flush();
+
+        assertEquals(List.of("msg-1", "msg-3", "msg-4"), insertedBatches.stream()
+                .flatMap(List::stream)
+                .map(MessageJournalEntry::id)
+                .toList());
+        String deadLetters = Files.readString(journalDir.resolve("dead-letter.log"));
+        assertTrue(deadLetters.contains("\"msg-bad\""));
+        assertFalse(deadLetters.contains("\"msg-1\""));
+        // the fresh segment and the dead letters are left
+        assertEquals(2, segmentCount());
+    }
+
+    @Test
+    @DisplayName("Should start and retry the replay later when the database is down")
+    void shouldRetryReplay_whenDatabaseDown() throws IOException {
+        recordInserts();
+        MessageWriteBehind crashed = newWriteBehind();
+        crashed.append(entry("msg-1", 1));
+        reset(jdbcTemplate);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        MessageWriteBehind restarted = assertDoesNotThrow(this::newWriteBehind);
+        reset(jdbcTemplate);
+        recordInserts();
+        restarted.flush();
+
+        assertEquals(List.of("msg-1"), insertedBatches.getFirst().stream().map(MessageJournalEntry::id).toList());
+        // only the segment opened by the restart is left
+        assertEquals(1, segmentCount());
+    }
+}
@@ -0,0 +1,156 @@
+package dev.aniketkadam.server.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Notification Dispatcher Tests")
+@ActiveProfiles("test")
+class NotificationDispatcherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDispatcher notificationDispatcher;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        notificationDispatcher = new NotificationDispatcher(messagingTemplate, meterRegistry);
+        ReflectionTestUtils.setField(notificationDispatcher, "laneCount", 2);
+        ReflectionTestUtils.setField(notificationDispatcher, "laneCapacity", 100);
+        ReflectionTestUtils.setField(notificationDispatcher, "offerTimeoutMillis", 1000L);
+        notificationDispatcher.start();
+    }
+
+    private CountDownLatch blockFirstSend() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(messagingTemplate).convertAndSend(eq("/topic/a"), any(Object.class));
+        notificationDispatcher.convertAndSend("/topic/a", "first");
+        assertTrue(sending.await(1, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private void restartWithCapacity(int capacity, long offerTimeoutMillis) throws InterruptedException {
+        notificationDispatcher.stop();
+        ReflectionTestUtils.setField(notificationDispatcher, "laneCount", 1);
+        ReflectionTestUtils.setField(notificationDispatcher, "laneCapacity", capacity);
+        ReflectionTestUtils.setField(notificationDispatcher, "offerTimeoutMillis", offerTimeoutMillis);
+        notificationDispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        notificationDispatcher.stop();
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    @Test
+    @DisplayName("Should send right away when no transaction is active")
+    void shouldSend_whenNoTransaction() {
+        notificationDispatcher.convertAndSend("/topic/a", "payload");
+
+        verify(messagingTemplate, timeout(1000)).convertAndSend("/topic/a", (Object) "payload");
+    }
+
+    @Test
+    @DisplayName("Should hold notifications until the transaction commits, in order")
+    void shouldSendAfterCommit() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+
+        notificationDispatcher.convertAndSend("/topic/a", "first");
+        notificationDispatcher.convertAndSend("/topic/a", "second");
+        Thread.sleep(50);
+        verifyNoInteractions(messagingTemplate);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        InOrder inOrder = inOrder(messagingTemplate);
+        inOrder.verify(messagingTemplate, timeout(1000)).convertAndSend("/topic/a", (Object) "first");
+        inOrder.verify(messagingTemplate, timeout(1000)).convertAndSend("/topic/a", (Object) "second");
+        assertNull(TransactionSynchronizationManager.getResource(notificationDispatcher));
+    }
+
+    @Test
+    @DisplayName("Should drop notifications of a rolled back transaction")
+    void shouldDiscard_whenRolledBack() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        notificationDispatcher.convertAndSend("/topic/a", "payload");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        Thread.sleep(50);
+
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(1.0, meterRegistry.counter("notifications.discarded").count());
+    }
+
+    @Test
+    @DisplayName("Should wait for room on a full lane and keep the order of the destination")
+    void shouldKeepOrder_whenLaneIsFull() throws Exception {
+        restartWithCapacity(1, 5000);
+        CountDownLatch release = blockFirstSend();
+        notificationDispatcher.convertAndSend("/topic/a", "second");
+
+        Thread sender = new Thread(() -> notificationDispatcher.convertAndSend("/topic/a", "third"));
+        sender.start();
+        Thread.sleep(50);
+        // the lane is full, the sender waits instead of sending ahead of "second"
+        assertTrue(sender.isAlive());
+        release.countDown();
+        sender.join(1000);
+
+        InOrder inOrder = inOrder(messagingTemplate);
+        inOrder.verify(messagingTemplate, timeout(1000)).convertAndSend("/topic/a", (Object) "first");
+        inOrder.verify(messagingTemplate, timeout(1000)).convertAndSend("/topic/a", (Object) "second");
+        inOrder.verify(messagingTemplate, timeout(1000)).convertAndSend("/topic/a", (Object) "third");
+        assertEquals(0.0, meterRegistry.counter("notifications.dropped").count());
+    }
+
+    @Test
+    @DisplayName("Should drop and count notifications when the lane stays full")
+    void shouldDrop_whenLaneStaysFull() throws Exception {
+        restartWithCapacity(1, 20);
+        CountDownLatch release = blockFirstSend();
+        notificationDispatcher.convertAndSend("/topic/a", "second");
+
+        notificationDispatcher.convertAndSend("/topic/a", "third");
+        release.countDown();
+
+        verify(messagingTemplate, timeout(1000)).convertAndSend("/topic/a", (Object) "second");
+        Thread.sleep(50);
+        verify(messagingTemplate, never()).convertAndSend("/topic/a", (Object) "third");
+        assertEquals(1.0, meterRegistry.counter("notifications.dropped").count());
+    }
+}
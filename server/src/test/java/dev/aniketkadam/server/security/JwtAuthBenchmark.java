@@ -0,0 +1,88 @@
+package dev.aniketkadam.server.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the previous path (key decoded and parser
+ * built for each of the three parses), one parse with the shared parser, and a cache hit.
+ * Run {@link #main(String[])} from the IDE (or with the test classpath).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthBenchmark {
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        user = User.withUsername("user@test.com").password("").authorities(List.of()).build();
+        cachedService = JwtServiceTest.jwtService(new SimpleMeterRegistry(), 900000L, 10000);
+        // a cache of size zero, every request parses
+        uncachedService = JwtServiceTest.jwtService(new SimpleMeterRegistry(), 900000L, 0);
+        token = cachedService.generateAccessToken(Map.of("email", "user@test.com"), user);
+        cachedService.verifiedClaims(token);
+    }
+
+    @Benchmark
+    public boolean parsePerCheck() {
+        // what the filter did before: extractEmail, then isValidToken parsing twice more
+        String email = previousParse(token).getSubject();
+        return email.equals(user.getUsername())
+                && previousParse(token).getSubject().equals(user.getUsername())
+                && !previousParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        Claims claims = uncachedService.verifiedClaims(token);
+        return uncachedService.isValidToken(claims, user);
+    }
+
+    @Benchmark
+    public boolean cachedClaims() {
+        Claims claims = cachedService.verifiedClaims(token);
+        return cachedService.isValidToken(claims, user);
+    }
+
+    private static Claims previousParse(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(JwtServiceTest.SECRET));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
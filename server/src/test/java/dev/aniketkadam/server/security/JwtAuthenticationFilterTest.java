@@ -0,0 +1,121 @@
+package dev.aniketkadam.server.security;
+
+import dev.aniketkadam.server.user.Role;
+import dev.aniketkadam.server.user.RoleName;
+import dev.aniketkadam.server.user.User;
+import dev.aniketkadam.server.user.UserSnapshotCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Jwt Authentication Filter Tests")
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        jwtService = JwtServiceTest.jwtService(new SimpleMeterRegistry(), 900000L, 100);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, userSnapshotCache);
+        ReflectionTestUtils.setField(filter, "principalMode", PrincipalMode.CLAIMS);
+        user = User.builder()
+                .id("user-1")
+                .email("user@test.com")
+                .role(Role.builder().name(RoleName.USER).build())
+                .build();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should take the principal from the snapshot cache and authorities from the token")
+    void shouldAuthenticateFromClaims() throws Exception {
+        when(userSnapshotCache.get("user-1"))
+                .thenReturn(user);
+
+        filter.doFilter(request(jwtService.generateAccessToken(Map.of("email", user.getEmail()), user)), new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertSame(user, authentication.getPrincipal());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(authentication.getAuthorities()));
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should load the user from the database for tokens without a user id")
+    void shouldFallBackToDatabase_whenTokenHasNoUserId() throws Exception {
+        org.springframework.security.core.userdetails.UserDetails legacy =
+                org.springframework.security.core.userdetails.User.withUsername(user.getEmail()).password("").authorities(List.of()).build();
+        when(userDetailsService.loadUserByUsername(user.getEmail()))
+                .thenReturn(user);
+
+        filter.doFilter(request(jwtService.generateAccessToken(Map.of("email", user.getEmail()), legacy)), new MockHttpServletResponse(), filterChain);
+
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verifyNoInteractions(userSnapshotCache);
+    }
+
+    @Test
+    @DisplayName("Should load the user from the database in database mode")
+    void shouldUseDatabase_inDatabaseMode() throws Exception {
+        ReflectionTestUtils.setField(filter, "principalMode", PrincipalMode.DATABASE);
+        when(userDetailsService.loadUserByUsername(user.getEmail()))
+                .thenReturn(user);
+
+        filter.doFilter(request(jwtService.generateAccessToken(Map.of("email", user.getEmail()), user)), new MockHttpServletResponse(), filterChain);
+
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verifyNoInteractions(userSnapshotCache);
+    }
+
+    @Test
+    @DisplayName("Should not authenticate when the cached user does not own the token")
+    void shouldNotAuthenticate_whenEmailDiffers() throws Exception {
+        when(userSnapshotCache.get("user-1"))
+                .thenReturn(User.builder().id("user-1").email("other@test.com").build());
+
+        filter.doFilter(request(jwtService.generateAccessToken(Map.of("email", user.getEmail()), user)), new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(any(), any());
+    }
+}
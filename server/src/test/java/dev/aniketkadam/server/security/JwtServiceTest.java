@@ -0,0 +1,124 @@
+package dev.aniketkadam.server.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import dev.aniketkadam.server.user.Role;
+import dev.aniketkadam.server.user.RoleName;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Jwt Service Tests")
+@ActiveProfiles("test")
+class JwtServiceTest {
+
+    static final String SECRET = "test-secret-key-test-secret-key-test-secret-key-test";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+    private UserDetails user;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = jwtService(meterRegistry, 900000L, 10);
+        user = User.withUsername("user@test.com").password("").authorities(List.of()).build();
+    }
+
+    static JwtService jwtService(SimpleMeterRegistry meterRegistry, long accessTokenExpiration, int claimsCacheSize) {
+        JwtService jwtService = new JwtService(meterRegistry);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", accessTokenExpiration);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiration", accessTokenExpiration);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", claimsCacheSize);
+        jwtService.init();
+        return jwtService;
+    }
+
+    private String token(String email) {
+        return jwtService.generateAccessToken(Map.of("email", email), user);
+    }
+
+    private double cache(String result) {
+        return meterRegistry.get("auth.jwt.claims.cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should parse a token once and answer later checks from the cache")
+    void shouldParseOnce() {
+        String token = token("user@test.com");
+
+        Claims claims = jwtService.verifiedClaims(token);
+        assertEquals("user@test.com", claims.getSubject());
+        assertTrue(jwtService.isValidToken(claims, user));
+        assertEquals("user@test.com", jwtService.extractEmail(token));
+        assertTrue(jwtService.isValidToken(token, user));
+
+        assertEquals(1, cache("miss"));
+        assertEquals(2, cache("hit"));
+    }
+
+    @Test
+    @DisplayName("Should carry the user id and authorities in the claims")
+    void shouldCarryUserIdAndAuthorities() {
+        dev.aniketkadam.server.user.User entity = dev.aniketkadam.server.user.User.builder()
+                .id("user-1")
+                .email("user@test.com")
+                .role(Role.builder().name(RoleName.USER).build())
+                .build();
+
+        Claims claims = jwtService.verifiedClaims(jwtService.generateAccessToken(Map.of("email", "user@test.com"), entity));
+
+        assertEquals("user-1", claims.get(JwtService.USER_ID_CLAIM, String.class));
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), jwtService.authorities(claims));
+    }
+
+    @Test
+    @DisplayName("Should reject a token of another user")
+    void shouldRejectOtherUser() {
+        assertFalse(jwtService.isValidToken(token("other@test.com"), user));
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered token and not cache it")
+    void shouldRejectTamperedToken() {
+        String token = token("user@test.com");
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA";
+
+        assertThrows(JwtException.class, () -> jwtService.verifiedClaims(tampered));
+        assertThrows(JwtException.class, () -> jwtService.verifiedClaims(tampered));
+        assertEquals(2, cache("miss"));
+    }
+
+    @Test
+    @DisplayName("Should reject a cached token once it expired")
+    void shouldRejectExpiredCachedToken() throws InterruptedException {
+        jwtService = jwtService(meterRegistry, 1000L, 10);
+        String token = token("user@test.com");
+        jwtService.verifiedClaims(token);
+
+        Thread.sleep(1100);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verifiedClaims(token));
+    }
+
+    @Test
+    @DisplayName("Should keep the cache within its size and still verify tokens past it")
+    void shouldBoundCache() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals("user" + i + "@test.com", jwtService.verifiedClaims(token("user" + i + "@test.com")).getSubject());
+        }
+
+        assertEquals(10, meterRegistry.get("auth.jwt.claims.cache.size").gauge().value());
+    }
+}
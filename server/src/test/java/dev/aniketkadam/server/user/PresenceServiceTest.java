@@ -0,0 +1,182 @@
+package dev.aniketkadam.server.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Presence Service Tests")
+@ActiveProfiles("test")
+class PresenceServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setup() {
+        presenceService = new PresenceService(userRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of many concurrent calls claim the same user")
+    void shouldGrantSingleClaim_whenCallsRace() throws Exception {
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        try {
+            for (int i = 0; i < callers; i++) {
+                String callId = "call-" + i;
+                executor.submit(() -> {
+                    start.await();
+                    if (presenceService.tryClaim("user-1", callId)) {
+                        winners.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, winners.get());
+        assertTrue(presenceService.isBusy("user-1"));
+    }
+
+    @Test
+    @DisplayName("Should keep user busy when a stale call releases them")
+    void shouldIgnoreRelease_whenHeldByAnotherCall() {
+        presenceService.tryClaim("user-1", "call-2");
+
+        presenceService.release("user-1", "call-1");
+
+        assertTrue(presenceService.isBusy("user-1"));
+    }
+
+    @Test
+    @DisplayName("Should free disconnected users whatever call they hold")
+    void shouldReleaseAll_whenUsersDisconnect() {
+        presenceService.tryClaim("user-1", "call-1");
+        presenceService.tryClaim("user-2", "call-2");
+        presenceService.flush();
+
+        presenceService.releaseAll(List.of("user-1", "user-2", "user-3"));
+        presenceService.flush();
+
+        assertFalse(presenceService.isBusy("user-1"));
+        assertFalse(presenceService.isBusy("user-2"));
+        verify(userRepository).updateUserInCall(argThat(ids -> ids.size() == 2 && !ids.contains("user-3")), eq(false));
+    }
+
+    @Test
+    @DisplayName("Should release users restored from the database")
+    void shouldReleaseRecoveredUser() {
+        when(userRepository.findIdsOfUsersInCall()).thenReturn(List.of("user-1"));
+        presenceService.recover();
+        assertTrue(presenceService.isBusy("user-1"));
+
+        presenceService.release("user-1", "call-1");
+
+        assertFalse(presenceService.isBusy("user-1"));
+    }
+
+    @Test
+    @DisplayName("Should persist only changed users in one bulk update per state")
+    void shouldFlushDirtyUsersInBulk() {
+        presenceService.tryClaim("user-1", "call-1");
+        presenceService.tryClaim("user-2", "call-1");
+        presenceService.tryClaim("user-3", "call-2");
+        presenceService.release("user-3", "call-2");
+
+        presenceService.flush();
+        presenceService.flush();
+
+        verify(userRepository, times(1)).updateUserInCall(argThat(ids -> ids.size() == 2), eq(true));
+        verify(userRepository, times(1)).updateUserInCall(eq(List.of("user-3")), eq(false));
+    }
+
+    @Test
+    @DisplayName("Should retry users whose update failed on the next flush")
+    void shouldRetry_whenFlushFails() {
+        presenceService.tryClaim("user-1", "call-1");
+        when(userRepository.updateUserInCall(anyCollection(), eq(true)))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(1);
+
+        presenceService.flush();
+        presenceService.flush();
+
+        verify(userRepository, times(2)).updateUserInCall(eq(List.of("user-1")), eq(true));
+    }
+
+    @Test
+    @DisplayName("Should give back claims taken in a transaction that rolls back")
+    void shouldReleaseClaim_whenTransactionRollsBack() {
+        presenceService.tryClaim("user-2", "call-1");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(presenceService.tryClaim("user-1", "call-1"));
+            // held before the transaction, must survive its rollback
+            assertTrue(presenceService.tryClaim("user-2", "call-1"));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(presenceService.isBusy("user-1"));
+        assertTrue(presenceService.isBusy("user-2"));
+    }
+
+    @Test
+    @DisplayName("Should keep claims taken in a transaction that commits")
+    void shouldKeepClaim_whenTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            presenceService.tryClaim("user-1", "call-1");
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(presenceService.isBusy("user-1"));
+    }
+
+    @Test
+    @DisplayName("Should keep users busy until the transaction releasing them commits")
+    void shouldReleaseAfterCommit() {
+        presenceService.tryClaim("user-1", "call-1");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            presenceService.release("user-1", "call-1");
+            assertTrue(presenceService.isBusy("user-1"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(presenceService.isBusy("user-1"));
+    }
+}
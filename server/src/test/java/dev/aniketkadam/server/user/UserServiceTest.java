@@ -43,11 +43,14 @@ class UserServiceTest {
     private UserMapper mapper;
     @Mock
     private CallRepository callRepository;
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
 
     @InjectMocks
     private UserService userService;
 
     private User testUser;
+    private User storedUser;
     private Authentication testAuthentication;
 
     @BeforeEach
@@ -66,6 +69,17 @@ class UserServiceTest {
     @Nested
     class CompleteAccountTests {
 
+        @BeforeEach
+        void setupStoredUser() {
+            // the managed row, a different instance than the principal
+            storedUser = User.builder()
+                    .id(testUser.getId())
+                    .email(testUser.getEmail())
+                    .build();
+            lenient().when(userRepository.findById(testUser.getId()))
+                    .thenReturn(Optional.of(storedUser));
+        }
+
         @Test
         void shouldCompleteAccountSuccessfully() throws OperationNotPermittedException {
             String fullName = "test user";
@@ -87,11 +101,12 @@ class UserServiceTest {
             Boolean result = userService.completeAccount(fullName, birthDate, profile, testAuthentication);
 
             assertTrue(result);
-            assertEquals(fullName, testUser.getFullName());
-            assertEquals(birthDate, testUser.getBirthDate());
-            assertEquals(uploadResponse.get("secure_url"), testUser.getProfile().getProfileUrl());
-            assertEquals(uploadResponse.get("public_id"), testUser.getProfile().getPublicId());
-            assertTrue(testUser.isAccountCompleted());
+            assertEquals(fullName, storedUser.getFullName());
+            assertEquals(birthDate, storedUser.getBirthDate());
+            assertEquals(uploadResponse.get("secure_url"), storedUser.getProfile().getProfileUrl());
+            assertEquals(uploadResponse.get("public_id"), storedUser.getProfile().getPublicId());
+            assertTrue(storedUser.isAccountCompleted());
+            verify(userSnapshotCache, times(1)).invalidate(testUser.getId());
 
             verify(fileUtils, times(1))
                     .uploadProfileImage(profile);
@@ -119,9 +134,9 @@ class UserServiceTest {
             Boolean result = userService.completeAccount(fullName, birthDate, null, testAuthentication);
 
             assertTrue(result);
-            assertEquals(fullName, testUser.getFullName());
-            assertEquals(birthDate, testUser.getBirthDate());
-            assertTrue(testUser.isAccountCompleted());
+            assertEquals(fullName, storedUser.getFullName());
+            assertEquals(birthDate, storedUser.getBirthDate());
+            assertTrue(storedUser.isAccountCompleted());
 
             verify(userRepository, times(1))
                     .save(argThat(user ->
@@ -135,9 +150,9 @@ class UserServiceTest {
             String fullName = "new name";
             LocalDate birthDate = LocalDate.of(2002, 2, 22);
 
-            testUser.setAccountCompleted(true);
-            testUser.setFullName("test user");
-            testUser.setBirthDate(LocalDate.of(2004, 5, 20));
+            storedUser.setAccountCompleted(true);
+            storedUser.setFullName("test user");
+            storedUser.setBirthDate(LocalDate.of(2004, 5, 20));
 
             when(userRepository.save(any(User.class)))
                     .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
@@ -145,9 +160,9 @@ class UserServiceTest {
             Boolean result = userService.completeAccount(fullName, birthDate, null, testAuthentication);
 
             assertTrue(result);
-            assertNotEquals(fullName,"test user");
-            assertNotEquals(birthDate, LocalDate.of(2004, 5, 20));
-            assertTrue(testUser.isAccountCompleted());
+            assertEquals("test user", storedUser.getFullName());
+            assertEquals(LocalDate.of(2004, 5, 20), storedUser.getBirthDate());
+            assertTrue(storedUser.isAccountCompleted());
 
             verify(userRepository, times(1))
                     .save(argThat(user ->
@@ -155,6 +170,28 @@ class UserServiceTest {
                             )
                     );
         }
+
+        @Test
+        void shouldChangeStoredUser_notThePrincipal() throws OperationNotPermittedException {
+            when(userRepository.save(any(User.class)))
+                    .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+
+            userService.completeAccount("test user", LocalDate.of(2004, 5, 20), null, testAuthentication);
+
+            verify(userRepository, times(1)).save(same(storedUser));
+            assertNull(testUser.getFullName());
+            assertFalse(testUser.isAccountCompleted());
+        }
+
+        @Test
+        void shouldThrowException_whenUserIsGone() {
+            when(userRepository.findById(testUser.getId()))
+                    .thenReturn(Optional.empty());
+
+            assertThrows(EntityNotFoundException.class,
+                    () -> userService.completeAccount("test user", null, null, testAuthentication));
+            verify(userRepository, never()).save(any(User.class));
+        }
     }
 
     @Nested
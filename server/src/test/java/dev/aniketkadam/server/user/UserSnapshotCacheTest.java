@@ -0,0 +1,118 @@
+package dev.aniketkadam.server.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("User Snapshot Cache Tests")
+@ActiveProfiles("test")
+class UserSnapshotCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSnapshotCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new UserSnapshotCache(userRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlMillis", 30000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        cache.registerMetrics();
+        lenient().when(userRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.of(User.builder().id(invocation.getArgument(0)).build()));
+    }
+
+    @Test
+    @DisplayName("Should load a user once within the time to live")
+    void shouldServeFromCache() {
+        User first = cache.get("user-1");
+        User second = cache.get("user-1");
+
+        assertNotSame(first, second);
+        assertEquals(first.getId(), second.getId());
+        verify(userRepository, times(1)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("Should not let one caller's changes reach the next caller")
+    void shouldHandOutCopies() {
+        cache.get("user-1").setFullName("changed by a request");
+
+        assertNull(cache.get("user-1").getFullName());
+        verify(userRepository, times(1)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("Should reload a user once the snapshot expired")
+    void shouldReload_afterTtl() {
+        ReflectionTestUtils.setField(cache, "ttlMillis", 0L);
+
+        cache.get("user-1");
+        cache.get("user-1");
+
+        verify(userRepository, times(2)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("Should reload a user after invalidation")
+    void shouldReload_afterInvalidate() {
+        cache.get("user-1");
+        cache.invalidate("user-1");
+        cache.get("user-1");
+
+        verify(userRepository, times(2)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("Should drop a snapshot reloaded while the change was not committed yet")
+    void shouldInvalidateAgain_afterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("user-1");
+            // a concurrent request reloads the old row before the commit
+            cache.get("user-1");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.get("user-1");
+
+        verify(userRepository, times(2)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("Should stop caching new users when full")
+    void shouldBoundSize() {
+        cache.get("user-1");
+        cache.get("user-2");
+        cache.get("user-3");
+        cache.get("user-3");
+
+        verify(userRepository, times(2)).findById("user-3");
+        verify(userRepository, times(1)).findById("user-1");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the user does not exist")
+    void shouldThrowException_whenUserNotFound() {
+        when(userRepository.findById("missing"))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> cache.get("missing"));
+    }
+}
@@ -0,0 +1,198 @@
+package dev.aniketkadam.server.webSocket;
+
+import dev.aniketkadam.server.meeting.MeetingService;
+import dev.aniketkadam.server.user.PresenceService;
+import dev.aniketkadam.server.user.UserRepository;
+import dev.aniketkadam.server.webrtc.SignalingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Session Reaper Tests")
+@ActiveProfiles("test")
+class SessionReaperTest {
+
+    private static final Principal USER = () -> "user@test.com";
+
+    @Mock
+    private MeetingService meetingService;
+    @Mock
+    private PresenceService presenceService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private SignalingService signalingService;
+
+    private SessionReaper reaper;
+
+    @BeforeEach
+    void setup() {
+        reaper = new SessionReaper(meetingService, presenceService, userRepository, signalingService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reaper, "graceMillis", 0L);
+        ReflectionTestUtils.setField(reaper, "batchSize", 100);
+        reaper.registerMetrics();
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private void connect(String sessionId) {
+        reaper.onConnected(new SessionConnectedEvent(this, message(SimpMessageType.CONNECT_ACK, sessionId, null), USER));
+    }
+
+    private void subscribe(String sessionId, String destination) {
+        reaper.onSubscribe(new SessionSubscribeEvent(this, message(SimpMessageType.SUBSCRIBE, sessionId, destination), USER));
+    }
+
+    private void disconnect(String sessionId) {
+        reaper.onDisconnect(new SessionDisconnectEvent(this, message(SimpMessageType.DISCONNECT, sessionId, null),
+                sessionId, CloseStatus.GOING_AWAY, USER));
+    }
+
+    @Test
+    @DisplayName("Should remove the user from subscribed meetings and free the busy flag after the grace period")
+    void shouldReapUser_whenLastSessionCloses() {
+        when(userRepository.findIdsByEmailIn(Set.of("user@test.com"))).thenReturn(List.of("user-1"));
+        connect("s1");
+        subscribe("s1", "/topic/meeting/abc-defg-hij/participants");
+        subscribe("s1", "/topic/meeting/abc-defg-hij/speakers");
+        subscribe("s1", "/topic/waiting/users/abc-defg-hij/admin@test.com");
+
+        disconnect("s1");
+        reaper.reap();
+
+        verify(meetingService).removeDisconnected("abc-defg-hij", List.of("user@test.com"));
+        verify(presenceService).releaseAll(List.of("user-1"));
+    }
+
+    @Test
+    @DisplayName("Should not reap while the grace period runs")
+    void shouldWait_duringGracePeriod() {
+        ReflectionTestUtils.setField(reaper, "graceMillis", 60_000L);
+        connect("s1");
+        subscribe("s1", "/topic/meeting/abc-defg-hij/participants");
+
+        disconnect("s1");
+        reaper.reap();
+
+        verifyNoInteractions(meetingService, presenceService, userRepository, signalingService);
+    }
+
+    @Test
+    @DisplayName("Should not reap a user who reconnects within the grace period")
+    void shouldCancelReap_whenUserReconnects() {
+        connect("s1");
+        subscribe("s1", "/topic/meeting/abc-defg-hij/participants");
+
+        disconnect("s1");
+        connect("s2");
+        reaper.reap();
+
+        verifyNoInteractions(meetingService, presenceService, userRepository);
+    }
+
+    @Test
+    @DisplayName("Should not reap a user who still has another open session")
+    void shouldKeepUser_whileAnotherSessionIsOpen() {
+        connect("s1");
+        connect("s2");
+
+        disconnect("s1");
+        reaper.reap();
+
+        verifyNoInteractions(meetingService, presenceService, userRepository);
+    }
+
+    @Test
+    @DisplayName("Should reap at most one batch per cycle")
+    void shouldLimitReapsPerCycle() {
+        ReflectionTestUtils.setField(reaper, "batchSize", 1);
+        for (String user : List.of("a@test.com", "b@test.com")) {
+            Principal principal = () -> user;
+            reaper.onConnected(new SessionConnectedEvent(this, message(SimpMessageType.CONNECT_ACK, user, null), principal));
+            reaper.onDisconnect(new SessionDisconnectEvent(this, message(SimpMessageType.DISCONNECT, user, null),
+                    user, CloseStatus.GOING_AWAY, principal));
+        }
+
+        reaper.reap();
+        reaper.reap();
+
+        verify(userRepository, times(2)).findIdsByEmailIn(argThat(emails -> emails.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Should end the call the user subscribed to once they are reaped")
+    void shouldDropSubscribedCall_whenUserReaped() {
+        when(userRepository.findIdsByEmailIn(Set.of("user@test.com"))).thenReturn(List.of("user-1"));
+        when(presenceService.callOf("user-1")).thenReturn(Optional.empty());
+        when(signalingService.dropCall("call-123", Set.of("user@test.com"))).thenReturn(true);
+        connect("s1");
+        subscribe("s1", "/topic/call/finish/call-123/user@test.com");
+        subscribe("s1", "/topic/media/call-123/user@test.com");
+
+        disconnect("s1");
+        reaper.reap();
+
+        verify(signalingService, times(1)).dropCall("call-123", Set.of("user@test.com"));
+        verify(presenceService).releaseAll(List.of("user-1"));
+    }
+
+    @Test
+    @DisplayName("Should end the call named by the presence claim of a user who never reached the call screen")
+    void shouldDropClaimedCall_whenNotSubscribed() {
+        when(userRepository.findIdsByEmailIn(Set.of("user@test.com"))).thenReturn(List.of("user-1"));
+        when(presenceService.callOf("user-1")).thenReturn(Optional.of("call-123"));
+        connect("s1");
+
+        disconnect("s1");
+        reaper.reap();
+
+        verify(signalingService).dropCall("call-123", Set.of("user@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should retry ending a call on the next cycle when it failed")
+    void shouldRetryDropCall_whenItFails() {
+        when(userRepository.findIdsByEmailIn(Set.of("user@test.com"))).thenReturn(List.of("user-1"));
+        when(presenceService.callOf("user-1")).thenReturn(Optional.of("call-123"));
+        when(signalingService.dropCall("call-123", Set.of("user@test.com")))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(true);
+        connect("s1");
+        disconnect("s1");
+
+        reaper.reap();
+        reaper.reap();
+        reaper.reap();
+
+        verify(signalingService, times(2)).dropCall("call-123", Set.of("user@test.com"));
+        verify(userRepository, times(1)).findIdsByEmailIn(anySet());
+    }
+}
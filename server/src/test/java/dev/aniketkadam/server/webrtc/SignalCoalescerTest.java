@@ -0,0 +1,138 @@
+package dev.aniketkadam.server.webrtc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Signal Coalescer Tests")
+@ActiveProfiles("test")
+class SignalCoalescerTest {
+
+    private static final String DESTINATION = "/topic/webrtc/connection/receiver@test.com";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SignalCoalescer signalCoalescer;
+
+    @BeforeEach
+    void setup() {
+        signalCoalescer = new SignalCoalescer(messagingTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(signalCoalescer, "enabled", true);
+        ReflectionTestUtils.setField(signalCoalescer, "windowMillis", 50L);
+        ReflectionTestUtils.setField(signalCoalescer, "maxCandidates", 3);
+        signalCoalescer.registerMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        signalCoalescer.shutdown();
+    }
+
+    private static SignalRoute route(String type) {
+        return SignalRoute.builder().callId("call-123").to("receiver@test.com").type(type).build();
+    }
+
+    private static byte[] candidate(int index) {
+        return ("{\"callId\":\"call-123\",\"to\":\"receiver@test.com\",\"type\":\"candidate\",\"candidate\":{\"sdpMid\":\"" + index + "\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String body(ArgumentCaptor<Message> captor) {
+        return new String(((Message<byte[]>) captor.getValue()).getPayload(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should not buffer anything when coalescing is disabled")
+    void shouldNotBuffer_whenDisabled() {
+        ReflectionTestUtils.setField(signalCoalescer, "enabled", false);
+
+        assertFalse(signalCoalescer.offer(route("candidate"), candidate(0)));
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("Should send one batched frame when the batch is full")
+    void shouldSendBatch_whenMaxCandidatesReached() {
+        assertTrue(signalCoalescer.offer(route("candidate"), candidate(0)));
+        assertTrue(signalCoalescer.offer(route("candidate"), candidate(1)));
+        verifyNoInteractions(messagingTemplate);
+
+        assertTrue(signalCoalescer.offer(route("candidate"), candidate(2)));
+
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(1)).send(eq(DESTINATION), captor.capture());
+        String frame = body(captor);
+        assertTrue(frame.startsWith("{\"type\":\"candidates\",\"callId\":\"call-123\",\"to\":\"receiver@test.com\",\"packets\":["));
+        assertTrue(frame.contains("\"sdpMid\":\"0\"") && frame.contains("\"sdpMid\":\"2\""));
+        assertEquals(2.0, signalCoalescer.getFramesSaved());
+    }
+
+    @Test
+    @DisplayName("Should flush pending candidates once the window elapses")
+    void shouldFlushBatch_whenWindowElapses() {
+        signalCoalescer.offer(route("candidate"), candidate(0));
+        signalCoalescer.offer(route("candidate"), candidate(1));
+
+        verify(messagingTemplate, timeout(1000).times(1)).send(eq(DESTINATION), any(Message.class));
+        assertEquals(1.0, signalCoalescer.getFramesSaved());
+    }
+
+    @Test
+    @DisplayName("Should flush pending candidates before an answer without delaying it")
+    void shouldFlushCandidatesBeforeAnswer() {
+        byte[] pendingCandidate = candidate(0);
+        signalCoalescer.offer(route("candidate"), pendingCandidate);
+
+        assertFalse(signalCoalescer.offer(route("answer"), new byte[0]));
+
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(1)).send(eq(DESTINATION), captor.capture());
+        // a single candidate is forwarded untouched
+        assertSame(pendingCandidate, captor.getValue().getPayload());
+        assertEquals(0.0, signalCoalescer.getFramesSaved());
+    }
+
+    @Test
+    @DisplayName("Should hold an answer back while the window flush of its candidates is still sending")
+    void shouldWaitForInFlightFlush_beforeAnswer() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(messagingTemplate).send(eq(DESTINATION), any(Message.class));
+        signalCoalescer.offer(route("candidate"), candidate(0));
+        assertTrue(sending.await(1, TimeUnit.SECONDS));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> answer = executor.submit(() -> signalCoalescer.offer(route("answer"), new byte[0]));
+            assertThrows(TimeoutException.class, () -> answer.get(100, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            assertFalse(answer.get(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        verify(messagingTemplate, times(1)).send(eq(DESTINATION), any(Message.class));
+    }
+}
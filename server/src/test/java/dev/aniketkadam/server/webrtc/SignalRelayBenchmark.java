@@ -0,0 +1,97 @@
+package dev.aniketkadam.server.webrtc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pass-through relay with the previous deserialize/re-serialize path.
+ * Run {@link #main(String[])} from the IDE (or with the test classpath); the GC
+ * profiler reports {@code gc.alloc.rate.norm}, i.e. bytes allocated per relayed packet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignalRelayBenchmark {
+
+    @Param({"offer", "candidate"})
+    private String packetType;
+
+    private byte[] payload;
+    private SignalRelay passThroughRelay;
+    private SignalRelay objectRelay;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        payload = ("offer".equals(packetType) ? offer() : candidate()).getBytes(StandardCharsets.UTF_8);
+        passThroughRelay = relay(objectMapper, true);
+        objectRelay = relay(objectMapper, false);
+    }
+
+    @Benchmark
+    public void passThrough(Blackhole blackhole) {
+        passThroughRelay.relay(payload);
+        blackhole.consume(payload);
+    }
+
+    @Benchmark
+    public void deserializeAndConvert(Blackhole blackhole) {
+        objectRelay.relay(payload);
+        blackhole.consume(payload);
+    }
+
+    private static SignalRelay relay(ObjectMapper objectMapper, boolean passThrough) {
+        // the broker channel is replaced by a sink so only the relay cost is measured
+        MessageChannel sink = (message, timeout) -> true;
+        SimpMessagingTemplate template = new SimpMessagingTemplate(sink);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        template.setMessageConverter(converter);
+        // coalescing is disabled by default, packets go straight to the template
+        SignalRelay relay = new SignalRelay(template, objectMapper, new SignalCoalescer(template, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(relay, "passThrough", passThrough);
+        return relay;
+    }
+
+    private static String offer() {
+        StringBuilder sdp = new StringBuilder("v=0\\r\\no=- 4611731400430051336 2 IN IP4 127.0.0.1\\r\\ns=-\\r\\nt=0 0\\r\\n");
+        while (sdp.length() < 8 * 1024) {
+            sdp.append("a=candidate:1467250027 1 udp 2122260223 192.168.0.196 46243 typ host generation 0\\r\\n")
+                    .append("a=rtpmap:111 opus/48000/2\\r\\na=fmtp:111 minptime=10;useinbandfec=1\\r\\n");
+        }
+        return "{\"callId\":\"7c9e6679-7425-40de-944b-e07fc1f90ae7\",\"from\":\"caller@test.com\","
+                + "\"to\":\"receiver@test.com\",\"type\":\"offer\",\"sdp\":\"" + sdp + "\"}";
+    }
+
+    private static String candidate() {
+        return "{\"callId\":\"7c9e6679-7425-40de-944b-e07fc1f90ae7\",\"from\":\"caller@test.com\","
+                + "\"to\":\"receiver@test.com\",\"type\":\"candidate\",\"candidate\":{"
+                + "\"candidate\":\"candidate:1467250027 1 udp 2122260223 192.168.0.196 46243 typ host generation 0\","
+                + "\"sdpMid\":\"0\",\"sdpMLineIndex\":0,\"usernameFragment\":\"Fj3k\"}}";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SignalRelayBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
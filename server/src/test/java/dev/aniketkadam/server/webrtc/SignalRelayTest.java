@@ -0,0 +1,145 @@
+package dev.aniketkadam.server.webrtc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Signal Relay Tests")
+@ActiveProfiles("test")
+class SignalRelayTest {
+
+    private static final String OFFER = """
+            {"callId":"call-123","from":"caller@test.com","to":"receiver@test.com","type":"offer","sdp":"v=0\\r\\no=- 4611731400430051336 2 IN IP4 127.0.0.1\\r\\n"}""";
+    private static final String CANDIDATE = """
+            {"callId":"call-123","from":"caller@test.com","to":"receiver@test.com","type":"candidate","candidate":{"candidate":"candidate:1 1 udp 2122260223 10.0.0.1 54321 typ host","sdpMid":"0","sdpMLineIndex":0,"usernameFragment":"abcd"}}""";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private SignalCoalescer signalCoalescer;
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @InjectMocks
+    private SignalRelay signalRelay;
+
+    @Nested
+    @DisplayName("Signal Route Tests")
+    class SignalRouteTests {
+
+        @Test
+        @DisplayName("Should read routing header and ignore the payload fields")
+        void shouldReadRoutingHeader() throws Exception {
+            SignalRoute route = SignalRoute.read(objectMapper.getFactory(), CANDIDATE.getBytes(StandardCharsets.UTF_8));
+
+            assertNotNull(route);
+            assertEquals("receiver@test.com", route.getTo());
+            assertEquals("call-123", route.getCallId());
+            assertEquals("candidate", route.getType());
+        }
+
+        @Test
+        @DisplayName("Should return null when payload is not a json object")
+        void shouldReturnNull_whenPayloadIsNotObject() throws Exception {
+            assertNull(SignalRoute.read(objectMapper.getFactory(), "[1,2]".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pass Through Relay Tests")
+    class PassThroughRelayTests {
+
+        @BeforeEach
+        void setup() {
+            ReflectionTestUtils.setField(signalRelay, "passThrough", true);
+        }
+
+        @Test
+        @DisplayName("Should forward the original bytes to the recipient topic")
+        @SuppressWarnings("unchecked")
+        void shouldForwardOriginalBytes() {
+            byte[] payload = OFFER.getBytes(StandardCharsets.UTF_8);
+
+            signalRelay.relay(payload);
+
+            ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+            verify(messagingTemplate, times(1))
+                    .send(eq("/topic/webrtc/connection/receiver@test.com"), captor.capture());
+            assertSame(payload, captor.getValue().getPayload());
+            assertEquals(
+                    MimeTypeUtils.APPLICATION_JSON,
+                    captor.getValue().getHeaders().get(MessageHeaders.CONTENT_TYPE)
+            );
+            verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        }
+
+        @Test
+        @DisplayName("Should not send packet when coalescer takes it into a batch")
+        void shouldNotSend_whenCoalescerBuffersPacket() {
+            when(signalCoalescer.offer(any(SignalRoute.class), any(byte[].class))).thenReturn(true);
+
+            signalRelay.relay(CANDIDATE.getBytes(StandardCharsets.UTF_8));
+
+            verify(signalCoalescer, times(1)).offer(
+                    argThat(route -> "candidate".equals(route.getType())),
+                    any(byte[].class)
+            );
+            verifyNoInteractions(messagingTemplate);
+        }
+
+        @Test
+        @DisplayName("Should drop packet when recipient is missing")
+        void shouldDropPacket_whenRecipientIsMissing() {
+            signalRelay.relay("{\"callId\":\"call-123\",\"type\":\"offer\"}".getBytes(StandardCharsets.UTF_8));
+
+            verifyNoInteractions(messagingTemplate);
+        }
+
+        @Test
+        @DisplayName("Should drop malformed packet")
+        void shouldDropMalformedPacket() {
+            signalRelay.relay("{\"to\":".getBytes(StandardCharsets.UTF_8));
+
+            verifyNoInteractions(messagingTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Object Relay Tests")
+    class ObjectRelayTests {
+
+        @Test
+        @DisplayName("Should deserialize packet and send it to the recipient topic")
+        void shouldConvertAndSendPacket() {
+            ReflectionTestUtils.setField(signalRelay, "passThrough", false);
+
+            signalRelay.relay(CANDIDATE.getBytes(StandardCharsets.UTF_8));
+
+            verify(messagingTemplate, times(1)).convertAndSend(
+                    eq("/topic/webrtc/connection/receiver@test.com"),
+                    argThat((SignalPacket packet) ->
+                            "candidate".equals(packet.getType())
+                                    && "0".equals(packet.getCandidate().getSdpMid()))
+            );
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package dev.aniketkadam.server.webrtc;
+
+import dev.aniketkadam.server.call.*;
+import dev.aniketkadam.server.exception.OperationNotPermittedException;
+import dev.aniketkadam.server.notification.NotificationDispatcher;
+import dev.aniketkadam.server.user.PresenceService;
+import dev.aniketkadam.server.user.User;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Signaling Service Tests")
+@ActiveProfiles("test")
+class SignalingServiceTest {
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+    @Mock
+    private CallSessionRegistry callSessionRegistry;
+    @Mock
+    private CallTransitionService callTransitionService;
+    @Mock
+    private PresenceService presenceService;
+    @Mock
+    private ReactionAggregator reactionAggregator;
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private SignalingService signalingService;
+
+    private static CallSession session(CallStatus status) {
+        return CallSession.builder()
+                .callId("call-123")
+                .caller(CallSession.Party.builder().id("caller-1").email("caller@test.com").fullName("Caller One").build())
+                .receiver(CallSession.Party.builder().id("receiver-1").email("receiver@test.com").fullName("Receiver One").build())
+                .mode(CallMode.VIDEO)
+                .status(status)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Drop call tests")
+    class DropCallTests {
+
+        @Test
+        @DisplayName("Should finish an accepted call, free both sides and tell the one left behind")
+        void shouldFinishAcceptedCall() {
+            when(callSessionRegistry.resolve("call-123")).thenReturn(session(CallStatus.ACCEPTED));
+            when(callTransitionService.apply("call-123", CallTransition.FINISH)).thenReturn(true);
+
+            assertTrue(signalingService.dropCall("call-123", Set.of("receiver@test.com")));
+
+            verify(presenceService).release("caller-1", "call-123");
+            verify(presenceService).release("receiver-1", "call-123");
+            verify(notificationDispatcher).convertAndSend(
+                    "/topic/call/finish/call-123/caller@test.com", "Call has been finished by Receiver One.");
+        }
+
+        @Test
+        @DisplayName("Should end a ringing call and stop the receiver's ringing when the caller is gone")
+        void shouldEndRingingCall_whenCallerIsGone() {
+            when(callSessionRegistry.resolve("call-123")).thenReturn(session(CallStatus.RINGING));
+            when(callTransitionService.apply("call-123", CallTransition.END)).thenReturn(true);
+
+            assertTrue(signalingService.dropCall("call-123", Set.of("caller@test.com")));
+
+            verify(notificationDispatcher).convertAndSend(eq("/topic/call/end/receiver@test.com"),
+                    argThat((CallResponse response) -> response.getStatus() == CallStatus.ENDED));
+        }
+
+        @Test
+        @DisplayName("Should tell the caller when the ringing receiver is gone")
+        void shouldEndRingingCall_whenReceiverIsGone() {
+            when(callSessionRegistry.resolve("call-123")).thenReturn(session(CallStatus.RINGING));
+            when(callTransitionService.apply("call-123", CallTransition.END)).thenReturn(true);
+
+            assertTrue(signalingService.dropCall("call-123", Set.of("receiver@test.com")));
+
+            verify(notificationDispatcher).convertAndSend(
+                    "/topic/call/reject/call-123/caller@test.com", "Call could not reach Receiver One.");
+        }
+
+        @Test
+        @DisplayName("Should leave a call alone when it already moved on")
+        void shouldDoNothing_whenTransitionLost() {
+            when(callSessionRegistry.resolve("call-123")).thenReturn(session(CallStatus.ACCEPTED));
+            when(callTransitionService.apply("call-123", CallTransition.FINISH)).thenReturn(false);
+
+            assertFalse(signalingService.dropCall("call-123", Set.of("caller@test.com")));
+
+            verifyNoInteractions(presenceService, notificationDispatcher);
+        }
+
+        @Test
+        @DisplayName("Should ignore a call the gone user was not part of")
+        void shouldIgnoreCall_whenUserNotParticipant() {
+            when(callSessionRegistry.resolve("call-123")).thenReturn(session(CallStatus.ACCEPTED));
+
+            assertFalse(signalingService.dropCall("call-123", Set.of("someone@test.com")));
+
+            verifyNoInteractions(callTransitionService, presenceService, notificationDispatcher);
+        }
+    }
+
+    @Nested
+    @DisplayName("Send reaction tests")
+    class SendReactionTests {
+
+        @Test
+        @DisplayName("Should count the reaction against the sender's id and show their first name")
+        void shouldKeyReactionBySenderId() throws OperationNotPermittedException {
+            when(authentication.getPrincipal()).thenReturn(User.builder()
+                    .id("caller-1")
+                    .email("caller@test.com")
+                    .fullName("Caller One")
+                    .build());
+            when(callSessionRegistry.resolve("call-123")).thenReturn(session(CallStatus.ACCEPTED));
+
+            signalingService.sendReaction("call-123", "heart", authentication);
+
+            verify(reactionAggregator).react("/topic/reaction/call-123/receiver@test.com", "caller-1", "Caller", "heart");
+        }
+    }
+}